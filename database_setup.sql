@@ -24,9 +24,12 @@ CREATE TABLE users (
     updated_at DATETIME2 DEFAULT GETDATE()
 );
 
+-- Create apartment id sequence (increment matches the allocation size in Apartment.java)
+CREATE SEQUENCE apartment_seq AS BIGINT START WITH 1 INCREMENT BY 50;
+
 -- Create apartments table
 CREATE TABLE apartments (
-    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    id BIGINT NOT NULL DEFAULT (NEXT VALUE FOR apartment_seq) PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
     description TEXT NOT NULL,
     address VARCHAR(255) NOT NULL,
@@ -63,11 +63,24 @@ BEGIN
 END
 GO
 
+-- Create apartment id sequence (increment matches the allocation size in Apartment.java)
+IF NOT EXISTS (SELECT * FROM sys.sequences WHERE name='apartment_seq')
+BEGIN
+    CREATE SEQUENCE apartment_seq AS BIGINT START WITH 1 INCREMENT BY 50;
+    PRINT 'Sequence apartment_seq created successfully.';
+END
+ELSE
+BEGIN
+    PRINT 'Sequence apartment_seq already exists.';
+END
+GO
+
 -- Create apartments table
+-- Databases created with an IDENTITY id column: run mssql_migrate_apartment_sequence.sql
 IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='apartments' AND xtype='U')
 BEGIN
     CREATE TABLE apartments (
-        id BIGINT IDENTITY(1,1) PRIMARY KEY,
+        id BIGINT NOT NULL CONSTRAINT DF_apartments_id DEFAULT (NEXT VALUE FOR apartment_seq) PRIMARY KEY,
         title NVARCHAR(255) NOT NULL,
         description NVARCHAR(MAX) NOT NULL,
         address NVARCHAR(255) NOT NULL,
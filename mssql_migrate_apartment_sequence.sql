@@ -0,0 +1,80 @@
+-- ===========================================
+-- MS SQL Server Migration: apartment ids from IDENTITY to apartment_seq
+-- Skyline Apartments System
+-- ===========================================
+-- Apartment ids are drawn from the apartment_seq sequence (allocation size 50,
+-- see Apartment.java) so bulk imports can batch their inserts. Databases created
+-- by an older mssql_database_setup.sql still have an IDENTITY id column, which
+-- Hibernate cannot insert into. Run this once, with the application stopped.
+-- It does nothing if the column is no longer an IDENTITY column.
+
+USE apartment_sales_db;
+GO
+
+SET XACT_ABORT ON;
+GO
+
+IF COLUMNPROPERTY(OBJECT_ID('apartments'), 'id', 'IsIdentity') = 1
+BEGIN
+    BEGIN TRY
+        BEGIN TRANSACTION;
+
+        -- Hibernate's pooled optimizer treats each value it fetches as the top of a
+        -- block of 50 ids, so the sequence must start at least 50 past the highest
+        -- existing id for the first block to stay clear of existing rows
+        DECLARE @start BIGINT = (SELECT ISNULL(MAX(id), 0) + 50 FROM apartments);
+        DECLARE @sql NVARCHAR(MAX);
+        IF EXISTS (SELECT * FROM sys.sequences WHERE name = 'apartment_seq')
+            DROP SEQUENCE apartment_seq;
+        SET @sql = N'CREATE SEQUENCE apartment_seq AS BIGINT START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50;';
+        EXEC sp_executesql @sql;
+
+        -- Remember the single-column foreign keys pointing at apartments(id), then drop them
+        DECLARE @foreignKeys TABLE (name SYSNAME, parent_table SYSNAME, parent_column SYSNAME);
+        INSERT INTO @foreignKeys (name, parent_table, parent_column)
+        SELECT fk.name, OBJECT_NAME(fk.parent_object_id), COL_NAME(fkc.parent_object_id, fkc.parent_column_id)
+        FROM sys.foreign_keys fk
+        JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id
+        WHERE fk.referenced_object_id = OBJECT_ID('apartments');
+
+        SET @sql = N'';
+        SELECT @sql += N'ALTER TABLE ' + QUOTENAME(parent_table) + N' DROP CONSTRAINT ' + QUOTENAME(name) + N';'
+        FROM @foreignKeys;
+        EXEC sp_executesql @sql;
+
+        DECLARE @primaryKey SYSNAME = (SELECT name FROM sys.key_constraints
+                                       WHERE parent_object_id = OBJECT_ID('apartments') AND type = 'PK');
+        SET @sql = N'ALTER TABLE apartments DROP CONSTRAINT ' + QUOTENAME(@primaryKey) + N';';
+        EXEC sp_executesql @sql;
+
+        -- IDENTITY cannot be removed in place: copy the ids into a plain column and swap it in.
+        -- Dynamic SQL because the new column does not exist when this batch is compiled.
+        EXEC sp_executesql N'ALTER TABLE apartments ADD id_new BIGINT NULL;';
+        EXEC sp_executesql N'UPDATE apartments SET id_new = id;';
+        EXEC sp_executesql N'ALTER TABLE apartments DROP COLUMN id;';
+        EXEC sp_rename 'apartments.id_new', 'id', 'COLUMN';
+        EXEC sp_executesql N'ALTER TABLE apartments ALTER COLUMN id BIGINT NOT NULL;';
+        EXEC sp_executesql N'ALTER TABLE apartments ADD CONSTRAINT PK_apartments PRIMARY KEY (id);';
+        -- Keeps plain INSERTs without an id (scripts, manual fixes) working
+        EXEC sp_executesql N'ALTER TABLE apartments ADD CONSTRAINT DF_apartments_id DEFAULT (NEXT VALUE FOR apartment_seq) FOR id;';
+
+        SET @sql = N'';
+        SELECT @sql += N'ALTER TABLE ' + QUOTENAME(parent_table) + N' ADD CONSTRAINT ' + QUOTENAME(name)
+                     + N' FOREIGN KEY (' + QUOTENAME(parent_column) + N') REFERENCES apartments(id);'
+        FROM @foreignKeys;
+        EXEC sp_executesql @sql;
+
+        COMMIT TRANSACTION;
+        PRINT 'apartments.id migrated to apartment_seq (starting at ' + CAST(@start AS NVARCHAR(20)) + ').';
+    END TRY
+    BEGIN CATCH
+        IF @@TRANCOUNT > 0
+            ROLLBACK TRANSACTION;
+        THROW;
+    END CATCH
+END
+ELSE
+BEGIN
+    PRINT 'apartments.id is not an IDENTITY column; nothing to migrate.';
+END
+GO
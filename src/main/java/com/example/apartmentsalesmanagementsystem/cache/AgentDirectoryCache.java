@@ -0,0 +1,71 @@
+package com.example.apartmentsalesmanagementsystem.cache;
+
+import com.example.apartmentsalesmanagementsystem.dto.AgentSummary;
+import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+import com.example.apartmentsalesmanagementsystem.event.UserChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Public agent directory. Agents are a small subset of users, so the full list is
+ * kept as immutable projections and dropped whenever any user changes
+ * (role grants and revocations go through UserService.updateUser).
+ */
+@Component
+public class AgentDirectoryCache {
+    
+    private static final int LOAD_BATCH_SIZE = 500;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private volatile List<AgentSummary> agents;
+    
+    private final AtomicLong generation = new AtomicLong();
+    
+    public List<AgentSummary> getAgents() {
+        List<AgentSummary> current = agents;
+        if (current == null) {
+            current = load();
+        }
+        return current;
+    }
+    
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate();
+    }
+    
+    public void invalidate() {
+        generation.incrementAndGet();
+        agents = null;
+    }
+    
+    private List<AgentSummary> load() {
+        long loadGeneration = generation.get();
+        List<AgentSummary> loaded = new ArrayList<>();
+        Sort order = Sort.by("lastName", "firstName", "id");
+        int pageNumber = 0;
+        Page<AgentSummary> page;
+        do {
+            page = userRepository.findSummariesByManagementRole(ManagementRole.AGENT, PageRequest.of(pageNumber++, LOAD_BATCH_SIZE, order));
+            loaded.addAll(page.getContent());
+        } while (page.hasNext());
+        
+        List<AgentSummary> result = Collections.unmodifiableList(loaded);
+        if (generation.get() == loadGeneration) {
+            agents = result;
+        }
+        return result;
+    }
+}
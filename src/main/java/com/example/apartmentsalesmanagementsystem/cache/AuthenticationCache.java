@@ -0,0 +1,189 @@
+package com.example.apartmentsalesmanagementsystem.cache;
+
+import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+import com.example.apartmentsalesmanagementsystem.entity.User;
+import com.example.apartmentsalesmanagementsystem.entity.UserRole;
+import com.example.apartmentsalesmanagementsystem.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of authentication principals keyed by username.
+ * Entries are immutable snapshots; callers always receive a fresh detached User,
+ * so nothing handed to Spring Security is a managed entity or shared between requests.
+ * Entries are evicted on every UserChangedEvent for that user, and a load that
+ * overlapped such an eviction is returned to its caller but never installed.
+ */
+@Component
+public class AuthenticationCache {
+    
+    @Value("${app.auth-cache.max-size:10000}")
+    private int maxSize;
+    
+    @Value("${app.auth-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    // Access-ordered so the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    
+    // Bumped under the entries lock on every eviction by event, so a load that raced
+    // with a deactivation or password change cannot reinstall the stale principal
+    private long generation;
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    /**
+     * Return the cached principal for the username, loading it on a miss or after expiry.
+     * The loader should return null when the user does not exist; misses are not cached.
+     */
+    public User get(String username, Function<String, User> loader) {
+        long now = System.nanoTime();
+        long loadGeneration;
+        synchronized (entries) {
+            loadGeneration = generation;
+            Entry entry = entries.get(username);
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.incrementAndGet();
+                return entry.snapshot.toUser();
+            }
+            if (entry != null) {
+                entries.remove(username);
+                evictions.incrementAndGet();
+            }
+        }
+        
+        misses.incrementAndGet();
+        User loaded = loader.apply(username);
+        if (loaded == null) {
+            return null;
+        }
+        Snapshot snapshot = new Snapshot(loaded);
+        synchronized (entries) {
+            if (generation != loadGeneration) {
+                return snapshot.toUser();
+            }
+            entries.put(username, new Entry(snapshot, now + ttlSeconds * 1_000_000_000L));
+            while (entries.size() > maxSize) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return snapshot.toUser();
+    }
+    
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isAllUsers()) {
+            clear();
+            return;
+        }
+        synchronized (entries) {
+            generation++;
+            if (event.getUsername() != null && entries.remove(event.getUsername()) != null) {
+                evictions.incrementAndGet();
+            }
+            // The username may have changed, so also drop any entry still holding this id
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (event.getUserId().equals(it.next().snapshot.id)) {
+                    it.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+    
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            evictions.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+    
+    private static final class Entry {
+        private final Snapshot snapshot;
+        private final long expiresAt;
+        
+        private Entry(Snapshot snapshot, long expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    /**
+     * Immutable copy of the fields a principal needs.
+     */
+    private static final class Snapshot {
+        private final Long id;
+        private final String username;
+        private final String email;
+        private final String password;
+        private final String firstName;
+        private final String lastName;
+        private final String phoneNumber;
+        private final UserRole role;
+        private final boolean active;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final Set<ManagementRole> managementRoles;
+        
+        private Snapshot(User user) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.email = user.getEmail();
+            this.password = user.getPassword();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.phoneNumber = user.getPhoneNumber();
+            this.role = user.getRole();
+            this.active = user.isActive();
+            this.createdAt = user.getCreatedAt();
+            this.updatedAt = user.getUpdatedAt();
+            this.managementRoles = Set.copyOf(user.getManagementRoles());
+        }
+        
+        private User toUser() {
+            User user = new User(username, email, password, firstName, lastName);
+            user.setId(id);
+            user.setPhoneNumber(phoneNumber);
+            user.setRole(role);
+            user.setActive(active);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            user.setManagementRoles(new HashSet<>(managementRoles));
+            return user;
+        }
+    }
+}
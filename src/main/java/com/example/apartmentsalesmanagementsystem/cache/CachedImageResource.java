@@ -0,0 +1,173 @@
+package com.example.apartmentsalesmanagementsystem.cache;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An upload file served from a direct buffer held by {@link HotImageCache}.
+ *
+ * Each stream or channel reads from its own view of the shared read-only buffer,
+ * so concurrent and ranged requests never copy the cached bytes on the heap. The
+ * backing file is still exposed for ETag generation and relative lookups.
+ */
+public class CachedImageResource extends AbstractResource {
+    
+    private final String key;
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final long lastModified;
+    private final AtomicLong bytesServed;
+    
+    CachedImageResource(String key, Path file, ByteBuffer buffer, long lastModified, AtomicLong bytesServed) {
+        this.key = key;
+        this.file = file;
+        this.buffer = buffer;
+        this.lastModified = lastModified;
+        this.bytesServed = bytesServed;
+    }
+    
+    @Override
+    public boolean exists() {
+        return true;
+    }
+    
+    @Override
+    public boolean isFile() {
+        return true;
+    }
+    
+    @Override
+    public File getFile() {
+        return file.toFile();
+    }
+    
+    @Override
+    public String getFilename() {
+        return file.getFileName().toString();
+    }
+    
+    @Override
+    public long contentLength() {
+        return buffer.capacity();
+    }
+    
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+    
+    @Override
+    public Resource createRelative(String relativePath) {
+        return new FileSystemResource(file.resolveSibling(relativePath));
+    }
+    
+    @Override
+    public InputStream getInputStream() {
+        return new BufferInputStream(buffer.duplicate());
+    }
+    
+    @Override
+    public ReadableByteChannel readableChannel() {
+        return new BufferChannel(buffer.duplicate());
+    }
+    
+    @Override
+    public String getDescription() {
+        return "cached upload [" + key + "]";
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof CachedImageResource that && file.equals(that.file));
+    }
+    
+    @Override
+    public int hashCode() {
+        return file.hashCode();
+    }
+    
+    private final class BufferInputStream extends InputStream {
+        
+        private final ByteBuffer view;
+        
+        BufferInputStream(ByteBuffer view) {
+            this.view = view;
+        }
+        
+        @Override
+        public int read() {
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+            bytesServed.incrementAndGet();
+            return view.get() & 0xFF;
+        }
+        
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, view.remaining());
+            view.get(target, offset, count);
+            bytesServed.addAndGet(count);
+            return count;
+        }
+        
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, view.remaining()));
+            view.position(view.position() + count);
+            return count;
+        }
+        
+        @Override
+        public int available() {
+            return view.remaining();
+        }
+    }
+    
+    private final class BufferChannel implements ReadableByteChannel {
+        
+        private final ByteBuffer view;
+        private boolean open = true;
+        
+        BufferChannel(ByteBuffer view) {
+            this.view = view;
+        }
+        
+        @Override
+        public int read(ByteBuffer target) {
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(target.remaining(), view.remaining());
+            ByteBuffer slice = view.slice(view.position(), count);
+            target.put(slice);
+            view.position(view.position() + count);
+            bytesServed.addAndGet(count);
+            return count;
+        }
+        
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+        
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
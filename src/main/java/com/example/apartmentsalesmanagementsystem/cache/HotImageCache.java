@@ -0,0 +1,275 @@
+package com.example.apartmentsalesmanagementsystem.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded cache of frequently requested upload files, held in read-only direct
+ * buffers so hot images are served without touching the disk or the Java heap.
+ *
+ * Keys are paths relative to the upload directory. Every request is counted in a
+ * small count-min sketch; a file is only admitted once it has been seen more than
+ * once, and only if it is requested more often than the least recently used entries
+ * it would push out. Entries are dropped when ImageStorageService deletes an image
+ * or ThumbnailService rewrites a variant; a load still in flight for that key is
+ * discarded instead of installed.
+ */
+@Component
+public class HotImageCache {
+    
+    @Value("${app.image-cache.max-bytes:67108864}")
+    private long maxBytes;
+    
+    @Value("${app.image-cache.max-entry-bytes:2097152}")
+    private long maxEntryBytes;
+    
+    @Value("${app.image-cache.min-frequency:2}")
+    private int minFrequency;
+    
+    // Access-ordered so the eldest entry is the least recently used
+    private final LinkedHashMap<String, CachedImageResource> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final FrequencySketch sketch = new FrequencySketch(4096);
+    private long usedBytes;
+    
+    // Token per key being loaded outside the lock; invalidation removes it so the load is not installed
+    private final Map<String, Object> loading = new HashMap<>();
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong admissions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    
+    /**
+     * Cached copy of the file for this key, or null on a miss. Counts the access
+     * towards the key's frequency either way.
+     */
+    public CachedImageResource get(String key) {
+        synchronized (entries) {
+            sketch.increment(key);
+            CachedImageResource cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+    
+    /**
+     * Offer a file that was just resolved from disk. Returns the cached copy when
+     * the admission policy accepts it, otherwise null and the caller serves the file.
+     */
+    public CachedImageResource admit(String key, Path file) {
+        long size;
+        long lastModified;
+        try {
+            size = file.toFile().length();
+            lastModified = file.toFile().lastModified();
+        } catch (SecurityException e) {
+            return null;
+        }
+        if (size <= 0 || size > maxEntryBytes || size > maxBytes) {
+            return null;
+        }
+        int frequency;
+        Object token = new Object();
+        synchronized (entries) {
+            frequency = sketch.frequency(key);
+            if (frequency < minFrequency || entries.containsKey(key) || loading.containsKey(key)
+                    || !makeRoom(size, frequency, false)) {
+                return null;
+            }
+            loading.put(key, token);
+        }
+        
+        ByteBuffer buffer;
+        try {
+            buffer = load(file, size);
+        } catch (IOException e) {
+            System.err.println("Could not cache image " + key + ": " + e.getMessage());
+            synchronized (entries) {
+                loading.remove(key, token);
+            }
+            return null;
+        }
+        CachedImageResource cached = new CachedImageResource(key, file, buffer, lastModified, bytesServed);
+        
+        synchronized (entries) {
+            if (!loading.remove(key, token)) {
+                // Invalidated while loading; the bytes may predate the change
+                return null;
+            }
+            CachedImageResource existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            // Re-check; other admissions may have filled the space while loading
+            if (!makeRoom(size, frequency, true)) {
+                return null;
+            }
+            entries.put(key, cached);
+            usedBytes += size;
+            admissions.incrementAndGet();
+        }
+        return cached;
+    }
+    
+    /**
+     * Drop the entry for an /uploads/ URL, if cached.
+     */
+    public void invalidateUrl(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith("/uploads/")) {
+            return;
+        }
+        String key = imageUrl.substring("/uploads/".length());
+        synchronized (entries) {
+            loading.remove(key);
+            CachedImageResource removed = entries.remove(key);
+            if (removed != null) {
+                usedBytes -= removed.contentLength();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+    
+    public void clear() {
+        synchronized (entries) {
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+            loading.clear();
+            usedBytes = 0;
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("usedBytes", usedBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("maxEntryBytes", maxEntryBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("bytesServed", bytesServed.get());
+        stats.put("admissions", admissions.get());
+        stats.put("rejections", rejections.get());
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+    
+    /**
+     * Make space for an entry of the given size by evicting from the LRU end, but
+     * only if every victim is requested less often than the candidate. With
+     * {@code evict} false this only checks. Must hold the entries lock.
+     */
+    private boolean makeRoom(long size, int frequency, boolean evict) {
+        long needed = usedBytes + size - maxBytes;
+        if (needed <= 0) {
+            return true;
+        }
+        List<String> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, CachedImageResource>> eldest = entries.entrySet().iterator();
+        while (needed > 0 && eldest.hasNext()) {
+            Map.Entry<String, CachedImageResource> victim = eldest.next();
+            if (sketch.frequency(victim.getKey()) >= frequency) {
+                rejections.incrementAndGet();
+                return false;
+            }
+            victims.add(victim.getKey());
+            needed -= victim.getValue().contentLength();
+        }
+        if (evict) {
+            for (String victim : victims) {
+                usedBytes -= entries.remove(victim).contentLength();
+                evictions.incrementAndGet();
+            }
+        }
+        return true;
+    }
+    
+    private static ByteBuffer load(Path file, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("file shrank while loading");
+                }
+            }
+        }
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+    
+    /**
+     * Count-min sketch of request frequencies. All counters are halved once the
+     * number of recorded requests reaches ten times the width, so old popularity
+     * fades. Not thread-safe; guarded by the entries lock.
+     */
+    private static final class FrequencySketch {
+        
+        private static final int DEPTH = 4;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+        
+        private final int[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+        
+        FrequencySketch(int width) {
+            int capacity = Integer.highestOneBit(Math.max(16, width));
+            this.table = new int[capacity * DEPTH];
+            this.mask = capacity - 1;
+            this.sampleSize = capacity * 10;
+        }
+        
+        void increment(String key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < DEPTH; row++) {
+                table[index(hash, row)]++;
+            }
+            if (++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] >>>= 1;
+                }
+                additions /= 2;
+            }
+        }
+        
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, table[index(hash, row)]);
+            }
+            return min;
+        }
+        
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            h ^= h >>> 16;
+            return row * (mask + 1) + (h & mask);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.apartmentsalesmanagementsystem.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * First resolver in the /uploads/** chain: answers from {@link HotImageCache} and
+ * otherwise offers whatever the rest of the chain resolved from disk. Precompressed
+ * ({@link EncodedResourceResolver}) results are passed through uncached.
+ */
+public class HotImageResourceResolver extends AbstractResourceResolver {
+    
+    private final HotImageCache cache;
+    
+    public HotImageResourceResolver(HotImageCache cache) {
+        this.cache = cache;
+    }
+    
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        CachedImageResource cached = cache.get(requestPath);
+        if (cached != null) {
+            return cached;
+        }
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || resource instanceof HttpResource || !resource.isFile()) {
+            return resource;
+        }
+        try {
+            CachedImageResource admitted = cache.admit(requestPath, resource.getFile().toPath());
+            return admitted != null ? admitted : resource;
+        } catch (IOException e) {
+            return resource;
+        }
+    }
+    
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.apartmentsalesmanagementsystem.cache;
+
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentSummary;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Newest available listings for the home page. Holds a small immutable snapshot
+ * that is dropped on any apartment write and reloaded with one bounded query.
+ */
+@Component
+public class RecentListingsCache {
+    
+    public static final int CAPACITY = 12;
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    private volatile List<ApartmentSummary> snapshot;
+    
+    // Bumped on every invalidation so a load that raced with a write is not installed
+    private final AtomicLong generation = new AtomicLong();
+    
+    public List<ApartmentSummary> getRecent(int limit) {
+        List<ApartmentSummary> current = snapshot;
+        if (current == null) {
+            current = load();
+        }
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+    
+    @EventListener
+    public void onApartmentChanged(ApartmentChangedEvent event) {
+        invalidate();
+    }
+    
+    @EventListener
+    public void onApartmentsChanged(ApartmentBatchChangedEvent event) {
+        invalidate();
+    }
+    
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+    
+    private List<ApartmentSummary> load() {
+        long loadGeneration = generation.get();
+        List<ApartmentSummary> loaded = Collections.unmodifiableList(
+                apartmentRepository.findByStatusNewestFirst(ApartmentStatus.AVAILABLE, PageRequest.of(0, CAPACITY))
+                        .stream()
+                        .map(ApartmentSummary::new)
+                        .collect(Collectors.toList()));
+        if (generation.get() == loadGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+}
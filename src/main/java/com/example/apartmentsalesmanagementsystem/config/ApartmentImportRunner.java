@@ -0,0 +1,106 @@
+package com.example.apartmentsalesmanagementsystem.config;
+
+import com.example.apartmentsalesmanagementsystem.dto.FeedSyncReport;
+import com.example.apartmentsalesmanagementsystem.dto.ImportReport;
+import com.example.apartmentsalesmanagementsystem.entity.User;
+import com.example.apartmentsalesmanagementsystem.service.ApartmentImportService;
+import com.example.apartmentsalesmanagementsystem.service.FeedSyncService;
+import com.example.apartmentsalesmanagementsystem.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command-line bulk import and feed sync. Start the application with
+ * {@code --import-apartments=/path/to/units.csv} (or .ndjson), or with
+ * {@code --sync-feed=/path/to/snapshot.csv --feed-source=<name>}, optionally
+ * {@code --import-owner=<username>}, and it processes the file, prints the report and
+ * exits with status 0 when every row went in, 1 otherwise.
+ */
+@Component
+public class ApartmentImportRunner implements ApplicationRunner {
+    
+    @Autowired
+    private ApartmentImportService apartmentImportService;
+    
+    @Autowired
+    private FeedSyncService feedSyncService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ConfigurableApplicationContext context;
+    
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (args.containsOption("sync-feed")) {
+            syncFeed(args);
+            return;
+        }
+        if (!args.containsOption("import-apartments")) {
+            return;
+        }
+        Path file = Paths.get(args.getOptionValues("import-apartments").get(0));
+        User owner = owner(args);
+        
+        ImportReport report;
+        try (InputStream in = Files.newInputStream(file)) {
+            report = apartmentImportService.importApartments(in,
+                    ApartmentImportService.Format.detect(file.getFileName().toString()), owner);
+        }
+        printErrors(report.getErrors(), report.isErrorsTruncated());
+        System.out.println(report.getSummary());
+        exit(report.getFailed() == 0 ? 0 : 1);
+    }
+    
+    private void syncFeed(ApplicationArguments args) throws Exception {
+        Path file = Paths.get(args.getOptionValues("sync-feed").get(0));
+        if (!args.containsOption("feed-source")) {
+            throw new IllegalArgumentException("--sync-feed needs --feed-source=<name>");
+        }
+        String source = args.getOptionValues("feed-source").get(0);
+        User owner = owner(args);
+        
+        FeedSyncReport report;
+        try (InputStream in = Files.newInputStream(file)) {
+            report = feedSyncService.sync(source, in,
+                    ApartmentImportService.Format.detect(file.getFileName().toString()), owner, null);
+        }
+        printErrors(report.getErrors(), report.isErrorsTruncated());
+        System.out.println(report.getSummary());
+        exit(report.getFailed() == 0 ? 0 : 1);
+    }
+    
+    private User owner(ApplicationArguments args) {
+        User owner = null;
+        if (args.containsOption("import-owner")) {
+            String username = args.getOptionValues("import-owner").get(0);
+            owner = userService.findByUsername(username)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown import owner: " + username));
+        }
+        return owner;
+    }
+    
+    private static void printErrors(List<ImportReport.RowError> errors, boolean truncated) {
+        for (ImportReport.RowError error : errors) {
+            System.err.println("line " + error.getLine() + ": " + error.getMessage());
+        }
+        if (truncated) {
+            System.err.println("(further row errors omitted)");
+        }
+    }
+    
+    private void exit(int status) {
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
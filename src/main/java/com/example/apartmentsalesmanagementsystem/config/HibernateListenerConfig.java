@@ -0,0 +1,107 @@
+package com.example.apartmentsalesmanagementsystem.config;
+
+import com.example.apartmentsalesmanagementsystem.service.DashboardStatisticsService;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Registers Hibernate listeners that run after a transaction commits, so services
+ * which publish no events of their own still keep the dashboard counters current.
+ */
+@Configuration
+public class HibernateListenerConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer dashboardListenerCustomizer(ObjectProvider<DashboardStatisticsService> dashboardStatistics) {
+        DashboardCommitListener listener = new DashboardCommitListener(dashboardStatistics);
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+                registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+            }
+            
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        IntegratorProvider integrators = () -> List.of(integrator);
+        return properties -> properties.put("hibernate.integrator_provider", integrators);
+    }
+    
+    /**
+     * Marks the dashboard domain of each committed entity dirty. The service is looked
+     * up per event because it depends, through the repositories, on the session
+     * factory this listener is registered with. Bulk HQL updates bypass these events
+     * and are still left to the periodic reconciliation.
+     */
+    static final class DashboardCommitListener
+            implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+        
+        private final ObjectProvider<DashboardStatisticsService> dashboardStatistics;
+        
+        DashboardCommitListener(ObjectProvider<DashboardStatisticsService> dashboardStatistics) {
+            this.dashboardStatistics = dashboardStatistics;
+        }
+        
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getPersister());
+        }
+        
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changed(event.getPersister());
+        }
+        
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getPersister());
+        }
+        
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+        
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+        
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+        
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return true;
+        }
+        
+        private void changed(EntityPersister persister) {
+            DashboardStatisticsService service = dashboardStatistics.getIfAvailable();
+            if (service != null) {
+                service.onEntityCommitted(persister.getMappedClass());
+            }
+        }
+    }
+}
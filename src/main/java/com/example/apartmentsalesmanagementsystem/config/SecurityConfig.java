@@ -1,24 +1,47 @@
 package com.example.apartmentsalesmanagementsystem.config;
 
+import com.example.apartmentsalesmanagementsystem.security.BoundedPasswordEncoder;
+import com.example.apartmentsalesmanagementsystem.security.PasswordHashingOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.ExceptionMappingAuthenticationFailureHandler;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.password-hashing.threads:0}") int threads,
+            @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.password-hashing.wait-timeout-ms:5000}") long waitTimeoutMillis,
+            @Value("${app.password-hashing.target-latency-ms:250}") long targetLatencyMillis,
+            @Value("${app.password-hashing.min-strength:10}") int minStrength,
+            @Value("${app.password-hashing.max-strength:14}") int maxStrength) {
+        // Default to half the cores so hashing can never starve page rendering
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(poolSize, queueCapacity, waitTimeoutMillis,
+                                          targetLatencyMillis, minStrength, maxStrength);
     }
     
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        // A shed login is not a wrong password; tell the user to retry instead
+        ExceptionMappingAuthenticationFailureHandler failureHandler = new ExceptionMappingAuthenticationFailureHandler();
+        failureHandler.setDefaultFailureUrl("/login?error=true");
+        failureHandler.setExceptionMappings(Map.of(
+            PasswordHashingOverloadedException.class.getName(), "/login?busy=true"));
+        
         http
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/", "/home", "/register", "/users/register", "/users/clear-all", "/login", "/css/**", "/js/**", "/images/**", "/uploads/**", "/webjars/**", "/h2-console/**").permitAll()
@@ -30,7 +53,7 @@ public class SecurityConfig {
             .formLogin(form -> form
                 .loginPage("/login")
                 .defaultSuccessUrl("/dashboard", true)
-                .failureUrl("/login?error=true")
+                .failureHandler(failureHandler)
                 .permitAll()
             )
             .logout(logout -> logout
@@ -38,7 +61,15 @@ public class SecurityConfig {
                 .permitAll()
             )
             .csrf(csrf -> csrf.disable())
-            .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
+            .headers(headers -> headers
+                .frameOptions(frameOptions -> frameOptions.disable())
+                // Uploads set their own long-lived Cache-Control (see WebConfig); the
+                // default no-cache headers would otherwise land on their 304 responses
+                .cacheControl(cacheControl -> cacheControl.disable())
+                .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(
+                    new NegatedRequestMatcher(PathPatternRequestMatcher.withDefaults().matcher("/uploads/**")),
+                    new CacheControlHeadersWriter()))
+            );
         
         return http.build();
     }
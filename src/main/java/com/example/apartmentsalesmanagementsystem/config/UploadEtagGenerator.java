@@ -0,0 +1,79 @@
+package com.example.apartmentsalesmanagementsystem.config;
+
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Strong ETags for /uploads/** derived from file content.
+ *
+ * Content-addressed uploads and their variants carry the SHA-256 in their file name,
+ * so the tag is taken straight from the path. Older flat uploads are hashed once and
+ * remembered, keyed by path, size and modification time, in a bounded cache.
+ */
+public class UploadEtagGenerator implements Function<Resource, String> {
+    
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64}(?:-w\\d+)?)\\.[A-Za-z0-9]+");
+    private static final int MAX_CACHED = 10000;
+    
+    private final Map<String, String> hashedFiles = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > MAX_CACHED;
+                }
+            });
+    
+    @Override
+    public String apply(Resource resource) {
+        String fileName = resource.getFilename();
+        if (fileName != null) {
+            Matcher matcher = CONTENT_ADDRESSED.matcher(fileName);
+            if (matcher.matches()) {
+                return matcher.group(1);
+            }
+        }
+        try {
+            File file = resource.getFile();
+            String key = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+            String etag = hashedFiles.get(key);
+            if (etag == null) {
+                etag = sha256(file);
+                hashedFiles.put(key, etag);
+            }
+            return etag;
+        } catch (IOException e) {
+            // No ETag; Last-Modified still allows revalidation
+            return null;
+        }
+    }
+    
+    private static String sha256(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
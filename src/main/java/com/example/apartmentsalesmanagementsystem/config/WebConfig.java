@@ -1,26 +1,50 @@
 package com.example.apartmentsalesmanagementsystem.config;
 
+import com.example.apartmentsalesmanagementsystem.cache.HotImageCache;
+import com.example.apartmentsalesmanagementsystem.cache.HotImageResourceResolver;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
+    @Autowired
+    private HotImageCache hotImageCache;
+    
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
     
+    @Value("${app.upload.cache-max-age-days:365}")
+    private long cacheMaxAgeDays;
+    
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Serve uploaded images from the uploads directory
         Path uploadPath = Paths.get(uploadDir);
         String uploadPathStr = uploadPath.toFile().getAbsolutePath();
         
+        // Upload names never change content (content-addressed or random), so they can
+        // be cached for good. The handler answers If-None-Match/If-Modified-Since with
+        // 304 and Range requests with 206; a .br or .gz sibling is served when present.
+        // Frequently requested files are answered from HotImageCache without disk reads.
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadPathStr + "/");
+                .addResourceLocations("file:" + uploadPathStr + "/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(cacheMaxAgeDays)).cachePublic().immutable())
+                .setEtagGenerator(new UploadEtagGenerator())
+                .setUseLastModified(true)
+                .resourceChain(false)
+                .addResolver(new HotImageResourceResolver(hotImageCache))
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
     }
 }
@@ -1,28 +1,56 @@
 package com.example.apartmentsalesmanagementsystem.controller;
 
+import com.example.apartmentsalesmanagementsystem.cache.AuthenticationCache;
+import com.example.apartmentsalesmanagementsystem.cache.HotImageCache;
+import com.example.apartmentsalesmanagementsystem.dto.AgentSummary;
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentReport;
+import com.example.apartmentsalesmanagementsystem.dto.FeedSyncReport;
+import com.example.apartmentsalesmanagementsystem.dto.ImportReport;
 import com.example.apartmentsalesmanagementsystem.entity.User;
 import com.example.apartmentsalesmanagementsystem.entity.UserRole;
 import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
 import com.example.apartmentsalesmanagementsystem.entity.Apartment;
 import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
-import com.example.apartmentsalesmanagementsystem.entity.AppointmentStatus;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentColumnStore;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentFacetIndex;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentPriceIndex;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentSearchIndex;
+import com.example.apartmentsalesmanagementsystem.index.SearchIndexStats;
+import com.example.apartmentsalesmanagementsystem.security.BoundedPasswordEncoder;
+import com.example.apartmentsalesmanagementsystem.service.ApartmentImportService;
 import com.example.apartmentsalesmanagementsystem.service.ApartmentService;
+import com.example.apartmentsalesmanagementsystem.service.DailyRollupService;
+import com.example.apartmentsalesmanagementsystem.service.DashboardStatisticsService;
+import com.example.apartmentsalesmanagementsystem.service.ExportService;
+import com.example.apartmentsalesmanagementsystem.service.FeedSyncService;
+import com.example.apartmentsalesmanagementsystem.service.ImageStorageService;
+import com.example.apartmentsalesmanagementsystem.service.ReportAnalyticsService;
+import com.example.apartmentsalesmanagementsystem.service.ThumbnailService;
+import com.example.apartmentsalesmanagementsystem.service.UploadGarbageCollector;
 import com.example.apartmentsalesmanagementsystem.service.UserService;
-import com.example.apartmentsalesmanagementsystem.service.AppointmentService;
-import com.example.apartmentsalesmanagementsystem.service.AppointmentRequestService;
-import com.example.apartmentsalesmanagementsystem.service.ReviewService;
-import com.example.apartmentsalesmanagementsystem.service.ParkingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
 import java.util.Optional;
-import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/admin")
@@ -35,66 +63,56 @@ public class AdminController {
     private ApartmentService apartmentService;
     
     @Autowired
-    private AppointmentService appointmentService;
+    private ApartmentSearchIndex apartmentSearchIndex;
     
     @Autowired
-    private AppointmentRequestService appointmentRequestService;
+    private ApartmentColumnStore apartmentColumnStore;
     
     @Autowired
-    private ReviewService reviewService;
+    private ApartmentFacetIndex apartmentFacetIndex;
     
     @Autowired
-    private ParkingService parkingService;
+    private ApartmentPriceIndex apartmentPriceIndex;
+    
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Autowired
+    private ThumbnailService thumbnailService;
+    
+    @Autowired
+    private HotImageCache hotImageCache;
+    
+    @Autowired
+    private UploadGarbageCollector uploadGarbageCollector;
+    
+    @Autowired
+    private ApartmentImportService apartmentImportService;
+    
+    @Autowired
+    private FeedSyncService feedSyncService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ReportAnalyticsService reportAnalyticsService;
+    
+    @Autowired
+    private DashboardStatisticsService dashboardStatisticsService;
+    
+    @Autowired
+    private DailyRollupService dailyRollupService;
+    
+    @Autowired
+    private AuthenticationCache authenticationCache;
+    
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
     
     @GetMapping("/dashboard")
     public String adminDashboard(Model model) {
-        model.addAttribute("totalUsers", userService.getTotalUsers());
-        model.addAttribute("activeUsers", userService.getActiveUsersCount());
-        model.addAttribute("totalClients", userService.countUsersByRole(UserRole.CLIENT));
-        model.addAttribute("totalAdmins", userService.countUsersByRole(UserRole.ADMIN));
-        model.addAttribute("totalApartments", apartmentService.getTotalApartments());
-        model.addAttribute("availableApartments", apartmentService.getAvailableApartmentsCount());
-        model.addAttribute("soldApartments", apartmentService.getSoldApartmentsCount());
-        model.addAttribute("underContractApartments", apartmentService.getUnderContractApartmentsCount());
-        
-        // Add agent statistics
-        long totalAgents = userService.findAllUsers().stream()
-                .filter(user -> user.getManagementRoles().contains(ManagementRole.AGENT))
-                .count();
-        model.addAttribute("totalAgents", totalAgents);
-        
-        // Add appointment statistics
-        model.addAttribute("totalAppointments", appointmentService.getTotalAppointments());
-        model.addAttribute("scheduledAppointments", appointmentService.countAppointmentsByStatus(AppointmentStatus.SCHEDULED));
-        model.addAttribute("confirmedAppointments", appointmentService.countAppointmentsByStatus(AppointmentStatus.CONFIRMED));
-        model.addAttribute("completedAppointments", appointmentService.countAppointmentsByStatus(AppointmentStatus.COMPLETED));
-        model.addAttribute("cancelledAppointments", appointmentService.countAppointmentsByStatus(AppointmentStatus.CANCELLED));
-        
-        // Add appointment request statistics
-        model.addAttribute("totalAppointmentRequests", appointmentRequestService.getTotalRequests());
-        model.addAttribute("pendingAppointmentRequests", appointmentRequestService.getPendingRequestsCount());
-        model.addAttribute("approvedAppointmentRequests", appointmentRequestService.getApprovedRequestsCount());
-        model.addAttribute("rejectedAppointmentRequests", appointmentRequestService.getRejectedRequestsCount());
-        model.addAttribute("completedAppointmentRequests", appointmentRequestService.getCompletedRequestsCount());
-        
-        // Add review statistics
-        model.addAttribute("totalReviews", reviewService.getTotalReviews());
-        model.addAttribute("approvedReviews", reviewService.getApprovedReviewsCount());
-        model.addAttribute("pendingReviews", reviewService.getPendingReviewsCount());
-        model.addAttribute("featuredReviews", reviewService.getFeaturedReviewsCount());
-        model.addAttribute("verifiedReviews", reviewService.getVerifiedReviewsCount());
-        model.addAttribute("highRatedReviews", reviewService.getHighRatedReviewsCount());
-        model.addAttribute("lowRatedReviews", reviewService.getLowRatedReviewsCount());
-        
-        // Add parking statistics
-        model.addAttribute("totalParkingSpaces", parkingService.getTotalParkingSpaces());
-        model.addAttribute("availableParkingSpaces", parkingService.getAvailableParkingSpacesCount());
-        model.addAttribute("occupiedParkingSpaces", parkingService.getOccupiedParkingSpacesCount());
-        model.addAttribute("reservedParkingSpaces", parkingService.getReservedParkingSpacesCount());
-        model.addAttribute("maintenanceParkingSpaces", parkingService.getMaintenanceParkingSpacesCount());
-        model.addAttribute("parkingRevenue", parkingService.getTotalMonthlyRevenue());
-        model.addAttribute("parkingOccupancyRate", parkingService.getOccupancyRate());
-        
+        model.addAllAttributes(dashboardStatisticsService.getSnapshot());
         return "admin/dashboard";
     }
     
@@ -228,8 +246,29 @@ public class AdminController {
     }
     
     @GetMapping("/apartments")
-    public String manageApartments(Model model) {
-        model.addAttribute("apartments", apartmentService.findAllApartments());
+    public String manageApartments(@RequestParam(required = false) ApartmentStatus status,
+                                 @RequestParam(required = false) String city,
+                                 @RequestParam(required = false) BigDecimal minPrice,
+                                 @RequestParam(required = false) BigDecimal maxPrice,
+                                 @RequestParam(required = false) Integer minBedrooms,
+                                 @RequestParam(required = false) String sort,
+                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(defaultValue = "50") int size,
+                                 Model model) {
+        ApartmentFilter filter = new ApartmentFilter();
+        // Admins see every status unless one is picked explicitly
+        filter.setStatus(status);
+        filter.setCity(city);
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+        filter.setMinBedrooms(minBedrooms);
+        
+        Page<Apartment> apartmentPage = apartmentService.filterApartments(filter, sort, page, size);
+        model.addAttribute("apartments", apartmentPage.getContent());
+        model.addAttribute("apartmentPage", apartmentPage);
+        model.addAttribute("filter", filter);
+        model.addAttribute("sort", sort);
+        model.addAttribute("apartmentStatuses", ApartmentStatus.values());
         return "admin/apartments";
     }
     
@@ -262,6 +301,158 @@ public class AdminController {
         }
     }
     
+    /**
+     * Bulk import from an uploaded CSV or NDJSON file; the summary and the first
+     * few row errors are shown on the apartments page.
+     */
+    @PostMapping("/apartments/import")
+    public String importApartments(@RequestParam("file") MultipartFile file,
+                                   @RequestParam(value = "ownerId", required = false) Long ownerId,
+                                   RedirectAttributes redirectAttributes) {
+        if (file == null || file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Please choose a CSV or NDJSON file to import.");
+            return "redirect:/admin/apartments";
+        }
+        try (InputStream in = file.getInputStream()) {
+            User owner = ownerId == null ? null : userService.findById(ownerId).orElse(null);
+            ImportReport report = apartmentImportService.importApartments(in,
+                    ApartmentImportService.Format.detect(file.getOriginalFilename()), owner);
+            StringBuilder message = new StringBuilder(report.getSummary());
+            report.getErrors().stream().limit(5).forEach(rowError ->
+                    message.append(" | line ").append(rowError.getLine()).append(": ").append(rowError.getMessage()));
+            redirectAttributes.addFlashAttribute(report.getFailed() == 0 ? "success" : "error", message.toString());
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error importing apartments: " + e.getMessage());
+        }
+        return "redirect:/admin/apartments";
+    }
+    
+    /**
+     * Bulk import streamed from the raw request body (text/csv or application/x-ndjson),
+     * for scripted onboarding; not subject to the multipart size limit.
+     */
+    @PostMapping(value = "/apartments/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"},
+                 produces = "application/json")
+    @ResponseBody
+    public ImportReport importApartmentsStream(HttpServletRequest request,
+                                               @RequestParam(value = "ownerId", required = false) Long ownerId) throws IOException {
+        User owner = ownerId == null ? null : userService.findById(ownerId).orElse(null);
+        return apartmentImportService.importApartments(request.getInputStream(),
+                ApartmentImportService.Format.detect(request.getContentType()), owner);
+    }
+    
+    /**
+     * Incremental sync of a partner's full inventory snapshot, streamed from the raw
+     * request body (text/csv or application/x-ndjson, each record with an externalId).
+     */
+    @PostMapping(value = "/feeds/{source}/sync", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"},
+                 produces = "application/json")
+    @ResponseBody
+    public FeedSyncReport syncFeed(@PathVariable String source, HttpServletRequest request,
+                                   @RequestParam(value = "ownerId", required = false) Long ownerId,
+                                   @RequestParam(value = "missingStatus", required = false) ApartmentStatus missingStatus) throws IOException {
+        User owner = ownerId == null ? null : userService.findById(ownerId).orElse(null);
+        return feedSyncService.sync(source, request.getInputStream(),
+                ApartmentImportService.Format.detect(request.getContentType()), owner, missingStatus);
+    }
+    
+    /**
+     * Stream every apartment matching the browse filters as CSV or NDJSON. Written
+     * synchronously to the response so a long export is not cut off by the async
+     * request timeout.
+     */
+    @GetMapping("/apartments/export")
+    public void exportApartments(@RequestParam(required = false) ApartmentStatus status,
+                                 @RequestParam(required = false) String city,
+                                 @RequestParam(required = false) BigDecimal minPrice,
+                                 @RequestParam(required = false) BigDecimal maxPrice,
+                                 @RequestParam(required = false) Integer minBedrooms,
+                                 @RequestParam(defaultValue = "csv") String format,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        ApartmentFilter filter = new ApartmentFilter();
+        filter.setStatus(status);
+        filter.setCity(city);
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+        filter.setMinBedrooms(minBedrooms);
+        
+        ApartmentImportService.Format exportFormat = ApartmentImportService.Format.detect(format);
+        try (OutputStream out = openExport(request, response, "apartments", exportFormat)) {
+            exportService.exportApartments(filter, exportFormat, out);
+        }
+    }
+    
+    /**
+     * Stream users (optionally one role or active state) as CSV or NDJSON.
+     */
+    @GetMapping("/users/export")
+    public void exportUsers(@RequestParam(required = false) UserRole role,
+                            @RequestParam(required = false) Boolean active,
+                            @RequestParam(defaultValue = "csv") String format,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        ApartmentImportService.Format exportFormat = ApartmentImportService.Format.detect(format);
+        try (OutputStream out = openExport(request, response, "users", exportFormat)) {
+            exportService.exportUsers(role, active, exportFormat, out);
+        }
+    }
+    
+    /**
+     * Set the download headers and return the body stream, gzip-compressed when the
+     * client accepts it. Sync flush makes each flush reach the client promptly.
+     */
+    private OutputStream openExport(HttpServletRequest request, HttpServletResponse response,
+                                    String name, ApartmentImportService.Format format) throws IOException {
+        boolean ndjson = format == ApartmentImportService.Format.NDJSON;
+        response.setContentType(ndjson ? "application/x-ndjson;charset=UTF-8" : "text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + name + "-" + LocalDate.now() + (ndjson ? ".ndjson" : ".csv") + "\"");
+        response.setHeader("Cache-Control", "no-store");
+        response.addHeader("Vary", "Accept-Encoding");
+        if (acceptsGzip(request.getHeader("Accept-Encoding"))) {
+            response.setHeader("Content-Encoding", "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), 8192, true);
+        }
+        return response.getOutputStream();
+    }
+    
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed (or matched by *) with a
+     * non-zero q-value, so "gzip;q=0" opts out.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality;
+            } else if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+    
     @GetMapping("/apartments/{id}")
     public String viewApartment(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
         try {
@@ -343,13 +534,15 @@ public class AdminController {
     }
     
     @GetMapping("/agents")
-    public String manageAgents(Model model) {
-        // Get users with AGENT management role
-        List<User> agents = userService.findAllUsers().stream()
-                .filter(user -> user.getManagementRoles().contains(ManagementRole.AGENT))
-                .collect(Collectors.toList());
-        model.addAttribute("agents", agents);
-        model.addAttribute("allUsers", userService.findAllUsers());
+    public String manageAgents(@RequestParam(defaultValue = "0") int page,
+                               @RequestParam(defaultValue = "50") int size,
+                               Model model) {
+        // Get users with AGENT management role, one page at a time
+        Page<AgentSummary> agents = userService.findAgents(
+                PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 200)), Sort.by("lastName", "firstName", "id")));
+        model.addAttribute("agents", agents.getContent());
+        model.addAttribute("agentPage", agents);
+        model.addAttribute("totalAgents", agents.getTotalElements());
         return "admin/agents";
     }
     
@@ -435,10 +628,106 @@ public class AdminController {
         }
     }
     
+    @GetMapping(value = "/search-index/stats", produces = "application/json")
+    @ResponseBody
+    public SearchIndexStats searchIndexStats() {
+        return apartmentSearchIndex.getStats();
+    }
+    
+    @PostMapping("/search-index/rebuild")
+    public String rebuildSearchIndex(RedirectAttributes redirectAttributes) {
+        apartmentSearchIndex.rebuild();
+        redirectAttributes.addFlashAttribute("success", "Search index rebuilt in " + apartmentSearchIndex.getStats().getLastRebuildMillis() + " ms");
+        return "redirect:/admin/dashboard";
+    }
+    
+    @GetMapping(value = "/column-store/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> columnStoreStats() {
+        return apartmentColumnStore.getStats();
+    }
+    
+    @GetMapping(value = "/facet-index/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> facetIndexStats() {
+        return apartmentFacetIndex.getStats();
+    }
+    
+    @GetMapping(value = "/price-index/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> priceIndexStats() {
+        return apartmentPriceIndex.getStats();
+    }
+    
+    @GetMapping(value = "/image-storage/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> imageStorageStats() {
+        return imageStorageService.getStats();
+    }
+    
+    @GetMapping(value = "/thumbnails/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> thumbnailStats() {
+        return thumbnailService.getStats();
+    }
+    
+    @GetMapping(value = "/image-cache/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> imageCacheStats() {
+        return hotImageCache.getStats();
+    }
+    
+    @GetMapping(value = "/upload-gc/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> uploadGarbageCollectorStats() {
+        return uploadGarbageCollector.getStats();
+    }
+    
+    @PostMapping("/thumbnails/regenerate")
+    public String regenerateThumbnails(RedirectAttributes redirectAttributes) {
+        if (thumbnailService.regenerateAll()) {
+            redirectAttributes.addFlashAttribute("success", "Thumbnail regeneration started in the background");
+        } else {
+            redirectAttributes.addFlashAttribute("error", "Thumbnail regeneration is already running");
+        }
+        return "redirect:/admin/dashboard";
+    }
+    
+    @GetMapping(value = "/auth-cache/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> authenticationCacheStats() {
+        return authenticationCache.getStats();
+    }
+    
+    @GetMapping(value = "/password-hashing/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> passwordHashingStats() {
+        return passwordEncoder.getStats();
+    }
+    
+    @GetMapping(value = "/rollups/stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> rollupStats() {
+        return dailyRollupService.getStats();
+    }
+    
     @GetMapping("/reports")
-    public String reports(Model model) {
-        model.addAttribute("userStats", userService.getTotalUsers());
-        model.addAttribute("apartmentStats", apartmentService.getTotalApartments());
+    public String reports(@RequestParam(defaultValue = "0") int months, Model model) {
+        // Totals come from the dashboard snapshot instead of counting the tables again
+        Map<String, Object> statistics = dashboardStatisticsService.getSnapshot();
+        model.addAttribute("userStats", statistics.get("totalUsers"));
+        model.addAttribute("userStatistics", statistics.get("userStatistics"));
+        model.addAttribute("apartmentStats", statistics.get("totalApartments"));
+        // Precomputed in the background; an unknown window falls back to the default
+        model.addAttribute("report", reportAnalyticsService.getReport(months));
+        model.addAttribute("reportWindows", reportAnalyticsService.getWindows());
+        model.addAttribute("apartmentStatuses", ApartmentStatus.values());
         return "admin/reports";
     }
+    
+    @GetMapping("/reports/data")
+    @ResponseBody
+    public ApartmentReport reportData(@RequestParam(defaultValue = "0") int months) {
+        return reportAnalyticsService.getReport(months);
+    }
 }
@@ -1,12 +1,24 @@
 package com.example.apartmentsalesmanagementsystem.controller;
 
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentSlice;
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentSummary;
 import com.example.apartmentsalesmanagementsystem.service.ApartmentService;
 import com.example.apartmentsalesmanagementsystem.service.ReviewService;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.index.FacetCounts;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Controller
 @RequestMapping("/apartments")
 public class ApartmentController {
@@ -18,15 +30,85 @@ public class ApartmentController {
     private ReviewService reviewService;
     
     @GetMapping
-    public String listApartments(Model model) {
-        model.addAttribute("apartments", apartmentService.findAvailableApartments());
+    public String listApartments(@RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "" + ApartmentService.DEFAULT_PAGE_SIZE) int size,
+                                 Model model) {
+        ApartmentSlice slice = apartmentService.findAvailableApartments(cursor, size);
+        model.addAttribute("apartments", slice.getContent());
+        model.addAttribute("nextCursor", slice.getNextCursor());
+        model.addAttribute("pageSize", size);
+        model.addAttribute("totalAvailable", apartmentService.getAvailableApartmentsCount());
+        model.addAttribute("facets", apartmentService.getFacetCounts(new ApartmentFilter()));
         return "apartments/list";
     }
     
+    @GetMapping(value = "/api", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> listApartmentsJson(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "" + ApartmentService.DEFAULT_PAGE_SIZE) int size) {
+        ApartmentSlice slice = apartmentService.findAvailableApartments(cursor, size);
+        List<ApartmentSummary> items = slice.getContent().stream()
+                .map(ApartmentSummary::new)
+                .collect(Collectors.toList());
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", items);
+        response.put("nextCursor", slice.getNextCursor());
+        response.put("hasNext", slice.hasNext());
+        return response;
+    }
+    
+    @GetMapping(value = "/api/price-range", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> priceRangeJson(@RequestParam(required = false) BigDecimal minPrice,
+                                              @RequestParam(required = false) BigDecimal maxPrice,
+                                              @RequestParam(defaultValue = "price_asc") String sort,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "" + ApartmentService.DEFAULT_PAGE_SIZE) int size) {
+        Page<Apartment> results = apartmentService.findByPriceRange(minPrice, maxPrice, "price_desc".equals(sort), page, size);
+        List<ApartmentSummary> items = results.getContent().stream()
+                .map(ApartmentSummary::new)
+                .collect(Collectors.toList());
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", items);
+        response.put("page", results.getNumber());
+        response.put("totalElements", results.getTotalElements());
+        response.put("hasNext", results.hasNext());
+        return response;
+    }
+    
+    @GetMapping(value = "/api/price-stats", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> priceStatsJson(@RequestParam(required = false) String city) {
+        return apartmentService.getAskingPriceDistribution(city);
+    }
+    
+    @GetMapping(value = "/api/facets", produces = "application/json")
+    @ResponseBody
+    public FacetCounts facetCounts(@RequestParam(required = false) String city,
+                                   @RequestParam(required = false) Integer minBedrooms,
+                                   @RequestParam(required = false) BigDecimal minPrice,
+                                   @RequestParam(required = false) BigDecimal maxPrice,
+                                   @RequestParam(required = false) Integer minBathrooms,
+                                   @RequestParam(required = false) Integer minSquareFeet,
+                                   @RequestParam(required = false) Integer maxSquareFeet) {
+        ApartmentFilter filter = new ApartmentFilter();
+        filter.setCity(city);
+        filter.setMinBedrooms(minBedrooms);
+        filter.setMinBathrooms(minBathrooms);
+        filter.setMinSquareFeet(minSquareFeet);
+        filter.setMaxSquareFeet(maxSquareFeet);
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+        return apartmentService.getFacetCounts(filter);
+    }
+    
     @GetMapping("/{id}")
     public String viewApartment(@PathVariable Long id, Model model) {
         apartmentService.findById(id).ifPresent(apartment -> {
             model.addAttribute("apartment", apartment);
+            model.addAttribute("cityMedianPrice", apartmentService.getAskingPricePercentile(apartment.getCity(), 50));
             
             // Add review data
             model.addAttribute("reviews", reviewService.getApprovedReviewsByApartment(apartment));
@@ -37,10 +119,16 @@ public class ApartmentController {
     }
     
     @GetMapping("/search")
-    public String searchApartments(@RequestParam String query, Model model) {
-        model.addAttribute("apartments", apartmentService.searchApartments(query));
+    public String searchApartments(@RequestParam String query,
+                                   @RequestParam(defaultValue = "0") int page,
+                                   @RequestParam(defaultValue = "" + ApartmentService.DEFAULT_PAGE_SIZE) int size,
+                                   Model model) {
+        Page<Apartment> results = apartmentService.searchApartments(query, page, size);
+        model.addAttribute("apartments", results.getContent());
+        model.addAttribute("searchPage", results);
         model.addAttribute("searchQuery", query);
-        return "apartments/search";
+        model.addAttribute("totalAvailable", results.getTotalElements());
+        return "apartments/list";
     }
     
     @GetMapping("/filter")
@@ -48,9 +136,29 @@ public class ApartmentController {
                                   @RequestParam(required = false) Integer minBedrooms,
                                   @RequestParam(required = false) Double minPrice,
                                   @RequestParam(required = false) Double maxPrice,
+                                  @RequestParam(required = false) Integer minBathrooms,
+                                  @RequestParam(required = false) Integer minSquareFeet,
+                                  @RequestParam(required = false) Integer maxSquareFeet,
+                                  @RequestParam(required = false) String sort,
+                                  @RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(defaultValue = "" + ApartmentService.DEFAULT_PAGE_SIZE) int size,
                                   Model model) {
-        // This would need to be implemented with more complex filtering logic
-        model.addAttribute("apartments", apartmentService.findAvailableApartments());
-        return "apartments/filter";
+        ApartmentFilter filter = new ApartmentFilter();
+        filter.setCity(city);
+        filter.setMinBedrooms(minBedrooms);
+        filter.setMinBathrooms(minBathrooms);
+        filter.setMinSquareFeet(minSquareFeet);
+        filter.setMaxSquareFeet(maxSquareFeet);
+        filter.setMinPrice(minPrice != null ? BigDecimal.valueOf(minPrice) : null);
+        filter.setMaxPrice(maxPrice != null ? BigDecimal.valueOf(maxPrice) : null);
+        
+        Page<Apartment> results = apartmentService.filterApartments(filter, sort, page, size);
+        model.addAttribute("apartments", results.getContent());
+        model.addAttribute("filterPage", results);
+        model.addAttribute("filter", filter);
+        model.addAttribute("sort", sort);
+        model.addAttribute("totalAvailable", results.getTotalElements());
+        model.addAttribute("facets", apartmentService.getFacetCounts(filter));
+        return "apartments/list";
     }
 }
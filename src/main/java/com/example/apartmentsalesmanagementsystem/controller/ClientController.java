@@ -1,15 +1,16 @@
 package com.example.apartmentsalesmanagementsystem.controller;
 
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentSlice;
 import com.example.apartmentsalesmanagementsystem.entity.Apartment;
 import com.example.apartmentsalesmanagementsystem.entity.User;
 import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+import com.example.apartmentsalesmanagementsystem.security.PasswordHashingOverloadedException;
 import com.example.apartmentsalesmanagementsystem.service.ApartmentService;
 import com.example.apartmentsalesmanagementsystem.service.UserService;
 import com.example.apartmentsalesmanagementsystem.service.ReviewService;
 import com.example.apartmentsalesmanagementsystem.service.ParkingService;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -45,15 +46,22 @@ public class ClientController {
         
         model.addAttribute("user", currentUser);
         model.addAttribute("myApartments", apartmentService.findApartmentsByOwner(currentUser));
-        model.addAttribute("availableApartments", apartmentService.findAvailableApartments());
+        model.addAttribute("availableApartments", apartmentService.findAvailableApartments(null, 6).getContent());
+        model.addAttribute("totalAvailable", apartmentService.getAvailableApartmentsCount());
         model.addAttribute("totalMyApartments", apartmentService.countApartmentsByOwner(currentUser));
         
         return "client/dashboard";
     }
     
     @GetMapping("/apartments")
-    public String viewAllApartments(Model model) {
-        model.addAttribute("apartments", apartmentService.findAvailableApartments());
+    public String viewAllApartments(@RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "" + ApartmentService.DEFAULT_PAGE_SIZE) int size,
+                                    Model model) {
+        ApartmentSlice slice = apartmentService.findAvailableApartments(cursor, size);
+        model.addAttribute("apartments", slice.getContent());
+        model.addAttribute("nextCursor", slice.getNextCursor());
+        model.addAttribute("pageSize", size);
+        model.addAttribute("totalAvailable", apartmentService.getAvailableApartmentsCount());
         return "client/apartments";
     }
     
@@ -131,10 +139,7 @@ public class ClientController {
     @GetMapping("/agents")
     public String viewAllAgents(Model model) {
         // Get all users with AGENT management role
-        List<User> agents = userService.findAllUsers().stream()
-                .filter(user -> user.getManagementRoles().contains(ManagementRole.AGENT))
-                .collect(Collectors.toList());
-        model.addAttribute("agents", agents);
+        model.addAttribute("agents", userService.findAgents());
         return "client/agents";
     }
     
@@ -254,6 +259,9 @@ public class ClientController {
             redirectAttributes.addFlashAttribute("success", "Password changed successfully!");
             return "redirect:/client/profile";
             
+        } catch (PasswordHashingOverloadedException e) {
+            redirectAttributes.addFlashAttribute("error", "The server is busy right now. Please try changing your password again in a moment.");
+            return "redirect:/client/profile/edit";
         } catch (Exception e) {
             System.err.println("Error changing password: " + e.getMessage());
             e.printStackTrace();
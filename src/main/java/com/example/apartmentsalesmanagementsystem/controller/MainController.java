@@ -1,11 +1,12 @@
 package com.example.apartmentsalesmanagementsystem.controller;
 
+import com.example.apartmentsalesmanagementsystem.dto.AgentSummary;
 import com.example.apartmentsalesmanagementsystem.entity.User;
-import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
 import com.example.apartmentsalesmanagementsystem.service.ApartmentService;
+import com.example.apartmentsalesmanagementsystem.service.DashboardStatisticsService;
 import com.example.apartmentsalesmanagementsystem.service.UserService;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,18 +23,19 @@ public class MainController {
     @Autowired
     private ApartmentService apartmentService;
     
+    @Autowired
+    private DashboardStatisticsService dashboardStatisticsService;
+    
     @GetMapping("/")
     public String home(Model model) {
-        model.addAttribute("totalApartments", apartmentService.getTotalApartments());
-        model.addAttribute("availableApartments", apartmentService.getAvailableApartmentsCount());
-        model.addAttribute("recentApartments", apartmentService.findAvailableApartments().subList(0, Math.min(6, apartmentService.findAvailableApartments().size())));
+        Map<String, Object> stats = dashboardStatisticsService.getSnapshot();
+        model.addAttribute("totalApartments", stats.get("totalApartments"));
+        model.addAttribute("availableApartments", stats.get("availableApartments"));
+        model.addAttribute("recentApartments", apartmentService.findRecentAvailableApartments(6));
         
         // Add agents data for the home page showcase
-        List<User> agents = userService.findAllUsers().stream()
-                .filter(user -> user.getManagementRoles().contains(ManagementRole.AGENT))
-                .limit(3) // Show only first 3 agents on home page
-                .collect(Collectors.toList());
-        model.addAttribute("agents", agents);
+        List<AgentSummary> agents = userService.findAgents();
+        model.addAttribute("agents", agents.subList(0, Math.min(3, agents.size()))); // Show only first 3 agents on home page
         
         return "home";
     }
@@ -69,10 +71,7 @@ public class MainController {
     @GetMapping("/agents")
     public String publicAgents(Model model) {
         // Get all users with AGENT management role for public viewing
-        List<User> agents = userService.findAllUsers().stream()
-                .filter(user -> user.getManagementRoles().contains(ManagementRole.AGENT))
-                .collect(Collectors.toList());
-        model.addAttribute("agents", agents);
+        model.addAttribute("agents", userService.findAgents());
         return "client/agents";
     }
 }
@@ -2,6 +2,7 @@ package com.example.apartmentsalesmanagementsystem.controller;
 
 import com.example.apartmentsalesmanagementsystem.entity.User;
 import com.example.apartmentsalesmanagementsystem.entity.UserRole;
+import com.example.apartmentsalesmanagementsystem.security.PasswordHashingOverloadedException;
 import com.example.apartmentsalesmanagementsystem.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,6 +50,10 @@ public class UserController {
             redirectAttributes.addFlashAttribute("success", "Registration successful! Please login.");
             return "redirect:/login";
             
+        } catch (PasswordHashingOverloadedException e) {
+            // Registration spike: shed the request instead of queueing it indefinitely
+            result.reject("error.user", "We are receiving a lot of registrations right now. Please try again in a moment.");
+            return "register";
         } catch (DataIntegrityViolationException e) {
             // Handle database constraint violations
             String errorMessage = e.getMessage();
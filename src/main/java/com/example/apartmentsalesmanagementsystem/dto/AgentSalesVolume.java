@@ -0,0 +1,49 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the grouped sales query: listings an owner has sold and their total price.
+ */
+public class AgentSalesVolume {
+    
+    private final Long ownerId;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+    private final long sold;
+    private final BigDecimal volume;
+    
+    public AgentSalesVolume(Long ownerId, String username, String firstName, String lastName, long sold, BigDecimal volume) {
+        this.ownerId = ownerId;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.sold = sold;
+        this.volume = volume;
+    }
+    
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public long getSold() {
+        return sold;
+    }
+    
+    public BigDecimal getVolume() {
+        return volume;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.UserRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of an agent for directory pages. Loaded with a JPQL
+ * constructor expression so the eager management role collection is never touched.
+ */
+public class AgentSummary {
+    
+    private final Long id;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String phoneNumber;
+    private final UserRole role;
+    private final boolean active;
+    private final LocalDateTime createdAt;
+    
+    public AgentSummary(Long id, String username, String firstName, String lastName, String email,
+                        String phoneNumber, UserRole role, boolean active, LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.role = role;
+        this.active = active;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+    
+    public UserRole getRole() {
+        return role;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
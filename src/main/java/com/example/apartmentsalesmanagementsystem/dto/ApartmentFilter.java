@@ -0,0 +1,96 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Optional browse criteria for apartments. Null fields are simply not applied.
+ */
+public class ApartmentFilter {
+    
+    private String city;
+    private Integer minBedrooms;
+    private Integer minBathrooms;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minSquareFeet;
+    private Integer maxSquareFeet;
+    private ApartmentStatus status = ApartmentStatus.AVAILABLE;
+    
+    public String getCity() {
+        return city;
+    }
+    
+    public void setCity(String city) {
+        this.city = city;
+    }
+    
+    public Integer getMinBedrooms() {
+        return minBedrooms;
+    }
+    
+    public void setMinBedrooms(Integer minBedrooms) {
+        this.minBedrooms = minBedrooms;
+    }
+    
+    public Integer getMinBathrooms() {
+        return minBathrooms;
+    }
+    
+    public void setMinBathrooms(Integer minBathrooms) {
+        this.minBathrooms = minBathrooms;
+    }
+    
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+    
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+    
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+    
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+    
+    public Integer getMinSquareFeet() {
+        return minSquareFeet;
+    }
+    
+    public void setMinSquareFeet(Integer minSquareFeet) {
+        this.minSquareFeet = minSquareFeet;
+    }
+    
+    public Integer getMaxSquareFeet() {
+        return maxSquareFeet;
+    }
+    
+    public void setMaxSquareFeet(Integer maxSquareFeet) {
+        this.maxSquareFeet = maxSquareFeet;
+    }
+    
+    public ApartmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ApartmentStatus status) {
+        this.status = status;
+    }
+    
+    /**
+     * The form a city is matched in: trimmed and lower-cased, so "Colombo " and
+     * "colombo" are the same city, as they are to SQL Server. Null for a blank city.
+     */
+    public static String cityKey(String city) {
+        if (city == null || city.isBlank()) {
+            return null;
+        }
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.index.FacetCounts;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed catalogue analytics for the reports page. Price distributions describe
+ * the catalogue as it is now; monthly activity, new listings per city and agent sales
+ * cover the closed days of the last {@code windowMonths} months, as far as they have
+ * been rolled up. Built once per refresh and shared read-only.
+ */
+public class ApartmentReport {
+    
+    private final int windowMonths;
+    private LocalDateTime generatedAt;
+    private long computeMillis;
+    private boolean distributionsAvailable;
+    private long listings;
+    private List<FacetCounts.PriceBucket> priceBuckets = Collections.emptyList();
+    private Map<String, BigDecimal> pricePercentiles = Collections.emptyMap();
+    private List<CityPrice> cityPrices = Collections.emptyList();
+    private List<BedroomPrice> pricePerSquareFoot = Collections.emptyList();
+    private LocalDate rolledUpThrough;
+    private List<MonthlyActivity> monthlyActivity = Collections.emptyList();
+    private List<CityPriceTotal> newListingsByCity = Collections.emptyList();
+    private List<AgentSalesVolume> agentSales = Collections.emptyList();
+    
+    public ApartmentReport(int windowMonths) {
+        this.windowMonths = windowMonths;
+    }
+    
+    public int getWindowMonths() {
+        return windowMonths;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+    
+    public long getComputeMillis() {
+        return computeMillis;
+    }
+    
+    public void setComputeMillis(long computeMillis) {
+        this.computeMillis = computeMillis;
+    }
+    
+    /**
+     * False while the in-memory catalogue is still loading; price sections are then empty.
+     */
+    public boolean isDistributionsAvailable() {
+        return distributionsAvailable;
+    }
+    
+    public void setDistributionsAvailable(boolean distributionsAvailable) {
+        this.distributionsAvailable = distributionsAvailable;
+    }
+    
+    public long getListings() {
+        return listings;
+    }
+    
+    public void setListings(long listings) {
+        this.listings = listings;
+    }
+    
+    public List<FacetCounts.PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+    
+    public void setPriceBuckets(List<FacetCounts.PriceBucket> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+    
+    /**
+     * Catalogue price percentiles keyed "p10", "p25", "p50", "p75" and "p90".
+     */
+    public Map<String, BigDecimal> getPricePercentiles() {
+        return pricePercentiles;
+    }
+    
+    public void setPricePercentiles(Map<String, BigDecimal> pricePercentiles) {
+        this.pricePercentiles = pricePercentiles;
+    }
+    
+    public List<CityPrice> getCityPrices() {
+        return cityPrices;
+    }
+    
+    public void setCityPrices(List<CityPrice> cityPrices) {
+        this.cityPrices = cityPrices;
+    }
+    
+    public List<BedroomPrice> getPricePerSquareFoot() {
+        return pricePerSquareFoot;
+    }
+    
+    public void setPricePerSquareFoot(List<BedroomPrice> pricePerSquareFoot) {
+        this.pricePerSquareFoot = pricePerSquareFoot;
+    }
+    
+    /**
+     * Last day included in the time-based figures, or null before the first rollup.
+     */
+    public LocalDate getRolledUpThrough() {
+        return rolledUpThrough;
+    }
+    
+    public void setRolledUpThrough(LocalDate rolledUpThrough) {
+        this.rolledUpThrough = rolledUpThrough;
+    }
+    
+    public List<MonthlyActivity> getMonthlyActivity() {
+        return monthlyActivity;
+    }
+    
+    public void setMonthlyActivity(List<MonthlyActivity> monthlyActivity) {
+        this.monthlyActivity = monthlyActivity;
+    }
+    
+    /**
+     * Listings created across the whole window.
+     */
+    public long getListingsCreatedInWindow() {
+        long created = 0;
+        for (MonthlyActivity month : monthlyActivity) {
+            created += month.getListingsCreated();
+        }
+        return created;
+    }
+    
+    public List<CityPriceTotal> getNewListingsByCity() {
+        return newListingsByCity;
+    }
+    
+    public void setNewListingsByCity(List<CityPriceTotal> newListingsByCity) {
+        this.newListingsByCity = newListingsByCity;
+    }
+    
+    public List<AgentSalesVolume> getAgentSales() {
+        return agentSales;
+    }
+    
+    public void setAgentSales(List<AgentSalesVolume> agentSales) {
+        this.agentSales = agentSales;
+    }
+    
+    /**
+     * Listing count, mean and median price in one city.
+     */
+    public static class CityPrice {
+        
+        private final String city;
+        private final long listings;
+        private final BigDecimal averagePrice;
+        private final BigDecimal medianPrice;
+        
+        public CityPrice(String city, long listings, BigDecimal averagePrice, BigDecimal medianPrice) {
+            this.city = city;
+            this.listings = listings;
+            this.averagePrice = averagePrice;
+            this.medianPrice = medianPrice;
+        }
+        
+        public String getCity() {
+            return city;
+        }
+        
+        public long getListings() {
+            return listings;
+        }
+        
+        public BigDecimal getAveragePrice() {
+            return averagePrice;
+        }
+        
+        public BigDecimal getMedianPrice() {
+            return medianPrice;
+        }
+    }
+    
+    /**
+     * Mean and median price per square foot for one bedroom count ("5+" groups the rest).
+     */
+    public static class BedroomPrice {
+        
+        private final String bedrooms;
+        private final long listings;
+        private final BigDecimal averagePerSquareFoot;
+        private final BigDecimal medianPerSquareFoot;
+        
+        public BedroomPrice(String bedrooms, long listings, BigDecimal averagePerSquareFoot, BigDecimal medianPerSquareFoot) {
+            this.bedrooms = bedrooms;
+            this.listings = listings;
+            this.averagePerSquareFoot = averagePerSquareFoot;
+            this.medianPerSquareFoot = medianPerSquareFoot;
+        }
+        
+        public String getBedrooms() {
+            return bedrooms;
+        }
+        
+        public long getListings() {
+            return listings;
+        }
+        
+        public BigDecimal getAveragePerSquareFoot() {
+            return averagePerSquareFoot;
+        }
+        
+        public BigDecimal getMedianPerSquareFoot() {
+            return medianPerSquareFoot;
+        }
+    }
+    
+    /**
+     * Listings created, users registered and status changes in one month, with the
+     * number of apartments that moved into each status.
+     */
+    public static class MonthlyActivity {
+        
+        private final YearMonth month;
+        private final long listingsCreated;
+        private final long usersCreated;
+        private final long statusChanges;
+        private final Map<ApartmentStatus, Long> enteredStatus;
+        
+        public MonthlyActivity(YearMonth month, long listingsCreated, long usersCreated, long statusChanges,
+                               Map<ApartmentStatus, Long> enteredStatus) {
+            this.month = month;
+            this.listingsCreated = listingsCreated;
+            this.usersCreated = usersCreated;
+            this.statusChanges = statusChanges;
+            this.enteredStatus = enteredStatus;
+        }
+        
+        public YearMonth getMonth() {
+            return month;
+        }
+        
+        public long getListingsCreated() {
+            return listingsCreated;
+        }
+        
+        public long getUsersCreated() {
+            return usersCreated;
+        }
+        
+        public long getStatusChanges() {
+            return statusChanges;
+        }
+        
+        public Map<ApartmentStatus, Long> getEnteredStatus() {
+            return enteredStatus;
+        }
+    }
+}
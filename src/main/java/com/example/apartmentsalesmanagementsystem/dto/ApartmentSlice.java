@@ -0,0 +1,35 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+
+import java.util.List;
+
+/**
+ * One keyset page of apartments plus the token for the page that follows it.
+ */
+public class ApartmentSlice {
+    
+    private final List<Apartment> content;
+    private final String nextCursor;
+    
+    public ApartmentSlice(List<Apartment> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Apartment> getContent() {
+        return content;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
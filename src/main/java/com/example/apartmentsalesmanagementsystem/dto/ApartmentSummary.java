@@ -0,0 +1,88 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, serialization-safe view of an apartment for JSON endpoints.
+ * Avoids exposing the lazy owner association of the entity.
+ */
+public class ApartmentSummary {
+    
+    private final Long id;
+    private final String title;
+    private final String city;
+    private final String state;
+    private final BigDecimal price;
+    private final Integer bedrooms;
+    private final Integer bathrooms;
+    private final Integer squareFeet;
+    private final ApartmentStatus status;
+    private final String imageUrl;
+    private final LocalDateTime createdAt;
+    
+    public ApartmentSummary(Apartment apartment) {
+        this.id = apartment.getId();
+        this.title = apartment.getTitle();
+        this.city = apartment.getCity();
+        this.state = apartment.getState();
+        this.price = apartment.getPrice();
+        this.bedrooms = apartment.getBedrooms();
+        this.bathrooms = apartment.getBathrooms();
+        this.squareFeet = apartment.getSquareFeet();
+        this.status = apartment.getStatus();
+        this.imageUrl = apartment.getImageUrl();
+        this.createdAt = apartment.getCreatedAt();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getCity() {
+        return city;
+    }
+    
+    public String getState() {
+        return state;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public Integer getBedrooms() {
+        return bedrooms;
+    }
+    
+    public Integer getBathrooms() {
+        return bathrooms;
+    }
+    
+    public Integer getSquareFeet() {
+        return squareFeet;
+    }
+    
+    public ApartmentStatus getStatus() {
+        return status;
+    }
+    
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public String getFormattedPrice() {
+        return "$" + price.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Listings created in one city over a period, summed from the daily city rollups.
+ */
+public class CityPriceTotal {
+    
+    private final String city;
+    private final long listings;
+    private final BigDecimal priceSum;
+    
+    public CityPriceTotal(String city, long listings, BigDecimal priceSum) {
+        this.city = city;
+        this.listings = listings;
+        this.priceSum = priceSum;
+    }
+    
+    public String getCity() {
+        return city;
+    }
+    
+    public long getListings() {
+        return listings;
+    }
+    
+    public BigDecimal getPriceSum() {
+        return priceSum;
+    }
+    
+    public BigDecimal getAveragePrice() {
+        return listings == 0 ? BigDecimal.ZERO : priceSum.divide(BigDecimal.valueOf(listings), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of one feed sync: how many records were new, changed, unchanged or
+ * rejected, and how many previously synced units were absent and moved to the
+ * missing status. As in {@link ImportReport}, only the first row errors are kept.
+ */
+public class FeedSyncReport {
+    
+    private final String source;
+    private final int maxErrors;
+    private long totalRows;
+    private long created;
+    private long updated;
+    private long unchanged;
+    private long markedMissing;
+    private long failed;
+    private boolean missingSkipped;
+    private long elapsedMillis;
+    private boolean errorsTruncated;
+    private final List<ImportReport.RowError> errors = new ArrayList<>();
+    
+    public FeedSyncReport(String source, int maxErrors) {
+        this.source = source;
+        this.maxErrors = maxErrors;
+    }
+    
+    public void rowRead() {
+        totalRows++;
+    }
+    
+    public void recordsApplied(int createdCount, int updatedCount, int unchangedCount) {
+        created += createdCount;
+        updated += updatedCount;
+        unchanged += unchangedCount;
+    }
+    
+    public void unitsMarkedMissing(int count) {
+        markedMissing += count;
+    }
+    
+    public void rowFailed(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportReport.RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+    
+    public void setMissingSkipped(boolean missingSkipped) {
+        this.missingSkipped = missingSkipped;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    public long getTotalRows() {
+        return totalRows;
+    }
+    
+    public long getCreated() {
+        return created;
+    }
+    
+    public long getUpdated() {
+        return updated;
+    }
+    
+    public long getUnchanged() {
+        return unchanged;
+    }
+    
+    public long getMarkedMissing() {
+        return markedMissing;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    /**
+     * True when missing units were not processed because the feed was empty or had
+     * rows without a usable externalId.
+     */
+    public boolean isMissingSkipped() {
+        return missingSkipped;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? totalRows : totalRows * 1000.0 / elapsedMillis;
+    }
+    
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+    
+    public List<ImportReport.RowError> getErrors() {
+        return errors;
+    }
+    
+    public String getSummary() {
+        return String.format("Feed %s: %d rows in %.1fs (%.0f rows/s): %d created, %d updated, %d unchanged, %d marked missing, %d failed",
+                source, totalRows, elapsedMillis / 1000.0, getRowsPerSecond(), created, updated, unchanged, markedMissing, failed);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk apartment import. Only the first {@code maxErrors} row errors
+ * are kept so a badly broken file cannot grow the report without bound; the
+ * failed count still covers every rejected row.
+ */
+public class ImportReport {
+    
+    private final int maxErrors;
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+    
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+    
+    public void rowRead() {
+        totalRows++;
+    }
+    
+    public void rowsImported(int count) {
+        imported += count;
+    }
+    
+    public void rowFailed(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public long getTotalRows() {
+        return totalRows;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? imported : imported * 1000.0 / elapsedMillis;
+    }
+    
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    /**
+     * Short human-readable summary for flash messages and the command line.
+     */
+    public String getSummary() {
+        return String.format("Imported %d of %d rows in %.1fs (%.0f rows/s), %d failed",
+                imported, totalRows, elapsedMillis / 1000.0, getRowsPerSecond(), failed);
+    }
+    
+    public static class RowError {
+        
+        private final long line;
+        private final String message;
+        
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+        
+        public long getLine() {
+            return line;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+
+/**
+ * One row of the grouped management role count query.
+ */
+public class ManagementRoleCount {
+    
+    private final ManagementRole managementRole;
+    private final long count;
+    
+    public ManagementRoleCount(ManagementRole managementRole, long count) {
+        this.managementRole = managementRole;
+        this.count = count;
+    }
+    
+    public ManagementRole getManagementRole() {
+        return managementRole;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+}
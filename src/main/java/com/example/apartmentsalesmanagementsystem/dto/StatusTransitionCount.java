@@ -0,0 +1,31 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+
+/**
+ * One row of the grouped status change query: changes per (from, to) pair.
+ */
+public class StatusTransitionCount {
+    
+    private final ApartmentStatus fromStatus;
+    private final ApartmentStatus toStatus;
+    private final long count;
+    
+    public StatusTransitionCount(ApartmentStatus fromStatus, ApartmentStatus toStatus, long count) {
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.count = count;
+    }
+    
+    public ApartmentStatus getFromStatus() {
+        return fromStatus;
+    }
+    
+    public ApartmentStatus getToStatus() {
+        return toStatus;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+/**
+ * Result of storing an uploaded image: its public URL, size and SHA-256 content hash.
+ */
+public class StoredImage {
+    
+    private final String url;
+    private final long size;
+    private final String sha256;
+    
+    public StoredImage(String url, long size, String sha256) {
+        this.url = url;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public long getSize() {
+        return size;
+    }
+    
+    public String getSha256() {
+        return sha256;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.UserRole;
+
+/**
+ * One row of the grouped user count query: users per (role, active) pair.
+ */
+public class UserCountBucket {
+    
+    private final UserRole role;
+    private final boolean active;
+    private final long count;
+    
+    public UserCountBucket(UserRole role, boolean active, long count) {
+        this.role = role;
+        this.active = active;
+        this.count = count;
+    }
+    
+    public UserRole getRole() {
+        return role;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+}
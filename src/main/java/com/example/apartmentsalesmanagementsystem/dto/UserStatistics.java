@@ -0,0 +1,124 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+import com.example.apartmentsalesmanagementsystem.entity.UserRole;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User counts built from the grouped aggregate queries in UserRepository.
+ * Every role and management role is present, with zero when no users match.
+ * Users without a role count towards the totals only.
+ */
+public class UserStatistics {
+    
+    private final long totalUsers;
+    private final long activeUsers;
+    private final Map<UserRole, Long> usersByRole;
+    private final Map<UserRole, Long> activeUsersByRole;
+    private final Map<ManagementRole, Long> usersByManagementRole;
+    
+    public UserStatistics(List<UserCountBucket> buckets, List<ManagementRoleCount> managementRoleCounts) {
+        Map<UserRole, Long> byRole = new EnumMap<>(UserRole.class);
+        Map<UserRole, Long> activeByRole = new EnumMap<>(UserRole.class);
+        for (UserRole role : UserRole.values()) {
+            byRole.put(role, 0L);
+            activeByRole.put(role, 0L);
+        }
+        
+        long total = 0;
+        long active = 0;
+        for (UserCountBucket bucket : buckets) {
+            total += bucket.getCount();
+            if (bucket.isActive()) {
+                active += bucket.getCount();
+            }
+            if (bucket.getRole() == null) {
+                continue;
+            }
+            byRole.merge(bucket.getRole(), bucket.getCount(), Long::sum);
+            if (bucket.isActive()) {
+                activeByRole.merge(bucket.getRole(), bucket.getCount(), Long::sum);
+            }
+        }
+        
+        Map<ManagementRole, Long> byManagementRole = new EnumMap<>(ManagementRole.class);
+        for (ManagementRole managementRole : ManagementRole.values()) {
+            byManagementRole.put(managementRole, 0L);
+        }
+        for (ManagementRoleCount count : managementRoleCounts) {
+            byManagementRole.put(count.getManagementRole(), count.getCount());
+        }
+        
+        this.totalUsers = total;
+        this.activeUsers = active;
+        this.usersByRole = Collections.unmodifiableMap(byRole);
+        this.activeUsersByRole = Collections.unmodifiableMap(activeByRole);
+        this.usersByManagementRole = Collections.unmodifiableMap(byManagementRole);
+    }
+    
+    private UserStatistics(long totalUsers, long activeUsers, Map<UserRole, Long> usersByRole,
+                           Map<UserRole, Long> activeUsersByRole, Map<ManagementRole, Long> usersByManagementRole) {
+        this.totalUsers = totalUsers;
+        this.activeUsers = activeUsers;
+        this.usersByRole = Collections.unmodifiableMap(usersByRole);
+        this.activeUsersByRole = Collections.unmodifiableMap(activeUsersByRole);
+        this.usersByManagementRole = Collections.unmodifiableMap(usersByManagementRole);
+    }
+    
+    /**
+     * Copy with one user's contribution added (delta 1) or removed (delta -1).
+     */
+    public UserStatistics adjust(UserRole role, boolean active, Collection<ManagementRole> managementRoles, long delta) {
+        Map<UserRole, Long> byRole = new EnumMap<>(usersByRole);
+        Map<UserRole, Long> activeByRole = new EnumMap<>(activeUsersByRole);
+        Map<ManagementRole, Long> byManagementRole = new EnumMap<>(usersByManagementRole);
+        if (role != null) {
+            byRole.merge(role, delta, Long::sum);
+            if (active) {
+                activeByRole.merge(role, delta, Long::sum);
+            }
+        }
+        for (ManagementRole managementRole : managementRoles) {
+            byManagementRole.merge(managementRole, delta, Long::sum);
+        }
+        return new UserStatistics(totalUsers + delta, activeUsers + (active ? delta : 0),
+                                  byRole, activeByRole, byManagementRole);
+    }
+    
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+    
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+    
+    public long getInactiveUsers() {
+        return totalUsers - activeUsers;
+    }
+    
+    public Map<UserRole, Long> getUsersByRole() {
+        return usersByRole;
+    }
+    
+    public Map<UserRole, Long> getActiveUsersByRole() {
+        return activeUsersByRole;
+    }
+    
+    public Map<ManagementRole, Long> getUsersByManagementRole() {
+        return usersByManagementRole;
+    }
+    
+    public long countByRole(UserRole role) {
+        return usersByRole.get(role);
+    }
+    
+    public long countByManagementRole(ManagementRole managementRole) {
+        return usersByManagementRole.get(managementRole);
+    }
+}
@@ -10,11 +10,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "apartments")
+@Table(name = "apartments", indexes = {
+    @Index(name = "idx_apartments_status_created", columnList = "status, created_at, id"),
+    @Index(name = "idx_apartments_status_city_price", columnList = "status, city, price, bedrooms"),
+    @Index(name = "idx_apartments_status_price", columnList = "status, price, bedrooms"),
+    @Index(name = "idx_apartments_price", columnList = "price, id"),
+    @Index(name = "idx_apartments_created", columnList = "created_at")
+})
 public class Apartment {
     
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts (bulk import)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "apartment_seq")
+    @SequenceGenerator(name = "apartment_seq", sequenceName = "apartment_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -78,6 +86,10 @@ public class Apartment {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Status as read from the database; merge keeps it on the managed copy, so a save can tell a status change
+    @Transient
+    private ApartmentStatus loadedStatus;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -89,6 +101,11 @@ public class Apartment {
         updatedAt = LocalDateTime.now();
     }
     
+    @PostLoad
+    protected void onLoad() {
+        loadedStatus = status;
+    }
+    
     // Constructors
     public Apartment() {}
     
@@ -227,6 +244,17 @@ public class Apartment {
         this.createdAt = createdAt;
     }
     
+    /**
+     * Status this instance had when it was loaded (or last recorded), null for a new apartment.
+     */
+    public ApartmentStatus getLoadedStatus() {
+        return loadedStatus;
+    }
+    
+    public void markStatusRecorded() {
+        this.loadedStatus = status;
+    }
+    
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
@@ -0,0 +1,114 @@
+package com.example.apartmentsalesmanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only log of apartment status changes (e.g. AVAILABLE to SOLD), recorded as
+ * they happen because the apartments table only holds the current status. The
+ * nightly rollup counts them per day.
+ */
+@Entity
+@Table(name = "apartment_status_changes", indexes = {
+    @Index(name = "idx_status_changes_changed_at", columnList = "changed_at")
+})
+public class ApartmentStatusChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "apartment_status_change_seq")
+    @SequenceGenerator(name = "apartment_status_change_seq", sequenceName = "apartment_status_change_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "apartment_id", nullable = false)
+    private Long apartmentId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", nullable = false)
+    private ApartmentStatus fromStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private ApartmentStatus toStatus;
+    
+    // Owner (listing agent) and asking price at the time of the change, for sales volume
+    @Column(name = "owner_id")
+    private Long ownerId;
+    
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    // Constructors
+    public ApartmentStatusChange() {}
+    
+    public ApartmentStatusChange(Long apartmentId, ApartmentStatus fromStatus, ApartmentStatus toStatus,
+                                 Long ownerId, BigDecimal price, LocalDateTime changedAt) {
+        this.apartmentId = apartmentId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.ownerId = ownerId;
+        this.price = price;
+        this.changedAt = changedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getApartmentId() {
+        return apartmentId;
+    }
+    
+    public void setApartmentId(Long apartmentId) {
+        this.apartmentId = apartmentId;
+    }
+    
+    public ApartmentStatus getFromStatus() {
+        return fromStatus;
+    }
+    
+    public void setFromStatus(ApartmentStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+    
+    public ApartmentStatus getToStatus() {
+        return toStatus;
+    }
+    
+    public void setToStatus(ApartmentStatus toStatus) {
+        this.toStatus = toStatus;
+    }
+    
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
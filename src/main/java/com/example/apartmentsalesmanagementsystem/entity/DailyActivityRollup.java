@@ -0,0 +1,99 @@
+package com.example.apartmentsalesmanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totals for one closed day: listings created, users registered and apartment status
+ * changes. One row is written for every day the rollup job has processed, even an
+ * empty one, so the latest day doubles as the job's watermark.
+ */
+@Entity
+@Table(name = "daily_activity_rollups", indexes = {
+    @Index(name = "idx_daily_activity_day", columnList = "rollup_day", unique = true)
+})
+public class DailyActivityRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_activity_rollup_seq")
+    @SequenceGenerator(name = "daily_activity_rollup_seq", sequenceName = "daily_activity_rollup_seq", allocationSize = 50)
+    private Long id;
+    
+    // "day" is a reserved word in H2
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+    
+    @Column(name = "listings_created", nullable = false)
+    private long listingsCreated;
+    
+    @Column(name = "users_created", nullable = false)
+    private long usersCreated;
+    
+    @Column(name = "status_changes", nullable = false)
+    private long statusChanges;
+    
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+    
+    // Constructors
+    public DailyActivityRollup() {}
+    
+    public DailyActivityRollup(LocalDate day, long listingsCreated, long usersCreated, long statusChanges) {
+        this.day = day;
+        this.listingsCreated = listingsCreated;
+        this.usersCreated = usersCreated;
+        this.statusChanges = statusChanges;
+        this.computedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getDay() {
+        return day;
+    }
+    
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+    
+    public long getListingsCreated() {
+        return listingsCreated;
+    }
+    
+    public void setListingsCreated(long listingsCreated) {
+        this.listingsCreated = listingsCreated;
+    }
+    
+    public long getUsersCreated() {
+        return usersCreated;
+    }
+    
+    public void setUsersCreated(long usersCreated) {
+        this.usersCreated = usersCreated;
+    }
+    
+    public long getStatusChanges() {
+        return statusChanges;
+    }
+    
+    public void setStatusChanges(long statusChanges) {
+        this.statusChanges = statusChanges;
+    }
+    
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+    
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
+}
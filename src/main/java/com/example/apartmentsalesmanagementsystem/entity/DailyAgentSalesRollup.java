@@ -0,0 +1,84 @@
+package com.example.apartmentsalesmanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Listings one owner (listing agent) sold on one day and their total asking price.
+ */
+@Entity
+@Table(name = "daily_agent_sales_rollups", indexes = {
+    @Index(name = "idx_daily_agent_sales_day_owner", columnList = "rollup_day, owner_id", unique = true)
+})
+public class DailyAgentSalesRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_agent_sales_rollup_seq")
+    @SequenceGenerator(name = "daily_agent_sales_rollup_seq", sequenceName = "daily_agent_sales_rollup_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+    
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    
+    @Column(nullable = false)
+    private long sold;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal volume;
+    
+    // Constructors
+    public DailyAgentSalesRollup() {}
+    
+    public DailyAgentSalesRollup(LocalDate day, Long ownerId, long sold, BigDecimal volume) {
+        this.day = day;
+        this.ownerId = ownerId;
+        this.sold = sold;
+        this.volume = volume;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getDay() {
+        return day;
+    }
+    
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+    
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+    
+    public long getSold() {
+        return sold;
+    }
+    
+    public void setSold(long sold) {
+        this.sold = sold;
+    }
+    
+    public BigDecimal getVolume() {
+        return volume;
+    }
+    
+    public void setVolume(BigDecimal volume) {
+        this.volume = volume;
+    }
+}
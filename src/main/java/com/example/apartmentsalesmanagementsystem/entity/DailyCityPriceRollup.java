@@ -0,0 +1,110 @@
+package com.example.apartmentsalesmanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Asking prices of the listings created in one city on one day. The price sum is
+ * kept next to the average so longer periods can be averaged exactly.
+ */
+@Entity
+@Table(name = "daily_city_price_rollups", indexes = {
+    @Index(name = "idx_daily_city_price_day_city", columnList = "rollup_day, city", unique = true)
+})
+public class DailyCityPriceRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_city_price_rollup_seq")
+    @SequenceGenerator(name = "daily_city_price_rollup_seq", sequenceName = "daily_city_price_rollup_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+    
+    @Column(nullable = false)
+    private String city;
+    
+    @Column(nullable = false)
+    private long listings;
+    
+    @Column(name = "price_sum", nullable = false, precision = 19, scale = 2)
+    private BigDecimal priceSum;
+    
+    @Column(name = "average_price", nullable = false, precision = 12, scale = 2)
+    private BigDecimal averagePrice;
+    
+    @Column(name = "median_price", nullable = false, precision = 12, scale = 2)
+    private BigDecimal medianPrice;
+    
+    // Constructors
+    public DailyCityPriceRollup() {}
+    
+    public DailyCityPriceRollup(LocalDate day, String city, long listings, BigDecimal priceSum,
+                                BigDecimal averagePrice, BigDecimal medianPrice) {
+        this.day = day;
+        this.city = city;
+        this.listings = listings;
+        this.priceSum = priceSum;
+        this.averagePrice = averagePrice;
+        this.medianPrice = medianPrice;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getDay() {
+        return day;
+    }
+    
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+    
+    public String getCity() {
+        return city;
+    }
+    
+    public void setCity(String city) {
+        this.city = city;
+    }
+    
+    public long getListings() {
+        return listings;
+    }
+    
+    public void setListings(long listings) {
+        this.listings = listings;
+    }
+    
+    public BigDecimal getPriceSum() {
+        return priceSum;
+    }
+    
+    public void setPriceSum(BigDecimal priceSum) {
+        this.priceSum = priceSum;
+    }
+    
+    public BigDecimal getAveragePrice() {
+        return averagePrice;
+    }
+    
+    public void setAveragePrice(BigDecimal averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+    
+    public BigDecimal getMedianPrice() {
+        return medianPrice;
+    }
+    
+    public void setMedianPrice(BigDecimal medianPrice) {
+        this.medianPrice = medianPrice;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.apartmentsalesmanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Number of apartments that moved from one status to another on one day.
+ */
+@Entity
+@Table(name = "daily_status_transition_rollups", indexes = {
+    @Index(name = "idx_daily_transition_day_statuses", columnList = "rollup_day, from_status, to_status", unique = true)
+})
+public class DailyStatusTransitionRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_status_transition_rollup_seq")
+    @SequenceGenerator(name = "daily_status_transition_rollup_seq", sequenceName = "daily_status_transition_rollup_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", nullable = false)
+    private ApartmentStatus fromStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private ApartmentStatus toStatus;
+    
+    @Column(nullable = false)
+    private long changes;
+    
+    // Constructors
+    public DailyStatusTransitionRollup() {}
+    
+    public DailyStatusTransitionRollup(LocalDate day, ApartmentStatus fromStatus, ApartmentStatus toStatus, long changes) {
+        this.day = day;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.changes = changes;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getDay() {
+        return day;
+    }
+    
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+    
+    public ApartmentStatus getFromStatus() {
+        return fromStatus;
+    }
+    
+    public void setFromStatus(ApartmentStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+    
+    public ApartmentStatus getToStatus() {
+        return toStatus;
+    }
+    
+    public void setToStatus(ApartmentStatus toStatus) {
+        this.toStatus = toStatus;
+    }
+    
+    public long getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(long changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.apartmentsalesmanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Links a unit in a partner's inventory feed (source + the partner's own id) to the
+ * apartment it was synced into, with the fingerprint of the record as last applied.
+ * Kept apart from Apartment so edits through the admin forms never lose the link.
+ */
+@Entity
+@Table(name = "feed_records", indexes = {
+    @Index(name = "idx_feed_records_source_external", columnList = "source, external_id", unique = true),
+    @Index(name = "idx_feed_records_source_id", columnList = "source, id")
+})
+public class FeedRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feed_record_seq")
+    @SequenceGenerator(name = "feed_record_seq", sequenceName = "feed_record_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false, length = 64)
+    private String source;
+    
+    @Column(name = "external_id", nullable = false, length = 128)
+    private String externalId;
+    
+    @Column(name = "apartment_id", nullable = false)
+    private Long apartmentId;
+    
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    
+    // Set when the unit was absent from a feed and its apartment moved to the missing status
+    @Column(nullable = false)
+    private boolean missing;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public FeedRecord() {}
+    
+    public FeedRecord(String source, String externalId, Long apartmentId, String fingerprint) {
+        this.source = source;
+        this.externalId = externalId;
+        this.apartmentId = apartmentId;
+        this.fingerprint = fingerprint;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    public void setSource(String source) {
+        this.source = source;
+    }
+    
+    public String getExternalId() {
+        return externalId;
+    }
+    
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+    
+    public Long getApartmentId() {
+        return apartmentId;
+    }
+    
+    public void setApartmentId(Long apartmentId) {
+        this.apartmentId = apartmentId;
+    }
+    
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+    
+    public boolean isMissing() {
+        return missing;
+    }
+    
+    public void setMissing(boolean missing) {
+        this.missing = missing;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
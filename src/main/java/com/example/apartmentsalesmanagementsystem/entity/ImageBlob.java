@@ -0,0 +1,88 @@
+package com.example.apartmentsalesmanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored image file, identified by the SHA-256 of its content. Apartments that
+ * share a photo share the blob; referenceCount is the number of apartments whose
+ * imageUrl points at it, and the file is removed when it drops to zero.
+ */
+@Entity
+@Table(name = "image_blobs", indexes = {
+    @Index(name = "idx_image_blobs_url", columnList = "url", unique = true)
+})
+public class ImageBlob {
+    
+    @Id
+    @Column(length = 64)
+    private String sha256;
+    
+    @Column(nullable = false, length = 255)
+    private String url;
+    
+    @Column(nullable = false)
+    private long size;
+    
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public ImageBlob() {}
+    
+    public ImageBlob(String sha256, String url, long size) {
+        this.sha256 = sha256;
+        this.url = url;
+        this.size = size;
+    }
+    
+    // Getters and Setters
+    public String getSha256() {
+        return sha256;
+    }
+    
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    
+    public long getSize() {
+        return size;
+    }
+    
+    public void setSize(long size) {
+        this.size = size;
+    }
+    
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+    
+    public void setReferenceCount(int referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
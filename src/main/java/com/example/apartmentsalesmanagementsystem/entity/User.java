@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,7 +16,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_created", columnList = "created_at")
+})
 public class User implements UserDetails {
     
     @Id
@@ -61,10 +64,13 @@ public class User implements UserDetails {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Loaded in batches so list queries cost one extra query per 100 users instead of one per user
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "user_management_roles", 
-                     joinColumns = @JoinColumn(name = "user_id"))
+                     joinColumns = @JoinColumn(name = "user_id"),
+                     indexes = @Index(name = "idx_user_management_roles_role", columnList = "management_role, user_id"))
     @Column(name = "management_role")
     private Set<ManagementRole> managementRoles = new HashSet<>();
     
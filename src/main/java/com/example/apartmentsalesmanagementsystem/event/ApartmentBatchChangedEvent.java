@@ -0,0 +1,21 @@
+package com.example.apartmentsalesmanagementsystem.event;
+
+import java.util.List;
+
+/**
+ * Apartment changes committed together, published by ApartmentImportService once per
+ * chunk. Listeners apply them in order, but can take their locks once and merge the
+ * new rows in one pass instead of handling an event per row.
+ */
+public class ApartmentBatchChangedEvent {
+    
+    private final List<ApartmentChangedEvent> changes;
+    
+    public ApartmentBatchChangedEvent(List<ApartmentChangedEvent> changes) {
+        this.changes = List.copyOf(changes);
+    }
+    
+    public List<ApartmentChangedEvent> getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.apartmentsalesmanagementsystem.event;
+
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+
+/**
+ * Published by ApartmentService after an apartment has been written or removed,
+ * so in-memory views of the catalogue can patch themselves instead of reloading.
+ */
+public class ApartmentChangedEvent {
+    
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+    
+    private final Type type;
+    private final Long apartmentId;
+    private final Apartment apartment;
+    private final ApartmentStatus previousStatus;
+    
+    private ApartmentChangedEvent(Type type, Long apartmentId, Apartment apartment, ApartmentStatus previousStatus) {
+        this.type = type;
+        this.apartmentId = apartmentId;
+        this.apartment = apartment;
+        this.previousStatus = previousStatus;
+    }
+    
+    public static ApartmentChangedEvent saved(Apartment apartment) {
+        // Read now: listeners may mark the status recorded before others see the event
+        return new ApartmentChangedEvent(Type.SAVED, apartment.getId(), apartment, apartment.getLoadedStatus());
+    }
+    
+    public static ApartmentChangedEvent deleted(Apartment apartment) {
+        return new ApartmentChangedEvent(Type.DELETED, apartment.getId(), null, apartment.getStatus());
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public Long getApartmentId() {
+        return apartmentId;
+    }
+    
+    /**
+     * The saved state of the apartment, or null for deletions.
+     */
+    public Apartment getApartment() {
+        return apartment;
+    }
+    
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+    
+    /**
+     * Status the apartment had before this change: its loaded status for a save
+     * (null when it was new), its last status for a deletion (null when unknown).
+     */
+    public ApartmentStatus getPreviousStatus() {
+        return previousStatus;
+    }
+}
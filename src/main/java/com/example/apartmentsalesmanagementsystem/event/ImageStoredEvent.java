@@ -0,0 +1,18 @@
+package com.example.apartmentsalesmanagementsystem.event;
+
+/**
+ * Published by ImageStorageService after new image content has been written to disk
+ * (not for uploads that were deduplicated against an existing file).
+ */
+public class ImageStoredEvent {
+    
+    private final String imageUrl;
+    
+    public ImageStoredEvent(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+    
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.apartmentsalesmanagementsystem.event;
+
+import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+import com.example.apartmentsalesmanagementsystem.entity.User;
+import com.example.apartmentsalesmanagementsystem.entity.UserRole;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Published by UserService after a user has been created, updated, (de)activated
+ * or deleted. A null userId means the whole user table changed.
+ *
+ * When the service knows the counted attributes before and after the change, they
+ * are attached as {@link State}s; otherwise both are null.
+ */
+public class UserChangedEvent {
+    
+    private final Long userId;
+    private final String username;
+    private final State previous;
+    private final State current;
+    
+    public UserChangedEvent(Long userId, String username) {
+        this(userId, username, null, null);
+    }
+    
+    private UserChangedEvent(Long userId, String username, State previous, State current) {
+        this.userId = userId;
+        this.username = username;
+        this.previous = previous;
+        this.current = current;
+    }
+    
+    public static UserChangedEvent allUsers() {
+        return new UserChangedEvent(null, null);
+    }
+    
+    public static UserChangedEvent created(User saved) {
+        return new UserChangedEvent(saved.getId(), saved.getUsername(), null, State.of(saved));
+    }
+    
+    public static UserChangedEvent updated(User saved, State previous) {
+        return new UserChangedEvent(saved.getId(), saved.getUsername(), previous, State.of(saved));
+    }
+    
+    public static UserChangedEvent deleted(Long userId, State previous) {
+        return new UserChangedEvent(userId, null, previous, null);
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    /**
+     * Username at the time of the change, or null when unknown.
+     */
+    public String getUsername() {
+        return username;
+    }
+    
+    public boolean isAllUsers() {
+        return userId == null;
+    }
+    
+    /**
+     * Counted attributes before the change; null for a new user or when unknown.
+     */
+    public State getPrevious() {
+        return previous;
+    }
+    
+    /**
+     * Counted attributes after the change; null for a deletion or when unknown.
+     */
+    public State getCurrent() {
+        return current;
+    }
+    
+    /**
+     * The attributes the dashboard counts a user under, copied at publish time.
+     */
+    public static final class State {
+        
+        private final UserRole role;
+        private final boolean active;
+        private final Set<ManagementRole> managementRoles;
+        
+        private State(UserRole role, boolean active, Set<ManagementRole> managementRoles) {
+            this.role = role;
+            this.active = active;
+            this.managementRoles = managementRoles;
+        }
+        
+        public static State of(User user) {
+            Set<ManagementRole> roles = EnumSet.noneOf(ManagementRole.class);
+            if (user.getManagementRoles() != null) {
+                roles.addAll(user.getManagementRoles());
+            }
+            return new State(user.getRole(), user.isActive(), Collections.unmodifiableSet(roles));
+        }
+        
+        public UserRole getRole() {
+            return role;
+        }
+        
+        public boolean isActive() {
+            return active;
+        }
+        
+        public Set<ManagementRole> getManagementRoles() {
+            return managementRoles;
+        }
+    }
+}
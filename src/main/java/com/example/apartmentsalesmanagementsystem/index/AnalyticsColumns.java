@@ -0,0 +1,52 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import java.util.List;
+
+/**
+ * Heap copy of the live rows of the column store, for report aggregation. Taken
+ * under the read lock in one pass, so aggregations can sort and group it in
+ * parallel without holding up writers. City codes index into {@link #getCityNames()};
+ * a negative code means no city.
+ */
+public class AnalyticsColumns {
+    
+    private final int rows;
+    private final long[] priceCents;
+    private final int[] bedrooms;
+    private final int[] squareFeet;
+    private final int[] cities;
+    private final List<String> cityNames;
+    
+    AnalyticsColumns(int rows, long[] priceCents, int[] bedrooms, int[] squareFeet, int[] cities, List<String> cityNames) {
+        this.rows = rows;
+        this.priceCents = priceCents;
+        this.bedrooms = bedrooms;
+        this.squareFeet = squareFeet;
+        this.cities = cities;
+        this.cityNames = cityNames;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public long[] getPriceCents() {
+        return priceCents;
+    }
+    
+    public int[] getBedrooms() {
+        return bedrooms;
+    }
+    
+    public int[] getSquareFeet() {
+        return squareFeet;
+    }
+    
+    public int[] getCities() {
+        return cities;
+    }
+    
+    public List<String> getCityNames() {
+        return cityNames;
+    }
+}
@@ -0,0 +1,598 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Off-heap, columnar snapshot of the apartment catalogue built on the FFM API.
+ *
+ * Each attribute lives in its own native {@link MemorySegment} (long cents for price,
+ * ints for bedrooms/bathrooms/square feet, a dictionary code for city, a status byte),
+ * so a million listings take ~40 MB outside the Java heap. Rows are kept sorted by id,
+ * which lets writes find their row by binary search; deletes leave a tombstone, and
+ * the tombstones are compacted away once they make up a quarter of the rows. A
+ * rebuild loads a fresh set of columns without holding the lock, queuing writes that
+ * arrive meanwhile, and swaps it in.
+ *
+ * Queries run a {@link FilterKernel} (SIMD when the Vector API is available) over the
+ * columns into a reused result bitmap, then keep only offset + limit rows in a bounded
+ * heap, so they allocate nothing proportional to the catalogue size.
+ */
+@Component
+public class ApartmentColumnStore {
+    
+    public static final int SORT_NEWEST = 0;
+    public static final int SORT_PRICE_ASC = 1;
+    public static final int SORT_PRICE_DESC = 2;
+    public static final int SORT_BEDROOMS = 3;
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int COMPACT_MIN_TOMBSTONES = 1024;
+    private static final byte STATUS_DELETED = FilterKernel.DELETED;
+    private static final int NO_CITY = ScanPredicate.ANY_CITY;
+    
+    // Bytes per row across all columns: id, price, createdAt (8 each), bedrooms, bathrooms, squareFeet, city (4 each), status (1)
+    private static final long BYTES_PER_ROW = 8 * 3 + 4 * 4 + 1;
+    
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final FilterKernel filterKernel = FilterKernels.best();
+    
+    private final ThreadLocal<long[]> scratch = new ThreadLocal<>();
+    
+    // Current generation of the columns; replaced by rebuilds, patched in place by writes
+    private Table table;
+    
+    private final IndexRebuilder rebuilder = new IndexRebuilder(lock, this::applyLocked);
+    
+    private volatile boolean ready = false;
+    private volatile long lastRebuildMillis = -1;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        // Queries keep using the previous columns while the new ones load
+        Table fresh = rebuilder.run(() -> {
+            Table loading = new Table(INITIAL_CAPACITY);
+            try {
+                // Id order keeps the id column sorted without any extra work
+                IndexRebuilder.forEachApartment(apartmentRepository, loading::upsert);
+            } catch (RuntimeException | Error e) {
+                loading.close();
+                throw e;
+            }
+            return loading;
+        }, loaded -> {
+            Table previous = table;
+            table = loaded;
+            ready = true;
+            if (previous != null) {
+                previous.close();
+            }
+        });
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        System.out.println("Apartment column store rebuilt in " + lastRebuildMillis + " ms: "
+                + fresh.liveRows + " rows, " + (fresh.capacity * BYTES_PER_ROW / 1024) + " KB off-heap");
+    }
+    
+    @EventListener
+    public void onApartmentChanged(ApartmentChangedEvent event) {
+        rebuilder.onChange(event);
+    }
+    
+    @EventListener
+    public void onApartmentsChanged(ApartmentBatchChangedEvent event) {
+        rebuilder.onChanges(event.getChanges());
+    }
+    
+    private void applyLocked(ApartmentChangedEvent event) {
+        if (table == null) {
+            // Not built yet; the startup rebuild will read this row from the database
+            return;
+        }
+        table.apply(event);
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Answer a filter + sort + page query from the snapshot.
+     * Returns null when the snapshot is not available (still building), in which
+     * case the caller should fall back to the database.
+     */
+    public ColumnQueryResult query(ApartmentFilter filter, int sortMode, int offset, int limit) {
+        if (!ready || !lock.readLock().tryLock()) {
+            return null;
+        }
+        try {
+            if (!ready) {
+                return null;
+            }
+            
+            Table t = table;
+            ScanPredicate predicate = toPredicate(t, filter);
+            if (predicate == null) {
+                return new ColumnQueryResult(new long[0], 0);
+            }
+            long[] bitmap = scratchBitmap(t);
+            filterKernel.scan(t.columns(), t.size, predicate, bitmap);
+            
+            // Never more rows than the catalogue holds, whatever page the caller asks for
+            int k = (int) Math.min((long) Math.max(0, offset) + Math.max(0, limit), t.liveRows);
+            int[] top = new int[k];
+            int topSize = 0;
+            long total = 0;
+            
+            int words = (t.size + 63) >>> 6;
+            for (int word = 0; word < words; word++) {
+                long bits = bitmap[word];
+                total += Long.bitCount(bits);
+                while (bits != 0 && k > 0) {
+                    int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    // Bounded max-heap with the worst kept row at the root; rows past the page are never kept
+                    if (topSize < k) {
+                        top[topSize] = row;
+                        siftUp(t, top, topSize++, sortMode);
+                    } else if (compareRows(t, row, top[0], sortMode) < 0) {
+                        top[0] = row;
+                        siftDown(t, top, 0, topSize, sortMode);
+                    }
+                }
+            }
+            // Heap sort in place: repeatedly move the worst row to the end
+            for (int end = topSize - 1; end > 0; end--) {
+                int worst = top[0];
+                top[0] = top[end];
+                top[end] = worst;
+                siftDown(t, top, 0, end, sortMode);
+            }
+            
+            int from = Math.min(Math.max(0, offset), topSize);
+            long[] pageIds = new long[topSize - from];
+            for (int i = from; i < topSize; i++) {
+                pageIds[i - from] = t.ids.getAtIndex(ValueLayout.JAVA_LONG, top[i]);
+            }
+            return new ColumnQueryResult(pageIds, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Translate a filter into column codes. Returns null when the filter can match
+     * nothing (e.g. a city that does not occur in the catalogue).
+     */
+    private static ScanPredicate toPredicate(Table t, ApartmentFilter filter) {
+        byte status = filter.getStatus() != null ? (byte) filter.getStatus().ordinal() : ScanPredicate.ANY_STATUS;
+        int city = ScanPredicate.ANY_CITY;
+        String cityKey = ApartmentFilter.cityKey(filter.getCity());
+        if (cityKey != null) {
+            Integer code = t.cityCodes.get(cityKey);
+            if (code == null) {
+                return null;
+            }
+            city = code;
+        }
+        return new ScanPredicate(status, city,
+                filter.getMinPrice() != null ? toCents(filter.getMinPrice()) : Long.MIN_VALUE,
+                filter.getMaxPrice() != null ? toCents(filter.getMaxPrice()) : Long.MAX_VALUE,
+                filter.getMinBedrooms() != null ? filter.getMinBedrooms() : Integer.MIN_VALUE,
+                filter.getMinBathrooms() != null ? filter.getMinBathrooms() : Integer.MIN_VALUE,
+                filter.getMinSquareFeet() != null ? filter.getMinSquareFeet() : Integer.MIN_VALUE,
+                filter.getMaxSquareFeet() != null ? filter.getMaxSquareFeet() : Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Per-thread result bitmap, reused across queries so a scan allocates nothing
+     * proportional to the catalogue.
+     */
+    private long[] scratchBitmap(Table t) {
+        int words = (t.size + 63) >>> 6;
+        long[] bitmap = scratch.get();
+        if (bitmap == null || bitmap.length < words) {
+            bitmap = new long[Math.max(words, t.capacity >>> 6)];
+            scratch.set(bitmap);
+        }
+        return bitmap;
+    }
+    
+    /**
+     * Copy the live rows onto the heap for report aggregation, or null while the
+     * snapshot is building.
+     */
+    public AnalyticsColumns analyticsColumns() {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            Table t = table;
+            long[] priceCents = new long[t.liveRows];
+            int[] bedroomCounts = new int[t.liveRows];
+            int[] squareFeetValues = new int[t.liveRows];
+            int[] cityCodesByRow = new int[t.liveRows];
+            int out = 0;
+            for (int row = 0; row < t.size; row++) {
+                if (t.statuses.get(ValueLayout.JAVA_BYTE, row) == STATUS_DELETED) {
+                    continue;
+                }
+                priceCents[out] = t.prices.getAtIndex(ValueLayout.JAVA_LONG, row);
+                bedroomCounts[out] = t.bedrooms.getAtIndex(ValueLayout.JAVA_INT, row);
+                squareFeetValues[out] = t.squareFeet.getAtIndex(ValueLayout.JAVA_INT, row);
+                cityCodesByRow[out] = t.cities.getAtIndex(ValueLayout.JAVA_INT, row);
+                out++;
+            }
+            return new AnalyticsColumns(out, priceCents, bedroomCounts, squareFeetValues, cityCodesByRow, List.copyOf(t.cityNames));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public static int sortMode(String sort) {
+        if (sort == null) {
+            return SORT_NEWEST;
+        }
+        switch (sort) {
+            case "price_asc":
+                return SORT_PRICE_ASC;
+            case "price_desc":
+                return SORT_PRICE_DESC;
+            case "bedrooms":
+                return SORT_BEDROOMS;
+            default:
+                return SORT_NEWEST;
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Table t = table;
+            int size = t != null ? t.size : 0;
+            int liveRows = t != null ? t.liveRows : 0;
+            int capacity = t != null ? t.capacity : 0;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("rows", size);
+            stats.put("liveRows", liveRows);
+            stats.put("tombstones", size - liveRows);
+            stats.put("capacity", capacity);
+            stats.put("offHeapBytes", capacity * BYTES_PER_ROW);
+            stats.put("distinctCities", t != null ? t.cityNames.size() : 0);
+            stats.put("filterKernel", filterKernel.name());
+            stats.put("lastRebuildMillis", lastRebuildMillis);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            if (table != null) {
+                table.close();
+                table = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Same orderings as ApartmentService's SQL sort, with id as the final tie-breaker.
+     */
+    private static int compareRows(Table t, int a, int b, int sortMode) {
+        int result;
+        switch (sortMode) {
+            case SORT_PRICE_ASC:
+                result = Long.compare(t.prices.getAtIndex(ValueLayout.JAVA_LONG, a), t.prices.getAtIndex(ValueLayout.JAVA_LONG, b));
+                return result != 0 ? result : Long.compare(t.ids.getAtIndex(ValueLayout.JAVA_LONG, a), t.ids.getAtIndex(ValueLayout.JAVA_LONG, b));
+            case SORT_PRICE_DESC:
+                result = Long.compare(t.prices.getAtIndex(ValueLayout.JAVA_LONG, b), t.prices.getAtIndex(ValueLayout.JAVA_LONG, a));
+                return result != 0 ? result : Long.compare(t.ids.getAtIndex(ValueLayout.JAVA_LONG, b), t.ids.getAtIndex(ValueLayout.JAVA_LONG, a));
+            case SORT_BEDROOMS:
+                result = Integer.compare(t.bedrooms.getAtIndex(ValueLayout.JAVA_INT, b), t.bedrooms.getAtIndex(ValueLayout.JAVA_INT, a));
+                if (result == 0) {
+                    result = Long.compare(t.prices.getAtIndex(ValueLayout.JAVA_LONG, a), t.prices.getAtIndex(ValueLayout.JAVA_LONG, b));
+                }
+                return result != 0 ? result : Long.compare(t.ids.getAtIndex(ValueLayout.JAVA_LONG, a), t.ids.getAtIndex(ValueLayout.JAVA_LONG, b));
+            default:
+                result = Long.compare(t.createdAts.getAtIndex(ValueLayout.JAVA_LONG, b), t.createdAts.getAtIndex(ValueLayout.JAVA_LONG, a));
+                return result != 0 ? result : Long.compare(t.ids.getAtIndex(ValueLayout.JAVA_LONG, b), t.ids.getAtIndex(ValueLayout.JAVA_LONG, a));
+        }
+    }
+    
+    private static void siftUp(Table t, int[] heap, int position, int sortMode) {
+        int row = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (compareRows(t, row, heap[parent], sortMode) <= 0) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = row;
+    }
+    
+    private static void siftDown(Table t, int[] heap, int position, int heapSize, int sortMode) {
+        int row = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && compareRows(t, heap[child + 1], heap[child], sortMode) > 0) {
+                child++;
+            }
+            if (compareRows(t, heap[child], row, sortMode) <= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = row;
+    }
+    
+    /**
+     * Price in whole cents, saturated to the long range so an absurd filter bound
+     * still compares correctly instead of throwing.
+     */
+    static long toCents(BigDecimal amount) {
+        BigDecimal cents = amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP);
+        if (cents.compareTo(MAX_CENTS) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(MIN_CENTS) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+    
+    private static long toSortableTimestamp(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return Long.MIN_VALUE;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+    
+    /**
+     * One generation of the columns and their city dictionary. Not thread-safe; the
+     * store guards the current table with its lock, and a rebuild fills a fresh one
+     * nothing else can see yet.
+     */
+    private static final class Table {
+        
+        private Arena arena;
+        private MemorySegment ids;
+        private MemorySegment prices;
+        private MemorySegment createdAts;
+        private MemorySegment bedrooms;
+        private MemorySegment bathrooms;
+        private MemorySegment squareFeet;
+        private MemorySegment cities;
+        private MemorySegment statuses;
+        
+        private int capacity;
+        private int size;
+        private int liveRows;
+        
+        // Keyed by ApartmentFilter.cityKey; the names are display spellings
+        private final Map<String, Integer> cityCodes = new HashMap<>();
+        private final List<String> cityNames = new ArrayList<>();
+        
+        Table(int initialCapacity) {
+            allocate(initialCapacity);
+        }
+        
+        void apply(ApartmentChangedEvent event) {
+            if (event.isDeleted()) {
+                delete(event.getApartmentId());
+            } else {
+                upsert(event.getApartment());
+            }
+        }
+        
+        FilterKernel.Columns columns() {
+            return new FilterKernel.Columns(prices, bedrooms, bathrooms, squareFeet, cities, statuses);
+        }
+        
+        void close() {
+            arena.close();
+        }
+        
+        void upsert(Apartment apartment) {
+            if (apartment == null || apartment.getId() == null) {
+                return;
+            }
+            int row = findRow(apartment.getId());
+            if (row >= 0) {
+                if (statuses.get(ValueLayout.JAVA_BYTE, row) == STATUS_DELETED) {
+                    liveRows++;
+                }
+            } else {
+                row = -(row + 1);
+                ensureCapacity(size + 1);
+                if (row < size) {
+                    shiftRows(row);
+                }
+                size++;
+                liveRows++;
+            }
+            writeRow(row, apartment);
+        }
+        
+        void delete(Long id) {
+            int row = findRow(id);
+            if (row >= 0 && statuses.get(ValueLayout.JAVA_BYTE, row) != STATUS_DELETED) {
+                statuses.set(ValueLayout.JAVA_BYTE, row, STATUS_DELETED);
+                liveRows--;
+                // Every scan pays for tombstones, so reclaim them once they are a quarter
+                // of the table; that many deletes between compactions keeps the copying
+                // to a constant per delete
+                int tombstones = size - liveRows;
+                if (tombstones >= COMPACT_MIN_TOMBSTONES && tombstones > size / 4) {
+                    compact();
+                }
+            }
+        }
+        
+        private void writeRow(int row, Apartment apartment) {
+            ids.setAtIndex(ValueLayout.JAVA_LONG, row, apartment.getId());
+            prices.setAtIndex(ValueLayout.JAVA_LONG, row, apartment.getPrice() != null ? toCents(apartment.getPrice()) : 0L);
+            createdAts.setAtIndex(ValueLayout.JAVA_LONG, row, toSortableTimestamp(apartment.getCreatedAt()));
+            bedrooms.setAtIndex(ValueLayout.JAVA_INT, row, apartment.getBedrooms() != null ? apartment.getBedrooms() : 0);
+            bathrooms.setAtIndex(ValueLayout.JAVA_INT, row, apartment.getBathrooms() != null ? apartment.getBathrooms() : 0);
+            squareFeet.setAtIndex(ValueLayout.JAVA_INT, row, apartment.getSquareFeet() != null ? apartment.getSquareFeet() : 0);
+            cities.setAtIndex(ValueLayout.JAVA_INT, row, cityCode(apartment.getCity()));
+            ApartmentStatus status = apartment.getStatus() != null ? apartment.getStatus() : ApartmentStatus.AVAILABLE;
+            statuses.set(ValueLayout.JAVA_BYTE, row, (byte) status.ordinal());
+        }
+        
+        private int findRow(long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midId = ids.getAtIndex(ValueLayout.JAVA_LONG, mid);
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+        
+        /**
+         * Open a one-row gap at the given position. Only needed when an id arrives out of
+         * order; sequence ids normally append at the end.
+         */
+        private void shiftRows(int row) {
+            moveRows(row, row + 1, size - row);
+        }
+        
+        /**
+         * Slide the live rows down over the tombstones, keeping them in id order.
+         */
+        private void compact() {
+            int write = 0;
+            int row = 0;
+            while (row < size) {
+                if (statuses.get(ValueLayout.JAVA_BYTE, row) == STATUS_DELETED) {
+                    row++;
+                    continue;
+                }
+                int runStart = row;
+                while (row < size && statuses.get(ValueLayout.JAVA_BYTE, row) != STATUS_DELETED) {
+                    row++;
+                }
+                if (runStart != write) {
+                    moveRows(runStart, write, row - runStart);
+                }
+                write += row - runStart;
+            }
+            size = write;
+        }
+        
+        private void moveRows(int from, int to, int count) {
+            move(ids, 8, from, to, count);
+            move(prices, 8, from, to, count);
+            move(createdAts, 8, from, to, count);
+            move(bedrooms, 4, from, to, count);
+            move(bathrooms, 4, from, to, count);
+            move(squareFeet, 4, from, to, count);
+            move(cities, 4, from, to, count);
+            move(statuses, 1, from, to, count);
+        }
+        
+        static void move(MemorySegment column, long width, int from, int to, int count) {
+            MemorySegment.copy(column, from * width, column, to * width, count * width);
+        }
+        
+        private void ensureCapacity(int required) {
+            if (required <= capacity) {
+                return;
+            }
+            int newCapacity = Math.max(required, capacity * 2);
+            Arena oldArena = arena;
+            MemorySegment[] old = {ids, prices, createdAts, bedrooms, bathrooms, squareFeet, cities, statuses};
+            
+            allocate(newCapacity);
+            MemorySegment[] fresh = {ids, prices, createdAts, bedrooms, bathrooms, squareFeet, cities, statuses};
+            for (int i = 0; i < old.length; i++) {
+                MemorySegment.copy(old[i], 0, fresh[i], 0, old[i].byteSize());
+            }
+            oldArena.close();
+        }
+        
+        /**
+         * Allocate empty columns of the given capacity in a fresh arena. Any previous arena
+         * is left to the caller to copy from and close.
+         */
+        private void allocate(int newCapacity) {
+            arena = Arena.ofShared();
+            ids = arena.allocate(ValueLayout.JAVA_LONG, newCapacity);
+            prices = arena.allocate(ValueLayout.JAVA_LONG, newCapacity);
+            createdAts = arena.allocate(ValueLayout.JAVA_LONG, newCapacity);
+            bedrooms = arena.allocate(ValueLayout.JAVA_INT, newCapacity);
+            bathrooms = arena.allocate(ValueLayout.JAVA_INT, newCapacity);
+            squareFeet = arena.allocate(ValueLayout.JAVA_INT, newCapacity);
+            cities = arena.allocate(ValueLayout.JAVA_INT, newCapacity);
+            statuses = arena.allocate(ValueLayout.JAVA_BYTE, newCapacity);
+            capacity = newCapacity;
+        }
+        
+        private int cityCode(String city) {
+            String key = ApartmentFilter.cityKey(city);
+            if (key == null) {
+                return NO_CITY;
+            }
+            Integer code = cityCodes.get(key);
+            if (code == null) {
+                // The first spelling seen names the city in reports
+                code = cityNames.size();
+                cityNames.add(city.trim());
+                cityCodes.put(key, code);
+            }
+            return code;
+        }
+    }
+}
@@ -0,0 +1,660 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed-bitmap facet index over the apartment catalogue.
+ *
+ * Every value of city, bedrooms, bathrooms, status and price bucket owns a Roaring
+ * bitmap of apartment ids. Facet counts for a filter are cardinalities of bitmap
+ * intersections, so they never touch the database. Writes arrive as
+ * {@link ApartmentChangedEvent}s and move a single id between bitmaps. A rebuild
+ * fills a fresh set of bitmaps without the lock and swaps it in, replaying the
+ * events that arrived while it was loading.
+ *
+ * Price filters that cut through a bucket are checked against the exact prices kept
+ * per row. Square feet is not faceted; its filters are two binary searches over a
+ * sorted array of packed (square feet, id) keys.
+ */
+@Component
+public class ApartmentFacetIndex {
+    
+    private static final ApartmentStatus[] STATUSES = ApartmentStatus.values();
+    private static final int NO_CITY = -1;
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    @Value("${app.facets.price-buckets:50000,100000,250000,500000,1000000}")
+    private BigDecimal[] priceEdges;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Current generation of the bitmaps; replaced by rebuilds, patched in place by writes
+    private Facets facets;
+    
+    private final IndexRebuilder rebuilder = new IndexRebuilder(lock, this::applyLocked, this::applyAllLocked);
+    
+    private volatile boolean ready = false;
+    private volatile long lastRebuildMillis = -1;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        BigDecimal[] edges = priceEdges != null ? priceEdges.clone() : new BigDecimal[0];
+        Arrays.sort(edges);
+        long[] edgeCents = new long[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            edgeCents[i] = ApartmentColumnStore.toCents(edges[i]);
+        }
+        
+        // Counts keep coming from the previous bitmaps while the new ones load
+        Facets fresh = rebuilder.run(() -> {
+            Facets loading = new Facets(edgeCents);
+            IndexRebuilder.forEachApartment(apartmentRepository, loading::upsert);
+            loading.finishLoad();
+            return loading;
+        }, loaded -> {
+            facets = loaded;
+            ready = !loaded.idOverflow;
+        });
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        System.out.println("Apartment facet index rebuilt in " + lastRebuildMillis + " ms: "
+                + fresh.rows.size() + " apartments, " + fresh.byCity.size() + " cities");
+    }
+    
+    @EventListener
+    public void onApartmentChanged(ApartmentChangedEvent event) {
+        rebuilder.onChange(event);
+    }
+    
+    @EventListener
+    public void onApartmentsChanged(ApartmentBatchChangedEvent event) {
+        rebuilder.onChanges(event.getChanges());
+    }
+    
+    private void applyLocked(ApartmentChangedEvent event) {
+        if (facets == null) {
+            // Not built yet; the startup rebuild will read this row from the database
+            return;
+        }
+        facets.apply(event);
+        ready = !facets.idOverflow;
+    }
+    
+    private void applyAllLocked(List<ApartmentChangedEvent> events) {
+        if (facets != null) {
+            facets.applyAll(events);
+            ready = !facets.idOverflow;
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Facet counts for the given filter, or null while the index is unavailable.
+     * A null status in the filter counts apartments of every status.
+     */
+    public FacetCounts counts(ApartmentFilter filter) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            Facets f = facets;
+            
+            // Selection per dimension; null means the filter does not constrain it
+            RoaringBitmap status = filter.getStatus() != null ? bitmapOrEmpty(f.byStatus.get(filter.getStatus())) : null;
+            RoaringBitmap city = hasText(filter.getCity()) ? bitmapOrEmpty(f.byCity.get(ApartmentFilter.cityKey(filter.getCity()))) : null;
+            RoaringBitmap bedrooms = filter.getMinBedrooms() != null ? atLeast(f.byBedrooms, filter.getMinBedrooms()) : null;
+            RoaringBitmap bathrooms = filter.getMinBathrooms() != null ? atLeast(f.byBathrooms, filter.getMinBathrooms()) : null;
+            RoaringBitmap price = filter.getMinPrice() != null || filter.getMaxPrice() != null
+                    ? f.priceRange(filter.getMinPrice(), filter.getMaxPrice()) : null;
+            RoaringBitmap squareFeet = filter.getMinSquareFeet() != null || filter.getMaxSquareFeet() != null
+                    ? f.squareFeetRange(filter.getMinSquareFeet(), filter.getMaxSquareFeet()) : null;
+            
+            RoaringBitmap matching = f.intersect(status, city, bedrooms, bathrooms, price, squareFeet);
+            
+            List<FacetCounts.FacetValue> cityCounts = new ArrayList<>();
+            RoaringBitmap cityContext = f.intersect(status, bedrooms, bathrooms, price, squareFeet);
+            for (Map.Entry<String, RoaringBitmap> entry : f.byCity.entrySet()) {
+                long count = RoaringBitmap.andCardinality(cityContext, entry.getValue());
+                if (count > 0) {
+                    String label = f.cityLabels.get(entry.getKey());
+                    cityCounts.add(new FacetCounts.FacetValue(label, label, count));
+                }
+            }
+            cityCounts.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+            
+            List<FacetCounts.FacetValue> statusCounts = new ArrayList<>();
+            RoaringBitmap statusContext = f.intersect(city, bedrooms, bathrooms, price, squareFeet);
+            for (Map.Entry<ApartmentStatus, RoaringBitmap> entry : f.byStatus.entrySet()) {
+                long count = RoaringBitmap.andCardinality(statusContext, entry.getValue());
+                String label = entry.getKey().name().charAt(0) + entry.getKey().name().substring(1).toLowerCase(Locale.ROOT).replace('_', ' ');
+                statusCounts.add(new FacetCounts.FacetValue(entry.getKey().name(), label, count));
+            }
+            
+            List<FacetCounts.PriceBucket> priceCounts = new ArrayList<>();
+            RoaringBitmap priceContext = f.intersect(status, city, bedrooms, bathrooms, squareFeet);
+            for (int i = 0; i < f.byPriceBucket.length; i++) {
+                BigDecimal min = i == 0 ? null : f.sortedEdge(i - 1);
+                BigDecimal max = i == f.byPriceBucket.length - 1 ? null : f.sortedEdge(i);
+                priceCounts.add(new FacetCounts.PriceBucket(min, max, RoaringBitmap.andCardinality(priceContext, f.byPriceBucket[i])));
+            }
+            
+            return new FacetCounts(matching.getLongCardinality(),
+                    cityCounts,
+                    cumulative(f.byBedrooms, f.intersect(status, city, bathrooms, price, squareFeet)),
+                    cumulative(f.byBathrooms, f.intersect(status, city, bedrooms, price, squareFeet)),
+                    statusCounts,
+                    priceCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Facets f = facets;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("apartments", f != null ? f.rows.size() : 0);
+            stats.put("cities", f != null ? f.byCity.size() : 0);
+            stats.put("bedroomValues", f != null ? f.byBedrooms.size() : 0);
+            stats.put("bathroomValues", f != null ? f.byBathrooms.size() : 0);
+            stats.put("priceBuckets", f != null ? f.byPriceBucket.length : 0);
+            stats.put("bitmapBytes", f != null ? f.sizeInBytes() : 0L);
+            stats.put("rowBytes", f != null ? f.rowBytes() : 0L);
+            stats.put("idOverflow", f != null && f.idOverflow);
+            stats.put("lastRebuildMillis", lastRebuildMillis);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+    
+    private static RoaringBitmap atLeast(TreeMap<Integer, RoaringBitmap> byValue, int min) {
+        return RoaringBitmap.or(byValue.tailMap(min, true).values().iterator());
+    }
+    
+    /**
+     * Suffix sums of the per-value counts, giving "n+" counts for each value present.
+     */
+    private static List<FacetCounts.FacetValue> cumulative(TreeMap<Integer, RoaringBitmap> byValue, RoaringBitmap context) {
+        List<FacetCounts.FacetValue> values = new ArrayList<>();
+        long running = 0;
+        for (Map.Entry<Integer, RoaringBitmap> entry : byValue.descendingMap().entrySet()) {
+            running += RoaringBitmap.andCardinality(context, entry.getValue());
+            values.add(0, new FacetCounts.FacetValue(String.valueOf(entry.getKey()), entry.getKey() + "+", running));
+        }
+        return values;
+    }
+    
+    private static RoaringBitmap bitmapOrEmpty(RoaringBitmap bitmap) {
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+    
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+    
+    /**
+     * One generation of the bitmaps and per-row values. Not thread-safe; the index
+     * guards the current generation with its lock, and a rebuild fills a fresh one
+     * nothing else can see yet.
+     */
+    private static final class Facets {
+        
+        final RoaringBitmap all = new RoaringBitmap();
+        final Map<String, RoaringBitmap> byCity = new HashMap<>();
+        final Map<String, String> cityLabels = new HashMap<>();
+        final TreeMap<Integer, RoaringBitmap> byBedrooms = new TreeMap<>();
+        final TreeMap<Integer, RoaringBitmap> byBathrooms = new TreeMap<>();
+        final Map<ApartmentStatus, RoaringBitmap> byStatus = new EnumMap<>(ApartmentStatus.class);
+        final RoaringBitmap[] byPriceBucket;
+        final long[] priceEdgeCents;
+        
+        // Last indexed values per id, needed to move an id out of its old bitmaps
+        final Rows rows = new Rows();
+        
+        // Rows store a city as a code into this list
+        final List<String> cityKeys = new ArrayList<>();
+        final Map<String, Integer> cityCodes = new HashMap<>();
+        
+        // Sorted squareFeetKey values; a rebuild sorts them once after loading every row
+        long[] bySquareFeet = new long[0];
+        int squareFeetCount;
+        boolean loading = true;
+        // Keys inserted during applyAll, merged into bySquareFeet at its end
+        Set<Long> deferredSquareFeet;
+        
+        boolean idOverflow = false;
+        
+        Facets(long[] priceEdgeCents) {
+            this.priceEdgeCents = priceEdgeCents;
+            this.byPriceBucket = new RoaringBitmap[priceEdgeCents.length + 1];
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                byPriceBucket[i] = new RoaringBitmap();
+            }
+        }
+        
+        void apply(ApartmentChangedEvent event) {
+            if (event.isDeleted()) {
+                Long id = event.getApartmentId();
+                if (id != null && id <= Integer.MAX_VALUE) {
+                    remove(id.intValue());
+                }
+            } else {
+                upsert(event.getApartment());
+            }
+        }
+        
+        /**
+         * Apply changes in order, merging their square-feet keys in one pass at the end
+         * instead of shifting the sorted array once per row.
+         */
+        void applyAll(List<ApartmentChangedEvent> events) {
+            deferredSquareFeet = new HashSet<>();
+            try {
+                events.forEach(this::apply);
+            } finally {
+                Set<Long> keys = deferredSquareFeet;
+                deferredSquareFeet = null;
+                mergeSquareFeet(keys);
+            }
+        }
+        
+        /**
+         * End of a rebuild's load: sort the square-feet keys in one pass and compact the bitmaps.
+         */
+        void finishLoad() {
+            bySquareFeet = new long[Math.max(rows.size, 64)];
+            for (int i = 0; i < rows.size; i++) {
+                bySquareFeet[i] = squareFeetKey(rows.squareFeet[i], rows.ids[i]);
+            }
+            squareFeetCount = rows.size;
+            Arrays.sort(bySquareFeet, 0, squareFeetCount);
+            loading = false;
+            
+            // Ids are mostly sequential, so run-length containers shrink the bitmaps considerably
+            all.runOptimize();
+            byCity.values().forEach(RoaringBitmap::runOptimize);
+            byBedrooms.values().forEach(RoaringBitmap::runOptimize);
+            byBathrooms.values().forEach(RoaringBitmap::runOptimize);
+            byStatus.values().forEach(RoaringBitmap::runOptimize);
+            for (RoaringBitmap bucket : byPriceBucket) {
+                bucket.runOptimize();
+            }
+        }
+        
+        long sizeInBytes() {
+            long bytes = all.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byCity.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byBedrooms.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byBathrooms.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byStatus.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byPriceBucket) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        }
+        
+        long rowBytes() {
+            return rows.capacityBytes() + (long) bySquareFeet.length * Long.BYTES;
+        }
+        
+        void upsert(Apartment apartment) {
+            if (apartment == null || apartment.getId() == null) {
+                return;
+            }
+            if (apartment.getId() > Integer.MAX_VALUE) {
+                // Roaring bitmaps hold 32-bit ids; stop serving counts rather than undercount
+                if (!idOverflow) {
+                    System.err.println("Apartment id " + apartment.getId() + " exceeds the facet index range; facet counts disabled");
+                }
+                idOverflow = true;
+                return;
+            }
+            int id = apartment.getId().intValue();
+            remove(id);
+            
+            String cityKey = ApartmentFilter.cityKey(apartment.getCity());
+            int bedrooms = apartment.getBedrooms() != null ? apartment.getBedrooms() : 0;
+            int bathrooms = apartment.getBathrooms() != null ? apartment.getBathrooms() : 0;
+            ApartmentStatus status = apartment.getStatus() != null ? apartment.getStatus() : ApartmentStatus.AVAILABLE;
+            long priceCents = apartment.getPrice() != null ? ApartmentColumnStore.toCents(apartment.getPrice()) : 0;
+            int squareFeet = apartment.getSquareFeet() != null ? apartment.getSquareFeet() : 0;
+            
+            rows.insert(-(rows.find(id) + 1), id, cityCode(cityKey), bedrooms, bathrooms,
+                    (byte) status.ordinal(), priceCents, squareFeet);
+            all.add(id);
+            if (cityKey != null) {
+                byCity.computeIfAbsent(cityKey, key -> new RoaringBitmap()).add(id);
+                cityLabels.putIfAbsent(cityKey, apartment.getCity().trim());
+            }
+            byBedrooms.computeIfAbsent(bedrooms, key -> new RoaringBitmap()).add(id);
+            byBathrooms.computeIfAbsent(bathrooms, key -> new RoaringBitmap()).add(id);
+            byStatus.computeIfAbsent(status, key -> new RoaringBitmap()).add(id);
+            byPriceBucket[priceBucket(priceCents)].add(id);
+            if (!loading) {
+                insertSquareFeet(squareFeetKey(squareFeet, id));
+            }
+        }
+        
+        void remove(int id) {
+            int row = rows.find(id);
+            if (row < 0) {
+                return;
+            }
+            all.remove(id);
+            if (rows.cities[row] != NO_CITY) {
+                String cityKey = cityKeys.get(rows.cities[row]);
+                removeFrom(byCity, cityKey, id);
+                if (!byCity.containsKey(cityKey)) {
+                    cityLabels.remove(cityKey);
+                }
+            }
+            removeFrom(byBedrooms, rows.bedrooms[row], id);
+            removeFrom(byBathrooms, rows.bathrooms[row], id);
+            removeFrom(byStatus, STATUSES[rows.statuses[row]], id);
+            byPriceBucket[priceBucket(rows.prices[row])].remove(id);
+            removeSquareFeet(squareFeetKey(rows.squareFeet[row], id));
+            rows.remove(row);
+        }
+        
+        /**
+         * Intersection of the given selections, skipping unconstrained (null) ones. The
+         * smallest goes first so every AND works on as little as possible; with fewer
+         * than two selections nothing is copied, since callers only read the result.
+         */
+        RoaringBitmap intersect(RoaringBitmap... selections) {
+            List<RoaringBitmap> constrained = new ArrayList<>(selections.length);
+            for (RoaringBitmap selection : selections) {
+                if (selection != null) {
+                    constrained.add(selection);
+                }
+            }
+            if (constrained.isEmpty()) {
+                return all;
+            }
+            constrained.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            if (constrained.size() == 1) {
+                return constrained.get(0);
+            }
+            RoaringBitmap result = RoaringBitmap.and(constrained.get(0), constrained.get(1));
+            for (int i = 2; i < constrained.size() && !result.isEmpty(); i++) {
+                result.and(constrained.get(i));
+            }
+            return result;
+        }
+        
+        RoaringBitmap priceRange(BigDecimal min, BigDecimal max) {
+            long minCents = min != null ? ApartmentColumnStore.toCents(min) : Long.MIN_VALUE;
+            long maxCents = max != null ? ApartmentColumnStore.toCents(max) : Long.MAX_VALUE;
+            RoaringBitmap result = new RoaringBitmap();
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                long bucketMin = i == 0 ? Long.MIN_VALUE : priceEdgeCents[i - 1];
+                long bucketMax = i == byPriceBucket.length - 1 ? Long.MAX_VALUE : priceEdgeCents[i] - 1;
+                if (bucketMax < minCents || bucketMin > maxCents) {
+                    continue;
+                }
+                if (bucketMin >= minCents && bucketMax <= maxCents) {
+                    result.or(byPriceBucket[i]);
+                } else {
+                    // Bucket straddles a bound; check each member's exact price
+                    byPriceBucket[i].forEach((int id) -> {
+                        long cents = rows.prices[rows.find(id)];
+                        if (cents >= minCents && cents <= maxCents) {
+                            result.add(id);
+                        }
+                    });
+                }
+            }
+            return result;
+        }
+        
+        RoaringBitmap squareFeetRange(Integer min, Integer max) {
+            int from = lowerBound(bySquareFeet, squareFeetCount, squareFeetKey(min != null ? min : Integer.MIN_VALUE, 0));
+            // Keys of max + 1 square feet start where the range ends
+            int to = max != null && max < Integer.MAX_VALUE
+                    ? lowerBound(bySquareFeet, squareFeetCount, squareFeetKey(max + 1, 0))
+                    : squareFeetCount;
+            RoaringBitmap result = new RoaringBitmap();
+            for (int i = from; i < to; i++) {
+                result.add((int) bySquareFeet[i]);
+            }
+            return result;
+        }
+        
+        private void insertSquareFeet(long key) {
+            if (deferredSquareFeet != null) {
+                deferredSquareFeet.add(key);
+                return;
+            }
+            int position = lowerBound(bySquareFeet, squareFeetCount, key);
+            if (position < squareFeetCount && bySquareFeet[position] == key) {
+                return;
+            }
+            if (squareFeetCount == bySquareFeet.length) {
+                bySquareFeet = Arrays.copyOf(bySquareFeet, Math.max(64, squareFeetCount * 2));
+            }
+            System.arraycopy(bySquareFeet, position, bySquareFeet, position + 1, squareFeetCount - position);
+            bySquareFeet[position] = key;
+            squareFeetCount++;
+        }
+        
+        private void removeSquareFeet(long key) {
+            if (deferredSquareFeet != null && deferredSquareFeet.remove(key)) {
+                return;
+            }
+            int position = lowerBound(bySquareFeet, squareFeetCount, key);
+            if (position < squareFeetCount && bySquareFeet[position] == key) {
+                System.arraycopy(bySquareFeet, position + 1, bySquareFeet, position, squareFeetCount - position - 1);
+                squareFeetCount--;
+            }
+        }
+        
+        private void mergeSquareFeet(Set<Long> keys) {
+            long[] added = new long[keys.size()];
+            int count = 0;
+            for (long key : keys) {
+                int position = lowerBound(bySquareFeet, squareFeetCount, key);
+                if (position == squareFeetCount || bySquareFeet[position] != key) {
+                    added[count++] = key;
+                }
+            }
+            if (count == 0) {
+                return;
+            }
+            Arrays.sort(added, 0, count);
+            int total = squareFeetCount + count;
+            if (total > bySquareFeet.length) {
+                bySquareFeet = Arrays.copyOf(bySquareFeet, Math.max(total, squareFeetCount * 2));
+            }
+            // From the back, so every existing key moves at most once
+            int existing = squareFeetCount - 1;
+            int next = count - 1;
+            for (int i = total - 1; next >= 0; i--) {
+                bySquareFeet[i] = existing >= 0 && bySquareFeet[existing] > added[next]
+                        ? bySquareFeet[existing--]
+                        : added[next--];
+            }
+            squareFeetCount = total;
+        }
+        
+        private int cityCode(String cityKey) {
+            if (cityKey == null) {
+                return NO_CITY;
+            }
+            Integer code = cityCodes.get(cityKey);
+            if (code == null) {
+                code = cityKeys.size();
+                cityKeys.add(cityKey);
+                cityCodes.put(cityKey, code);
+            }
+            return code;
+        }
+        
+        private int priceBucket(long cents) {
+            // First edge greater than the price; buckets are [edge[i - 1], edge[i])
+            int bucket = Arrays.binarySearch(priceEdgeCents, cents);
+            return bucket >= 0 ? bucket + 1 : -(bucket + 1);
+        }
+        
+        BigDecimal sortedEdge(int index) {
+            return BigDecimal.valueOf(priceEdgeCents[index], 2).stripTrailingZeros();
+        }
+        
+        /**
+         * Square feet in the high half and the (non-negative) id in the low half, so the
+         * keys sort by square feet and then id as plain longs.
+         */
+        private static long squareFeetKey(int squareFeet, int id) {
+            return ((long) squareFeet << 32) | id;
+        }
+        
+        /**
+         * First position whose key is >= the given key.
+         */
+        private static int lowerBound(long[] keys, int count, long key) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+    
+    /**
+     * Values each apartment was indexed under, as parallel primitive arrays sorted by
+     * id. Sequence ids arrive in order, so an insert is normally an append.
+     */
+    private static final class Rows {
+        
+        private static final int INITIAL_CAPACITY = 1024;
+        
+        int[] ids = new int[INITIAL_CAPACITY];
+        int[] cities = new int[INITIAL_CAPACITY];
+        int[] bedrooms = new int[INITIAL_CAPACITY];
+        int[] bathrooms = new int[INITIAL_CAPACITY];
+        byte[] statuses = new byte[INITIAL_CAPACITY];
+        long[] prices = new long[INITIAL_CAPACITY];
+        int[] squareFeet = new int[INITIAL_CAPACITY];
+        int size;
+        
+        int size() {
+            return size;
+        }
+        
+        /**
+         * The row holding the id, or -(insertion point + 1) if there is none.
+         */
+        int find(int id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+        
+        void insert(int row, int id, int city, int bedroomCount, int bathroomCount, byte status, long priceCents, int area) {
+            if (size == ids.length) {
+                grow(size * 2);
+            }
+            move(row, row + 1, size - row);
+            ids[row] = id;
+            cities[row] = city;
+            bedrooms[row] = bedroomCount;
+            bathrooms[row] = bathroomCount;
+            statuses[row] = status;
+            prices[row] = priceCents;
+            squareFeet[row] = area;
+            size++;
+        }
+        
+        void remove(int row) {
+            move(row + 1, row, size - row - 1);
+            size--;
+        }
+        
+        long capacityBytes() {
+            // Five int columns, a byte column and a long column
+            return (long) ids.length * (5 * Integer.BYTES + 1 + Long.BYTES);
+        }
+        
+        private void move(int from, int to, int count) {
+            if (count == 0) {
+                return;
+            }
+            System.arraycopy(ids, from, ids, to, count);
+            System.arraycopy(cities, from, cities, to, count);
+            System.arraycopy(bedrooms, from, bedrooms, to, count);
+            System.arraycopy(bathrooms, from, bathrooms, to, count);
+            System.arraycopy(statuses, from, statuses, to, count);
+            System.arraycopy(prices, from, prices, to, count);
+            System.arraycopy(squareFeet, from, squareFeet, to, count);
+        }
+        
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            cities = Arrays.copyOf(cities, capacity);
+            bedrooms = Arrays.copyOf(bedrooms, capacity);
+            bathrooms = Arrays.copyOf(bathrooms, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            squareFeet = Arrays.copyOf(squareFeet, capacity);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory price index: every apartment's price in cents alongside its id, sorted
+ * by price. Range and price-ordered queries are two binary searches plus a slice of
+ * the id array, and percentiles are a single array lookup.
+ *
+ * Asking-price percentiles only consider AVAILABLE listings, so a separate sorted
+ * array is kept for those, overall and per city. All arrays follow the
+ * {@link ApartmentChangedEvent}s published by ApartmentService's save, update and
+ * delete paths. A rebuild sorts a fresh set of arrays without the lock and swaps it
+ * in, replaying the events that arrived while it was loading.
+ */
+@Component
+public class ApartmentPriceIndex {
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Current generation of the arrays; replaced by rebuilds, patched in place by writes
+    private Prices prices;
+    
+    private final IndexRebuilder rebuilder = new IndexRebuilder(lock, this::applyLocked, this::applyAllLocked);
+    
+    private volatile boolean ready = false;
+    private volatile long lastRebuildMillis = -1;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        // Queries keep reading the previous arrays while the new ones load
+        Prices fresh = rebuilder.run(() -> {
+            Map<Long, Entry> entries = new HashMap<>();
+            IndexRebuilder.forEachApartment(apartmentRepository, apartment -> {
+                if (apartment.getId() != null) {
+                    entries.put(apartment.getId(), new Entry(apartment));
+                }
+            });
+            return Prices.load(entries);
+        }, loaded -> {
+            prices = loaded;
+            ready = true;
+        });
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        System.out.println("Apartment price index rebuilt in " + lastRebuildMillis + " ms: "
+                + fresh.entries.size() + " prices, " + fresh.availableByCity.size() + " cities");
+    }
+    
+    @EventListener
+    public void onApartmentChanged(ApartmentChangedEvent event) {
+        rebuilder.onChange(event);
+    }
+    
+    @EventListener
+    public void onApartmentsChanged(ApartmentBatchChangedEvent event) {
+        rebuilder.onChanges(event.getChanges());
+    }
+    
+    private void applyLocked(ApartmentChangedEvent event) {
+        if (prices == null) {
+            // Not built yet; the startup rebuild will read this row from the database
+            return;
+        }
+        prices.apply(event);
+    }
+    
+    private void applyAllLocked(List<ApartmentChangedEvent> events) {
+        if (prices != null) {
+            prices.applyAll(events);
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Ids of apartments priced within [minPrice, maxPrice] (either bound may be null),
+     * ordered by price then id, for one page. Returns null while the index is building.
+     */
+    public ColumnQueryResult range(BigDecimal minPrice, BigDecimal maxPrice, boolean descending, int offset, int limit) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            SortedPriceArray all = prices.all;
+            int from = minPrice != null ? all.lowerBound(ApartmentColumnStore.toCents(minPrice)) : 0;
+            int to = maxPrice != null ? all.upperBound(ApartmentColumnStore.toCents(maxPrice)) : all.size();
+            int total = Math.max(0, to - from);
+            
+            int skip = Math.min(Math.max(0, offset), total);
+            int count = Math.min(Math.max(0, limit), total - skip);
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                int position = descending ? to - 1 - skip - i : from + skip + i;
+                ids[i] = all.idAt(position);
+            }
+            return new ColumnQueryResult(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Nearest-rank percentile (0-100) of the asking price of available listings,
+     * optionally within one city. Returns null when there is nothing to rank or the
+     * index is still building.
+     */
+    public BigDecimal percentile(String city, double percentile) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            SortedPriceArray ranked = prices.pricesFor(city);
+            if (ranked == null || ranked.size() == 0) {
+                return null;
+            }
+            return BigDecimal.valueOf(ranked.priceAt(rank(ranked.size(), percentile)), 2);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Count, min, quartiles and max of available asking prices, optionally within
+     * one city, read under a single lock so the figures agree with each other.
+     */
+    public Map<String, Object> distribution(String city) {
+        Map<String, Object> distribution = new LinkedHashMap<>();
+        if (!ready) {
+            return distribution;
+        }
+        lock.readLock().lock();
+        try {
+            SortedPriceArray ranked = prices != null ? prices.pricesFor(city) : null;
+            int count = ranked != null ? ranked.size() : 0;
+            distribution.put("city", city);
+            distribution.put("count", count);
+            if (count > 0) {
+                distribution.put("min", BigDecimal.valueOf(ranked.priceAt(0), 2));
+                distribution.put("p25", BigDecimal.valueOf(ranked.priceAt(rank(count, 25)), 2));
+                distribution.put("median", BigDecimal.valueOf(ranked.priceAt(rank(count, 50)), 2));
+                distribution.put("p75", BigDecimal.valueOf(ranked.priceAt(rank(count, 75)), 2));
+                distribution.put("p90", BigDecimal.valueOf(ranked.priceAt(rank(count, 90)), 2));
+                distribution.put("max", BigDecimal.valueOf(ranked.priceAt(count - 1), 2));
+            }
+            return distribution;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Prices p = prices;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("prices", p != null ? p.all.size() : 0);
+            stats.put("availablePrices", p != null ? p.available.size() : 0);
+            stats.put("cities", p != null ? p.availableByCity.size() : 0);
+            stats.put("arrayBytes", p != null ? p.capacityBytes() : 0L);
+            stats.put("lastRebuildMillis", lastRebuildMillis);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static int rank(int count, double percentile) {
+        double clamped = Math.max(0, Math.min(100, percentile));
+        int rank = (int) Math.ceil(clamped / 100.0 * count);
+        return Math.max(0, Math.min(count - 1, rank - 1));
+    }
+    
+    /**
+     * One generation of the sorted arrays and the entries they were built from. Not
+     * thread-safe; the index guards the current generation with its lock.
+     */
+    private static final class Prices {
+        
+        final SortedPriceArray all = new SortedPriceArray();
+        final SortedPriceArray available = new SortedPriceArray();
+        final Map<String, SortedPriceArray> availableByCity = new HashMap<>();
+        
+        // What each id was indexed under, so updates and deletes can find the old entry
+        final Map<Long, Entry> entries;
+        
+        private Prices(Map<Long, Entry> entries) {
+            this.entries = entries;
+        }
+        
+        static Prices load(Map<Long, Entry> entries) {
+            Prices prices = new Prices(entries);
+            
+            // Sort once and bulk-load rather than paying an arraycopy per insert
+            List<Long> allIds = new ArrayList<>(entries.keySet());
+            List<Long> availableIds = new ArrayList<>();
+            Map<String, List<Long>> idsByCity = new HashMap<>();
+            for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+                if (entry.getValue().available) {
+                    availableIds.add(entry.getKey());
+                    if (entry.getValue().cityKey != null) {
+                        idsByCity.computeIfAbsent(entry.getValue().cityKey, key -> new ArrayList<>()).add(entry.getKey());
+                    }
+                }
+            }
+            prices.loadSorted(prices.all, allIds);
+            prices.loadSorted(prices.available, availableIds);
+            for (Map.Entry<String, List<Long>> city : idsByCity.entrySet()) {
+                SortedPriceArray cityPrices = new SortedPriceArray();
+                prices.loadSorted(cityPrices, city.getValue());
+                prices.availableByCity.put(city.getKey(), cityPrices);
+            }
+            return prices;
+        }
+        
+        void apply(ApartmentChangedEvent event) {
+            applyAll(List.of(event));
+        }
+        
+        /**
+         * Apply changes in order. Old entries leave the arrays as they go; new ones are
+         * collected and merged into each array once, so a chunk of imported rows costs
+         * one pass over the arrays rather than a shift per row.
+         */
+        void applyAll(List<ApartmentChangedEvent> events) {
+            Map<Long, Entry> added = new LinkedHashMap<>();
+            for (ApartmentChangedEvent event : events) {
+                Long id = event.getApartmentId();
+                if (id == null) {
+                    continue;
+                }
+                Entry previous = entries.remove(id);
+                // An entry added earlier in this batch has not reached the arrays yet
+                if (previous != null && added.remove(id) == null) {
+                    removeFromArrays(id, previous);
+                }
+                if (!event.isDeleted() && event.getApartment() != null) {
+                    Entry entry = new Entry(event.getApartment());
+                    entries.put(id, entry);
+                    added.put(id, entry);
+                }
+            }
+            if (added.isEmpty()) {
+                return;
+            }
+            
+            List<Long> availableIds = new ArrayList<>();
+            Map<String, List<Long>> availableIdsByCity = new HashMap<>();
+            for (Map.Entry<Long, Entry> entry : added.entrySet()) {
+                if (entry.getValue().available) {
+                    availableIds.add(entry.getKey());
+                    if (entry.getValue().cityKey != null) {
+                        availableIdsByCity.computeIfAbsent(entry.getValue().cityKey, key -> new ArrayList<>()).add(entry.getKey());
+                    }
+                }
+            }
+            insertAll(all, new ArrayList<>(added.keySet()));
+            insertAll(available, availableIds);
+            for (Map.Entry<String, List<Long>> city : availableIdsByCity.entrySet()) {
+                insertAll(availableByCity.computeIfAbsent(city.getKey(), key -> new SortedPriceArray()), city.getValue());
+            }
+        }
+        
+        private void removeFromArrays(Long id, Entry previous) {
+            all.remove(previous.priceCents, id);
+            if (previous.available) {
+                available.remove(previous.priceCents, id);
+                SortedPriceArray cityPrices = previous.cityKey != null ? availableByCity.get(previous.cityKey) : null;
+                if (cityPrices != null) {
+                    cityPrices.remove(previous.priceCents, id);
+                    if (cityPrices.size() == 0) {
+                        availableByCity.remove(previous.cityKey);
+                    }
+                }
+            }
+        }
+        
+        private void insertAll(SortedPriceArray target, List<Long> ids) {
+            long[] prices = new long[ids.size()];
+            long[] idArray = new long[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                idArray[i] = ids.get(i);
+                prices[i] = entries.get(idArray[i]).priceCents;
+            }
+            target.insertAll(prices, idArray, ids.size());
+        }
+        
+        SortedPriceArray pricesFor(String city) {
+            if (city == null || city.isBlank()) {
+                return available;
+            }
+            return availableByCity.get(ApartmentFilter.cityKey(city));
+        }
+        
+        long capacityBytes() {
+            long bytes = all.capacityBytes() + available.capacityBytes();
+            for (SortedPriceArray cityPrices : availableByCity.values()) {
+                bytes += cityPrices.capacityBytes();
+            }
+            return bytes;
+        }
+        
+        private void loadSorted(SortedPriceArray target, List<Long> ids) {
+            ids.sort((a, b) -> {
+                int cmp = Long.compare(entries.get(a).priceCents, entries.get(b).priceCents);
+                return cmp != 0 ? cmp : Long.compare(a, b);
+            });
+            
+            long[] prices = new long[ids.size()];
+            long[] sortedIds = new long[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                sortedIds[i] = ids.get(i);
+                prices[i] = entries.get(sortedIds[i]).priceCents;
+            }
+            target.load(prices, sortedIds, ids.size());
+        }
+    }
+    
+    /**
+     * Values an apartment was indexed under.
+     */
+    private static final class Entry {
+        
+        final long priceCents;
+        final String cityKey;
+        final boolean available;
+        
+        Entry(Apartment apartment) {
+            this.priceCents = apartment.getPrice() != null ? ApartmentColumnStore.toCents(apartment.getPrice()) : 0;
+            this.cityKey = ApartmentFilter.cityKey(apartment.getCity());
+            this.available = apartment.getStatus() == null || apartment.getStatus() == ApartmentStatus.AVAILABLE;
+        }
+    }
+}
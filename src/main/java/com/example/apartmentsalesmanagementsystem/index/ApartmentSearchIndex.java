@@ -0,0 +1,241 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tokenized inverted index over apartment title, city, address and description.
+ * Replaces the LIKE %term% scan with posting-list lookups and a TF-IDF style ranking.
+ * Built once at startup and patched from {@link ApartmentChangedEvent}s.
+ */
+@Component
+public class ApartmentSearchIndex {
+    
+    // Field weights: a hit in the title matters more than one buried in the description
+    private static final int TITLE_WEIGHT = 4;
+    private static final int CITY_WEIGHT = 3;
+    private static final int ADDRESS_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // term -> (apartment id -> weighted term frequency); sorted so prefixes can be range-scanned
+    private NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    
+    // apartment id -> terms it contributed, so updates and deletes can unlink old postings
+    private Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    
+    private final IndexRebuilder rebuilder = new IndexRebuilder(lock, this::applyLocked);
+    
+    private volatile long lastRebuildMillis = -1;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuilder.run(() -> {
+            Generation fresh = new Generation();
+            IndexRebuilder.forEachApartment(apartmentRepository,
+                    apartment -> addDocument(fresh.postings, fresh.documents, apartment));
+            return fresh;
+        }, fresh -> {
+            postings = fresh.postings;
+            documents = fresh.documents;
+        });
+        
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        SearchIndexStats stats = getStats();
+        System.out.println("Apartment search index rebuilt in " + lastRebuildMillis + " ms: "
+                + stats.getDocumentCount() + " documents, " + stats.getTermCount() + " terms, "
+                + stats.getPostingCount() + " postings, ~" + (stats.getApproximateBytes() / 1024) + " KB");
+    }
+    
+    @EventListener
+    public void onApartmentChanged(ApartmentChangedEvent event) {
+        rebuilder.onChange(event);
+    }
+    
+    @EventListener
+    public void onApartmentsChanged(ApartmentBatchChangedEvent event) {
+        rebuilder.onChanges(event.getChanges());
+    }
+    
+    /**
+     * Ranked apartment ids matching every token of the query. The last token is
+     * treated as a prefix so partially typed words still match.
+     */
+    public List<Long> search(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        lock.readLock().lock();
+        try {
+            int totalDocuments = Math.max(documents.size(), 1);
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = i == tokens.size() - 1;
+                Map<Long, Double> tokenScores = scoreToken(tokens.get(i), prefix, totalDocuments);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // AND semantics: keep only documents that matched every token
+                    Map<Long, Double> merged = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        Double other = tokenScores.get(entry.getKey());
+                        if (other != null) {
+                            merged.put(entry.getKey(), entry.getValue() + other);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((a, b) -> {
+                int byScore = Double.compare(b.getValue(), a.getValue());
+                return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+            });
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Double> entry : ranked) {
+                ids.add(entry.getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public SearchIndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            long termChars = 0;
+            for (Map.Entry<String, Map<Long, Integer>> entry : postings.entrySet()) {
+                postingCount += entry.getValue().size();
+                termChars += entry.getKey().length();
+            }
+            // Rough object-graph estimate: tree nodes + strings per term, hash nodes + boxed keys per posting (x2 for the reverse map)
+            long approximateBytes = postings.size() * 120L + termChars * 2 + postingCount * 2 * 64L;
+            return new SearchIndexStats(documents.size(), postings.size(), postingCount, approximateBytes, lastRebuildMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private Map<Long, Double> scoreToken(String token, boolean prefix, int totalDocuments) {
+        Map<String, Map<Long, Integer>> matches = prefix
+                ? postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                : postings.containsKey(token) ? Collections.singletonMap(token, postings.get(token)) : Collections.emptyMap();
+        
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map<Long, Integer> postingList : matches.values()) {
+            double idf = Math.log(1.0 + (double) totalDocuments / postingList.size());
+            for (Map.Entry<Long, Integer> posting : postingList.entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * idf, Double::sum);
+            }
+        }
+        return scores;
+    }
+    
+    private void applyLocked(ApartmentChangedEvent event) {
+        removeDocument(postings, documents, event.getApartmentId());
+        if (!event.isDeleted()) {
+            addDocument(postings, documents, event.getApartment());
+        }
+    }
+    
+    private static void addDocument(NavigableMap<String, Map<Long, Integer>> postings,
+                                    Map<Long, Map<String, Integer>> documents,
+                                    Apartment apartment) {
+        if (apartment == null || apartment.getId() == null) {
+            return;
+        }
+        Map<String, Integer> terms = new HashMap<>();
+        collect(terms, apartment.getTitle(), TITLE_WEIGHT);
+        collect(terms, apartment.getCity(), CITY_WEIGHT);
+        collect(terms, apartment.getAddress(), ADDRESS_WEIGHT);
+        collect(terms, apartment.getDescription(), DESCRIPTION_WEIGHT);
+        
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(apartment.getId(), term.getValue());
+        }
+        documents.put(apartment.getId(), terms);
+    }
+    
+    private static void removeDocument(NavigableMap<String, Map<Long, Integer>> postings,
+                                       Map<Long, Map<String, Integer>> documents,
+                                       Long id) {
+        Map<String, Integer> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(id);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+    
+    private static void collect(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+    
+    /**
+     * A freshly loaded pair of maps, installed together.
+     */
+    private static final class Generation {
+        
+        final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+/**
+ * Ids for one page of an in-memory catalogue query, plus the total number of matches.
+ */
+public class ColumnQueryResult {
+    
+    private final long[] ids;
+    private final long total;
+    
+    public ColumnQueryResult(long[] ids, long total) {
+        this.ids = ids;
+        this.total = total;
+    }
+    
+    public long[] getIds() {
+        return ids;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+}
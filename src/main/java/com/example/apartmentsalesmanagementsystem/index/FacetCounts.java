@@ -0,0 +1,132 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Facet counts for one filter combination. Each dimension is counted with every
+ * other selected filter applied but not its own, so the counts show what picking
+ * a different value in that dimension would return.
+ */
+public class FacetCounts {
+    
+    private final long total;
+    private final List<FacetValue> cities;
+    private final List<FacetValue> bedrooms;
+    private final List<FacetValue> bathrooms;
+    private final List<FacetValue> statuses;
+    private final List<PriceBucket> priceBuckets;
+    
+    public FacetCounts(long total, List<FacetValue> cities, List<FacetValue> bedrooms, List<FacetValue> bathrooms,
+                       List<FacetValue> statuses, List<PriceBucket> priceBuckets) {
+        this.total = total;
+        this.cities = cities;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.statuses = statuses;
+        this.priceBuckets = priceBuckets;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    /** Cities ordered by count, largest first */
+    public List<FacetValue> getCities() {
+        return cities;
+    }
+    
+    /** Cumulative "n+" counts, smallest n first */
+    public List<FacetValue> getBedrooms() {
+        return bedrooms;
+    }
+    
+    /** Cumulative "n+" counts, smallest n first */
+    public List<FacetValue> getBathrooms() {
+        return bathrooms;
+    }
+    
+    public List<FacetValue> getStatuses() {
+        return statuses;
+    }
+    
+    public List<PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+    
+    /**
+     * One selectable value: the request parameter value, a display label and its count.
+     */
+    public static class FacetValue {
+        
+        private final String value;
+        private final String label;
+        private final long count;
+        
+        public FacetValue(String value, String label, long count) {
+            this.value = value;
+            this.label = label;
+            this.count = count;
+        }
+        
+        public String getValue() {
+            return value;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+    }
+    
+    /**
+     * A price range [min, max); a null bound is open.
+     */
+    public static class PriceBucket {
+        
+        private static final BigDecimal ONE_CENT = new BigDecimal("0.01");
+        
+        private final BigDecimal min;
+        private final BigDecimal max;
+        private final long count;
+        
+        public PriceBucket(BigDecimal min, BigDecimal max, long count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+        
+        public BigDecimal getMin() {
+            return min;
+        }
+        
+        public BigDecimal getMax() {
+            return max;
+        }
+        
+        /**
+         * The highest price inside the bucket, for filters whose maximum is inclusive.
+         * Prices are stored to the cent, so that is one cent below the exclusive bound.
+         */
+        public BigDecimal getMaxInclusive() {
+            return max != null ? max.subtract(ONE_CENT) : null;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public String getLabel() {
+            if (min == null) {
+                return "Under $" + max.toPlainString();
+            }
+            if (max == null) {
+                return "$" + min.toPlainString() + "+";
+            }
+            return "$" + min.toPlainString() + " - $" + max.toPlainString();
+        }
+    }
+}
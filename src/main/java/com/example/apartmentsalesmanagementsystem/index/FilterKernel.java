@@ -0,0 +1,44 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Evaluates a {@link ScanPredicate} over the catalogue columns and writes the result
+ * as a bitmap: bit {@code row} of {@code bitmap} is set when that row matches.
+ */
+public interface FilterKernel {
+    
+    /**
+     * Row status value used for tombstoned (deleted) rows; never matches.
+     */
+    byte DELETED = -1;
+    
+    /**
+     * @param bitmap at least {@code (rows + 63) / 64} words; fully overwritten
+     */
+    void scan(Columns columns, int rows, ScanPredicate predicate, long[] bitmap);
+    
+    String name();
+    
+    /**
+     * The column segments a kernel reads. Values are stored in native byte order.
+     */
+    final class Columns {
+        final MemorySegment prices;
+        final MemorySegment bedrooms;
+        final MemorySegment bathrooms;
+        final MemorySegment squareFeet;
+        final MemorySegment cities;
+        final MemorySegment statuses;
+        
+        public Columns(MemorySegment prices, MemorySegment bedrooms, MemorySegment bathrooms,
+                       MemorySegment squareFeet, MemorySegment cities, MemorySegment statuses) {
+            this.prices = prices;
+            this.bedrooms = bedrooms;
+            this.bathrooms = bathrooms;
+            this.squareFeet = squareFeet;
+            this.cities = cities;
+            this.statuses = statuses;
+        }
+    }
+}
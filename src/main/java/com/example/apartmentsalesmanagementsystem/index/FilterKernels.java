@@ -0,0 +1,22 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+/**
+ * Picks the fastest available {@link FilterKernel}. The vector kernel is only
+ * loaded reflectively, so a JVM started without the incubator module falls back
+ * to the scalar kernel instead of failing with NoClassDefFoundError.
+ */
+public final class FilterKernels {
+    
+    private FilterKernels() {}
+    
+    public static FilterKernel best() {
+        try {
+            Class.forName("jdk.incubator.vector.IntVector");
+            return (FilterKernel) Class.forName("com.example.apartmentsalesmanagementsystem.index.VectorFilterKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarFilterKernel();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Rebuild scaffolding shared by the in-memory apartment indexes. A fresh structure
+ * is loaded without the index lock, so readers keep using the previous one; changes
+ * that arrive meanwhile are queued and replayed onto the fresh structure when it is
+ * swapped in under the write lock.
+ */
+final class IndexRebuilder {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private final ReadWriteLock lock;
+    private final Consumer<ApartmentChangedEvent> applier;
+    private final Consumer<List<ApartmentChangedEvent>> batchApplier;
+    
+    // Its monitor also guards the rebuilding flag
+    private final List<ApartmentChangedEvent> pending = new ArrayList<>();
+    private boolean rebuilding = false;
+    
+    /**
+     * @param applier applies one change to the index's current structure; always
+     *                called with the write lock held
+     */
+    IndexRebuilder(ReadWriteLock lock, Consumer<ApartmentChangedEvent> applier) {
+        this(lock, applier, events -> events.forEach(applier));
+    }
+    
+    /**
+     * @param batchApplier applies a list of changes in order, for indexes that can do
+     *                     better than one at a time; also called with the write lock held
+     */
+    IndexRebuilder(ReadWriteLock lock, Consumer<ApartmentChangedEvent> applier,
+                   Consumer<List<ApartmentChangedEvent>> batchApplier) {
+        this.lock = lock;
+        this.applier = applier;
+        this.batchApplier = batchApplier;
+    }
+    
+    /**
+     * Apply a change under the write lock, or queue it while a rebuild is loading.
+     */
+    void onChange(ApartmentChangedEvent event) {
+        synchronized (pending) {
+            if (rebuilding) {
+                pending.add(event);
+                return;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            applier.accept(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Apply changes in order under one write lock, or queue them while a rebuild is loading.
+     */
+    void onChanges(List<ApartmentChangedEvent> events) {
+        synchronized (pending) {
+            if (rebuilding) {
+                pending.addAll(events);
+                return;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            batchApplier.accept(events);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Load a fresh structure, then install it and replay the queued changes under the
+     * write lock. If loading fails the queue is replayed onto the current structure
+     * instead, so the index never stays in rebuilding mode.
+     *
+     * @return the installed structure
+     */
+    <T> T run(Supplier<T> loader, Consumer<T> installer) {
+        synchronized (pending) {
+            rebuilding = true;
+            pending.clear();
+        }
+        T fresh = null;
+        try {
+            fresh = loader.get();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (fresh != null) {
+                    installer.accept(fresh);
+                }
+                replayLocked();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return fresh;
+    }
+    
+    private void replayLocked() {
+        synchronized (pending) {
+            try {
+                if (!pending.isEmpty()) {
+                    batchApplier.accept(pending);
+                }
+            } finally {
+                pending.clear();
+                rebuilding = false;
+            }
+        }
+    }
+    
+    /**
+     * Every apartment in id order, in keyset batches: each batch is an index seek
+     * past the last id seen, where OFFSET pages re-read every skipped row and count
+     * the whole table each time.
+     */
+    static void forEachApartment(ApartmentRepository repository, Consumer<Apartment> action) {
+        long after = 0L;
+        List<Apartment> batch;
+        do {
+            batch = repository.findBatchAfterId(after, PageRequest.of(0, BATCH_SIZE));
+            for (Apartment apartment : batch) {
+                action.accept(apartment);
+            }
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Row-at-a-time reference implementation. Used when the Vector API module is not
+ * available at runtime, and as the baseline in benchmarks.
+ */
+public class ScalarFilterKernel implements FilterKernel {
+    
+    @Override
+    public void scan(Columns columns, int rows, ScanPredicate predicate, long[] bitmap) {
+        int words = (rows + 63) >>> 6;
+        for (int word = 0; word < words; word++) {
+            long bits = 0L;
+            int base = word << 6;
+            int end = Math.min(base + 64, rows);
+            for (int row = base; row < end; row++) {
+                if (matches(columns, row, predicate)) {
+                    bits |= 1L << (row - base);
+                }
+            }
+            bitmap[word] = bits;
+        }
+    }
+    
+    @Override
+    public String name() {
+        return "scalar";
+    }
+    
+    static boolean matches(Columns columns, int row, ScanPredicate predicate) {
+        byte status = columns.statuses.get(ValueLayout.JAVA_BYTE, row);
+        if (status == DELETED || (predicate.status != ScanPredicate.ANY_STATUS && status != predicate.status)) {
+            return false;
+        }
+        if (predicate.city != ScanPredicate.ANY_CITY && columns.cities.getAtIndex(ValueLayout.JAVA_INT, row) != predicate.city) {
+            return false;
+        }
+        long price = columns.prices.getAtIndex(ValueLayout.JAVA_LONG, row);
+        if (price < predicate.minPriceCents || price > predicate.maxPriceCents) {
+            return false;
+        }
+        if (columns.bedrooms.getAtIndex(ValueLayout.JAVA_INT, row) < predicate.minBedrooms
+                || columns.bathrooms.getAtIndex(ValueLayout.JAVA_INT, row) < predicate.minBathrooms) {
+            return false;
+        }
+        int squareFeet = columns.squareFeet.getAtIndex(ValueLayout.JAVA_INT, row);
+        return squareFeet >= predicate.minSquareFeet && squareFeet <= predicate.maxSquareFeet;
+    }
+}
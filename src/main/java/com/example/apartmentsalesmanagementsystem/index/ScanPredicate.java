@@ -0,0 +1,35 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+/**
+ * Primitive form of an apartment filter as evaluated by a {@link FilterKernel}.
+ * Unbounded sides use the type's MIN/MAX value so kernels can skip those columns.
+ */
+public final class ScanPredicate {
+    
+    /** Status code meaning "any live row" */
+    public static final byte ANY_STATUS = -1;
+    
+    /** City code meaning "any city" */
+    public static final int ANY_CITY = -1;
+    
+    final byte status;
+    final int city;
+    final long minPriceCents;
+    final long maxPriceCents;
+    final int minBedrooms;
+    final int minBathrooms;
+    final int minSquareFeet;
+    final int maxSquareFeet;
+    
+    public ScanPredicate(byte status, int city, long minPriceCents, long maxPriceCents,
+                         int minBedrooms, int minBathrooms, int minSquareFeet, int maxSquareFeet) {
+        this.status = status;
+        this.city = city;
+        this.minPriceCents = minPriceCents;
+        this.maxPriceCents = maxPriceCents;
+        this.minBedrooms = minBedrooms;
+        this.minBathrooms = minBathrooms;
+        this.minSquareFeet = minSquareFeet;
+        this.maxSquareFeet = maxSquareFeet;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+/**
+ * Point-in-time size and build figures for the apartment search index.
+ */
+public class SearchIndexStats {
+    
+    private final int documentCount;
+    private final int termCount;
+    private final long postingCount;
+    private final long approximateBytes;
+    private final long lastRebuildMillis;
+    
+    public SearchIndexStats(int documentCount, int termCount, long postingCount, long approximateBytes, long lastRebuildMillis) {
+        this.documentCount = documentCount;
+        this.termCount = termCount;
+        this.postingCount = postingCount;
+        this.approximateBytes = approximateBytes;
+        this.lastRebuildMillis = lastRebuildMillis;
+    }
+    
+    public int getDocumentCount() {
+        return documentCount;
+    }
+    
+    public int getTermCount() {
+        return termCount;
+    }
+    
+    public long getPostingCount() {
+        return postingCount;
+    }
+    
+    public long getApproximateBytes() {
+        return approximateBytes;
+    }
+    
+    public long getLastRebuildMillis() {
+        return lastRebuildMillis;
+    }
+}
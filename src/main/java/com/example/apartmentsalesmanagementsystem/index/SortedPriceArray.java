@@ -0,0 +1,175 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import java.util.Arrays;
+
+/**
+ * Parallel primitive arrays of (price in cents, apartment id), kept sorted by price
+ * and then id. Lookups are binary searches; an insert or delete shifts the tail with
+ * a single arraycopy, and a batch insert merges the whole batch in one pass. Not
+ * thread-safe; {@link ApartmentPriceIndex} guards access.
+ */
+class SortedPriceArray {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+    
+    /**
+     * Replace the contents with already sorted arrays (used by rebuilds).
+     */
+    void load(long[] sortedPrices, long[] sortedIds, int count) {
+        prices = Arrays.copyOf(sortedPrices, Math.max(count, INITIAL_CAPACITY));
+        ids = Arrays.copyOf(sortedIds, Math.max(count, INITIAL_CAPACITY));
+        size = count;
+    }
+    
+    void insert(long price, long id) {
+        int position = search(price, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -(position + 1);
+        if (size == prices.length) {
+            int capacity = prices.length * 2;
+            prices = Arrays.copyOf(prices, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        System.arraycopy(prices, position, prices, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        prices[position] = price;
+        ids[position] = id;
+        size++;
+    }
+    
+    /**
+     * Insert a batch of pairs, in any order, with one pass over the array instead of an
+     * arraycopy per pair: the batch is sorted and then merged in from the back.
+     */
+    void insertAll(long[] batchPrices, long[] batchIds, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(batchPrices[a], batchIds[a], batchPrices[b], batchIds[b]));
+        
+        // Skip pairs already present, within the batch or in the array, as insert() does
+        long[] newPrices = new long[count];
+        long[] newIds = new long[count];
+        int added = 0;
+        for (int i : order) {
+            long price = batchPrices[i];
+            long id = batchIds[i];
+            boolean repeated = added > 0 && newPrices[added - 1] == price && newIds[added - 1] == id;
+            if (!repeated && search(price, id) < 0) {
+                newPrices[added] = price;
+                newIds[added] = id;
+                added++;
+            }
+        }
+        if (added == 0) {
+            return;
+        }
+        if (size + added > prices.length) {
+            int capacity = Math.max(prices.length * 2, size + added);
+            prices = Arrays.copyOf(prices, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        int from = size - 1;
+        int batch = added - 1;
+        for (int to = size + added - 1; batch >= 0; to--) {
+            if (from >= 0 && compare(prices[from], ids[from], newPrices[batch], newIds[batch]) > 0) {
+                prices[to] = prices[from];
+                ids[to] = ids[from];
+                from--;
+            } else {
+                prices[to] = newPrices[batch];
+                ids[to] = newIds[batch];
+                batch--;
+            }
+        }
+        size += added;
+    }
+    
+    void remove(long price, long id) {
+        int position = search(price, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(prices, position + 1, prices, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    long priceAt(int position) {
+        return prices[position];
+    }
+    
+    long idAt(int position) {
+        return ids[position];
+    }
+    
+    /**
+     * First position whose price is >= the given price.
+     */
+    int lowerBound(long price) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * First position whose price is > the given price.
+     */
+    int upperBound(long price) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    long capacityBytes() {
+        return (long) prices.length * Long.BYTES * 2;
+    }
+    
+    private static int compare(long price, long id, long otherPrice, long otherId) {
+        return price != otherPrice ? Long.compare(price, otherPrice) : Long.compare(id, otherId);
+    }
+    
+    private int search(long price, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(prices[mid], ids[mid], price, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
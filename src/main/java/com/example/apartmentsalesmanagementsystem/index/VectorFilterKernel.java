@@ -0,0 +1,133 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * SIMD implementation using the incubating Vector API. Predicates are evaluated one
+ * column at a time with the platform's preferred vector width; each lane mask is
+ * folded straight into the result bitmap. Lane counts are powers of two no larger
+ * than 64, so a vector never straddles two bitmap words; the byte species is capped
+ * at 512 bits for that, since wider hardware (e.g. SVE) would give it more lanes.
+ *
+ * Requires {@code --add-modules jdk.incubator.vector} at compile time and runtime.
+ */
+public class VectorFilterKernel implements FilterKernel {
+    
+    private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class,
+            VectorShape.forBitSize(Math.min(ByteVector.SPECIES_PREFERRED.vectorBitSize(), Long.SIZE * Byte.SIZE)));
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+    
+    @Override
+    public void scan(Columns columns, int rows, ScanPredicate predicate, long[] bitmap) {
+        // The status pass initializes the bitmap; later passes only clear bits
+        scanStatus(columns.statuses, rows, predicate.status, bitmap);
+        
+        if (predicate.city != ScanPredicate.ANY_CITY) {
+            retainIntRange(columns.cities, rows, predicate.city, predicate.city, bitmap);
+        }
+        if (predicate.minPriceCents != Long.MIN_VALUE || predicate.maxPriceCents != Long.MAX_VALUE) {
+            retainLongRange(columns.prices, rows, predicate.minPriceCents, predicate.maxPriceCents, bitmap);
+        }
+        if (predicate.minBedrooms != Integer.MIN_VALUE) {
+            retainIntRange(columns.bedrooms, rows, predicate.minBedrooms, Integer.MAX_VALUE, bitmap);
+        }
+        if (predicate.minBathrooms != Integer.MIN_VALUE) {
+            retainIntRange(columns.bathrooms, rows, predicate.minBathrooms, Integer.MAX_VALUE, bitmap);
+        }
+        if (predicate.minSquareFeet != Integer.MIN_VALUE || predicate.maxSquareFeet != Integer.MAX_VALUE) {
+            retainIntRange(columns.squareFeet, rows, predicate.minSquareFeet, predicate.maxSquareFeet, bitmap);
+        }
+    }
+    
+    @Override
+    public String name() {
+        return "vector(" + INTS.vectorBitSize() + " bit)";
+    }
+    
+    private static void scanStatus(MemorySegment statuses, int rows, byte status, long[] bitmap) {
+        int words = (rows + 63) >>> 6;
+        for (int word = 0; word < words; word++) {
+            bitmap[word] = 0L;
+        }
+        
+        boolean anyStatus = status == ScanPredicate.ANY_STATUS;
+        int bound = BYTES.loopBound(rows);
+        int row = 0;
+        for (; row < bound; row += BYTES.length()) {
+            ByteVector values = ByteVector.fromMemorySegment(BYTES, statuses, row, ORDER);
+            VectorMask<Byte> mask = anyStatus
+                    ? values.compare(VectorOperators.NE, DELETED)
+                    : values.compare(VectorOperators.EQ, status);
+            bitmap[row >>> 6] |= mask.toLong() << (row & 63);
+        }
+        for (; row < rows; row++) {
+            byte value = statuses.get(ValueLayout.JAVA_BYTE, row);
+            if (value != DELETED && (anyStatus || value == status)) {
+                bitmap[row >>> 6] |= 1L << (row & 63);
+            }
+        }
+    }
+    
+    private static void retainIntRange(MemorySegment column, int rows, int min, int max, long[] bitmap) {
+        int lanes = INTS.length();
+        long laneMask = lanes == 64 ? -1L : (1L << lanes) - 1;
+        int bound = INTS.loopBound(rows);
+        int row = 0;
+        for (; row < bound; row += lanes) {
+            int word = row >>> 6;
+            int shift = row & 63;
+            if (((bitmap[word] >>> shift) & laneMask) == 0) {
+                // Every row in this chunk is already rejected
+                continue;
+            }
+            IntVector values = IntVector.fromMemorySegment(INTS, column, (long) row * Integer.BYTES, ORDER);
+            long matched = values.compare(VectorOperators.GE, min)
+                    .and(values.compare(VectorOperators.LE, max))
+                    .toLong();
+            bitmap[word] &= ~((~matched & laneMask) << shift);
+        }
+        for (; row < rows; row++) {
+            int value = column.getAtIndex(ValueLayout.JAVA_INT, row);
+            if (value < min || value > max) {
+                bitmap[row >>> 6] &= ~(1L << (row & 63));
+            }
+        }
+    }
+    
+    private static void retainLongRange(MemorySegment column, int rows, long min, long max, long[] bitmap) {
+        int lanes = LONGS.length();
+        long laneMask = lanes == 64 ? -1L : (1L << lanes) - 1;
+        int bound = LONGS.loopBound(rows);
+        int row = 0;
+        for (; row < bound; row += lanes) {
+            int word = row >>> 6;
+            int shift = row & 63;
+            if (((bitmap[word] >>> shift) & laneMask) == 0) {
+                continue;
+            }
+            LongVector values = LongVector.fromMemorySegment(LONGS, column, (long) row * Long.BYTES, ORDER);
+            long matched = values.compare(VectorOperators.GE, min)
+                    .and(values.compare(VectorOperators.LE, max))
+                    .toLong();
+            bitmap[word] &= ~((~matched & laneMask) << shift);
+        }
+        for (; row < rows; row++) {
+            long value = column.getAtIndex(ValueLayout.JAVA_LONG, row);
+            if (value < min || value > max) {
+                bitmap[row >>> 6] &= ~(1L << (row & 63));
+            }
+        }
+    }
+}
@@ -3,18 +3,23 @@ package com.example.apartmentsalesmanagementsystem.repository;
 import com.example.apartmentsalesmanagementsystem.entity.Apartment;
 import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
 import com.example.apartmentsalesmanagementsystem.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ApartmentRepository extends JpaRepository<Apartment, Long> {
+public interface ApartmentRepository extends JpaRepository<Apartment, Long>, JpaSpecificationExecutor<Apartment> {
     
     List<Apartment> findByStatus(ApartmentStatus status);
     
@@ -37,9 +42,43 @@ public interface ApartmentRepository extends JpaRepository<Apartment, Long> {
     @Query("SELECT a FROM Apartment a WHERE a.status = 'AVAILABLE' ORDER BY a.createdAt DESC")
     Page<Apartment> findAvailableApartments(Pageable pageable);
     
+    // Keyset pagination: seek on (createdAt, id) so every page costs the same as the first
+    @Query("SELECT a FROM Apartment a WHERE a.status = :status ORDER BY a.createdAt DESC, a.id DESC")
+    List<Apartment> findByStatusNewestFirst(@Param("status") ApartmentStatus status, Pageable pageable);
+    
+    @Query("SELECT a FROM Apartment a WHERE a.status = :status " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Apartment> findByStatusAfterCursor(@Param("status") ApartmentStatus status,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
     @Query("SELECT COUNT(a) FROM Apartment a WHERE a.status = :status")
     long countByStatus(@Param("status") ApartmentStatus status);
     
     @Query("SELECT COUNT(a) FROM Apartment a WHERE a.owner = :owner")
     long countByOwner(@Param("owner") User owner);
+    
+    long countByImageUrl(String imageUrl);
+    
+    // The persisted URL, independent of whatever a submitted form carries
+    @Query("SELECT a.imageUrl FROM Apartment a WHERE a.id = :id")
+    String findImageUrlById(@Param("id") Long id);
+    
+    // Keyset batches in id order for full scans; ids are positive, so start after 0
+    @Query("SELECT a FROM Apartment a WHERE a.id > :after ORDER BY a.id")
+    List<Apartment> findBatchAfterId(@Param("after") Long after, Pageable pageable);
+    
+    // Keyset-paged on the URL itself; start with "" to skip null and empty values
+    @Query("SELECT DISTINCT a.imageUrl FROM Apartment a WHERE a.imageUrl > :after ORDER BY a.imageUrl")
+    List<String> findImageUrlsAfter(@Param("after") String after, Pageable pageable);
+    
+    // City and price of the listings created in [from, to), in (city, price) order for per-city medians
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT a.city, a.price FROM Apartment a WHERE a.createdAt >= :from AND a.createdAt < :to ORDER BY a.city, a.price")
+    Stream<Object[]> streamCityPricesCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT MIN(a.createdAt) FROM Apartment a")
+    LocalDateTime findEarliestCreatedAt();
 }
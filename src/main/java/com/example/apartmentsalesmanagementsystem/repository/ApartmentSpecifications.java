@@ -0,0 +1,55 @@
+package com.example.apartmentsalesmanagementsystem.repository;
+
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a single WHERE clause from an {@link ApartmentFilter}.
+ * Predicates are ordered to match the composite indexes on the apartments table
+ * (status, city, price, bedrooms) so the database can seek instead of scan.
+ * City is compared on {@link ApartmentFilter#cityKey} like the in-memory indexes,
+ * so it is checked after the status seek rather than seeking itself.
+ */
+public final class ApartmentSpecifications {
+    
+    private ApartmentSpecifications() {}
+    
+    public static Specification<Apartment> matching(ApartmentFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            String cityKey = ApartmentFilter.cityKey(filter.getCity());
+            if (cityKey != null) {
+                predicates.add(cb.equal(cb.lower(cb.trim(root.get("city"))), cityKey));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            if (filter.getMinBedrooms() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("bedrooms"), filter.getMinBedrooms()));
+            }
+            if (filter.getMinBathrooms() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("bathrooms"), filter.getMinBathrooms()));
+            }
+            if (filter.getMinSquareFeet() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("squareFeet"), filter.getMinSquareFeet()));
+            }
+            if (filter.getMaxSquareFeet() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("squareFeet"), filter.getMaxSquareFeet()));
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.apartmentsalesmanagementsystem.repository;
+
+import com.example.apartmentsalesmanagementsystem.dto.StatusTransitionCount;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatusChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ApartmentStatusChangeRepository extends JpaRepository<ApartmentStatusChange, Long> {
+    
+    @Query("SELECT new com.example.apartmentsalesmanagementsystem.dto.StatusTransitionCount(c.fromStatus, c.toStatus, COUNT(c)) " +
+           "FROM ApartmentStatusChange c WHERE c.changedAt >= :from AND c.changedAt < :to " +
+           "GROUP BY c.fromStatus, c.toStatus")
+    List<StatusTransitionCount> countTransitionsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // [ownerId, changes, price sum] per owner for changes into the given status
+    @Query("SELECT c.ownerId, COUNT(c), SUM(c.price) FROM ApartmentStatusChange c " +
+           "WHERE c.toStatus = :status AND c.changedAt >= :from AND c.changedAt < :to AND c.ownerId IS NOT NULL " +
+           "GROUP BY c.ownerId")
+    List<Object[]> sumByOwnerBetween(@Param("status") ApartmentStatus status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+    
+    @Query("SELECT MIN(c.changedAt) FROM ApartmentStatusChange c")
+    LocalDateTime findEarliestChange();
+}
@@ -0,0 +1,25 @@
+package com.example.apartmentsalesmanagementsystem.repository;
+
+import com.example.apartmentsalesmanagementsystem.entity.DailyActivityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyActivityRollupRepository extends JpaRepository<DailyActivityRollup, Long> {
+    
+    // Latest rolled-up day: the rollup job's watermark
+    Optional<DailyActivityRollup> findTopByOrderByDayDesc();
+    
+    List<DailyActivityRollup> findByDayBetweenOrderByDay(LocalDate from, LocalDate to);
+    
+    @Modifying
+    @Query("DELETE FROM DailyActivityRollup r WHERE r.day = :day")
+    int deleteByDay(@Param("day") LocalDate day);
+}
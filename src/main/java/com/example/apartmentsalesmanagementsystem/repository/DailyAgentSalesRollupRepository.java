@@ -0,0 +1,26 @@
+package com.example.apartmentsalesmanagementsystem.repository;
+
+import com.example.apartmentsalesmanagementsystem.dto.AgentSalesVolume;
+import com.example.apartmentsalesmanagementsystem.entity.DailyAgentSalesRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyAgentSalesRollupRepository extends JpaRepository<DailyAgentSalesRollup, Long> {
+    
+    @Query("SELECT new com.example.apartmentsalesmanagementsystem.dto.AgentSalesVolume(u.id, u.username, u.firstName, u.lastName, SUM(r.sold), SUM(r.volume)) " +
+           "FROM DailyAgentSalesRollup r JOIN User u ON u.id = r.ownerId WHERE r.day BETWEEN :from AND :to " +
+           "GROUP BY u.id, u.username, u.firstName, u.lastName ORDER BY SUM(r.volume) DESC")
+    List<AgentSalesVolume> sumByOwnerBetween(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM DailyAgentSalesRollup r WHERE r.day = :day")
+    int deleteByDay(@Param("day") LocalDate day);
+}
@@ -0,0 +1,28 @@
+package com.example.apartmentsalesmanagementsystem.repository;
+
+import com.example.apartmentsalesmanagementsystem.dto.CityPriceTotal;
+import com.example.apartmentsalesmanagementsystem.entity.DailyCityPriceRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyCityPriceRollupRepository extends JpaRepository<DailyCityPriceRollup, Long> {
+    
+    List<DailyCityPriceRollup> findByDayBetweenOrderByDayAscCityAsc(LocalDate from, LocalDate to);
+    
+    @Query("SELECT new com.example.apartmentsalesmanagementsystem.dto.CityPriceTotal(r.city, SUM(r.listings), SUM(r.priceSum)) " +
+           "FROM DailyCityPriceRollup r WHERE r.day BETWEEN :from AND :to " +
+           "GROUP BY r.city ORDER BY SUM(r.listings) DESC, r.city")
+    List<CityPriceTotal> sumByCityBetween(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM DailyCityPriceRollup r WHERE r.day = :day")
+    int deleteByDay(@Param("day") LocalDate day);
+}
@@ -0,0 +1,21 @@
+package com.example.apartmentsalesmanagementsystem.repository;
+
+import com.example.apartmentsalesmanagementsystem.entity.DailyStatusTransitionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStatusTransitionRollupRepository extends JpaRepository<DailyStatusTransitionRollup, Long> {
+    
+    List<DailyStatusTransitionRollup> findByDayBetweenOrderByDay(LocalDate from, LocalDate to);
+    
+    @Modifying
+    @Query("DELETE FROM DailyStatusTransitionRollup r WHERE r.day = :day")
+    int deleteByDay(@Param("day") LocalDate day);
+}
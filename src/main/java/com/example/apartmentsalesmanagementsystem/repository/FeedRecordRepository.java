@@ -0,0 +1,23 @@
+package com.example.apartmentsalesmanagementsystem.repository;
+
+import com.example.apartmentsalesmanagementsystem.entity.FeedRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FeedRecordRepository extends JpaRepository<FeedRecord, Long> {
+    
+    List<FeedRecord> findBySourceAndExternalIdIn(String source, Collection<String> externalIds);
+    
+    // Keyset-paged walk over one source's records
+    @Query("SELECT r FROM FeedRecord r WHERE r.source = :source AND r.id > :after ORDER BY r.id")
+    List<FeedRecord> findBySourceAfter(@Param("source") String source, @Param("after") long after, Pageable pageable);
+    
+    long countBySource(String source);
+}
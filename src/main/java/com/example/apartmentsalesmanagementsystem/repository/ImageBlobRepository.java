@@ -0,0 +1,44 @@
+package com.example.apartmentsalesmanagementsystem.repository;
+
+import com.example.apartmentsalesmanagementsystem.entity.ImageBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+    
+    Optional<ImageBlob> findByUrl(String url);
+    
+    // Counts are adjusted in the database so concurrent writers never lose an update
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImageBlob b SET b.referenceCount = b.referenceCount + 1 WHERE b.url = :url")
+    int incrementReferences(@Param("url") String url);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImageBlob b SET b.referenceCount = b.referenceCount - 1 WHERE b.url = :url AND b.referenceCount > 0")
+    int decrementReferences(@Param("url") String url);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ImageBlob b WHERE b.url = :url AND b.referenceCount <= 0")
+    int deleteUnreferenced(@Param("url") String url);
+    
+    @Query("SELECT b.url FROM ImageBlob b WHERE b.referenceCount > 0 AND b.url > :after ORDER BY b.url")
+    List<String> findReferencedUrlsAfter(@Param("after") String after, Pageable pageable);
+    
+    @Query("SELECT COALESCE(SUM(b.size), 0) FROM ImageBlob b")
+    long sumSize();
+    
+    @Query("SELECT COALESCE(SUM(b.referenceCount), 0) FROM ImageBlob b")
+    long sumReferences();
+}
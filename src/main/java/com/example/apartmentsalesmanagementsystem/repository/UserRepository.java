@@ -1,13 +1,19 @@
 package com.example.apartmentsalesmanagementsystem.repository;
 
+import com.example.apartmentsalesmanagementsystem.dto.AgentSummary;
+import com.example.apartmentsalesmanagementsystem.dto.ManagementRoleCount;
+import com.example.apartmentsalesmanagementsystem.dto.UserCountBucket;
 import com.example.apartmentsalesmanagementsystem.entity.User;
 import com.example.apartmentsalesmanagementsystem.entity.UserRole;
 import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,8 +38,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(@Param("role") UserRole role);
     
+    long countByIsActive(boolean isActive);
+    
+    @Query("SELECT new com.example.apartmentsalesmanagementsystem.dto.UserCountBucket(u.role, u.isActive, COUNT(u)) " +
+           "FROM User u GROUP BY u.role, u.isActive")
+    List<UserCountBucket> countGroupedByRoleAndActive();
+    
+    @Query("SELECT new com.example.apartmentsalesmanagementsystem.dto.ManagementRoleCount(r, COUNT(u)) " +
+           "FROM User u JOIN u.managementRoles r GROUP BY r")
+    List<ManagementRoleCount> countGroupedByManagementRole();
+    
     @Query("SELECT u FROM User u WHERE u.firstName LIKE %:searchTerm% OR u.lastName LIKE %:searchTerm% OR u.email LIKE %:searchTerm%")
     List<User> searchUsers(@Param("searchTerm") String searchTerm);
     
-    List<User> findByManagementRolesContaining(ManagementRole managementRole);
+    @Query("SELECT u FROM User u WHERE :managementRole MEMBER OF u.managementRoles")
+    List<User> findByManagementRolesContaining(@Param("managementRole") ManagementRole managementRole);
+    
+    @Query("SELECT COUNT(u) FROM User u WHERE :managementRole MEMBER OF u.managementRoles")
+    long countByManagementRolesContaining(@Param("managementRole") ManagementRole managementRole);
+    
+    @Query(value = "SELECT new com.example.apartmentsalesmanagementsystem.dto.AgentSummary(" +
+                   "u.id, u.username, u.firstName, u.lastName, u.email, u.phoneNumber, u.role, u.isActive, u.createdAt) " +
+                   "FROM User u WHERE :managementRole MEMBER OF u.managementRoles",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE :managementRole MEMBER OF u.managementRoles")
+    Page<AgentSummary> findSummariesByManagementRole(@Param("managementRole") ManagementRole managementRole, Pageable pageable);
+    
+    @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt >= :from AND u.createdAt < :to")
+    long countCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT MIN(u.createdAt) FROM User u")
+    LocalDateTime findEarliestCreatedAt();
 }
@@ -0,0 +1,158 @@
+package com.example.apartmentsalesmanagementsystem.security;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BCrypt encoder that runs every hash and verification on a small dedicated pool.
+ * Registration spikes can then only occupy that many cores; once the queue is full
+ * further requests are shed with {@link PasswordHashingOverloadedException} instead
+ * of stalling all Tomcat threads.
+ *
+ * The BCrypt work factor is calibrated once at startup: the highest strength whose
+ * measured hash time stays within the target latency.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+    
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMillis;
+    
+    private final LatencyHistogram encodeLatency = new LatencyHistogram();
+    private final LatencyHistogram matchLatency = new LatencyHistogram();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    
+    public BoundedPasswordEncoder(int threads, int queueCapacity, long waitTimeoutMillis,
+                                  long targetLatencyMillis, int minStrength, int maxStrength) {
+        this.strength = calibrate(targetLatencyMillis, minStrength, maxStrength);
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        System.out.println("Password hashing: BCrypt strength " + strength + ", " + threads
+                + " threads, queue capacity " + queueCapacity);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeLatency);
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchLatency);
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    public int getStrength() {
+        return strength;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("strength", strength);
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueRemainingCapacity", executor.getQueue().remainingCapacity());
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("encode", encodeLatency.snapshot());
+        stats.put("matches", matchLatency.snapshot());
+        stats.put("queueWait", queueWait.snapshot());
+        return stats;
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    private <T> T submit(Callable<T> work, LatencyHistogram latency) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt);
+                try {
+                    return work.call();
+                } finally {
+                    latency.record(System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHashingOverloadedException("Server is busy, please try again in a moment", e);
+        }
+        
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.incrementAndGet();
+            throw new PasswordHashingOverloadedException("Server is busy, please try again in a moment", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingOverloadedException("Password hashing was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+    
+    /**
+     * Pick the highest BCrypt strength within [minStrength, maxStrength] whose hash time
+     * on this machine stays under the target. Each step doubles the cost, so the loop
+     * stops as soon as one strength overshoots.
+     */
+    private static int calibrate(long targetLatencyMillis, int minStrength, int maxStrength) {
+        int chosen = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            BCryptPasswordEncoder probe = new BCryptPasswordEncoder(candidate);
+            probe.encode("calibration-warmup");
+            long start = System.nanoTime();
+            probe.encode("calibration-probe");
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (elapsedMillis > targetLatencyMillis) {
+                break;
+            }
+            chosen = candidate;
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.apartmentsalesmanagementsystem.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed millisecond bucket bounds.
+ */
+public class LatencyHistogram {
+    
+    private static final long[] BUCKET_BOUNDS_MS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int bucket = BUCKET_BOUNDS_MS.length;
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (millis <= BUCKET_BOUNDS_MS[i]) {
+                bucket = i;
+                break;
+            }
+        }
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long n = count.get();
+        result.put("count", n);
+        result.put("meanMs", n == 0 ? 0.0 : totalNanos.get() / 1_000_000.0 / n);
+        result.put("maxMs", maxNanos.get() / 1_000_000.0);
+        
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            histogram.put("le_" + BUCKET_BOUNDS_MS[i] + "ms", buckets.get(i));
+        }
+        histogram.put("gt_" + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + "ms", buckets.get(BUCKET_BOUNDS_MS.length));
+        result.put("buckets", histogram);
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.apartmentsalesmanagementsystem.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the password hashing pool is saturated and the request is shed
+ * rather than queued indefinitely. An authentication exception, so a shed form
+ * login goes to the failure handler (see SecurityConfig) instead of a 500 page.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingOverloadedException extends AuthenticationServiceException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+    
+    public PasswordHashingOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
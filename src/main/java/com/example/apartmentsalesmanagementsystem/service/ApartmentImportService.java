@@ -0,0 +1,176 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.dto.ImportReport;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.User;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk apartment import from CSV (with a header row) or newline-delimited JSON.
+ *
+ * Input is parsed one row at a time and validated against the bean-validation
+ * constraints on {@link Apartment}. Valid rows are persisted in chunks of
+ * {@code app.import.batch-size}, one transaction per chunk, so Hibernate sends them
+ * as JDBC insert batches using ids drawn from the pooled apartment sequence. The
+ * persistence context is cleared after every chunk, keeping memory flat however
+ * large the file. If a chunk is rejected by the database its rows are retried one
+ * by one so the report can name the failing rows. Each committed chunk is announced
+ * as one {@link ApartmentBatchChangedEvent}, so the indexes take their locks once
+ * per chunk rather than once per row.
+ */
+@Service
+public class ApartmentImportService {
+    
+    public enum Format {
+        CSV,
+        NDJSON;
+        
+        /**
+         * Format for a file name or content type; CSV unless it looks like JSON.
+         */
+        public static Format detect(String fileNameOrContentType) {
+            String value = fileNameOrContentType == null ? "" : fileNameOrContentType.toLowerCase(Locale.ROOT);
+            return value.contains("json") ? NDJSON : CSV;
+        }
+    }
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.import.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+    
+    public ApartmentImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Import every row of the stream, assigning the given owner (may be null).
+     * The stream is read to the end but not closed.
+     */
+    public ImportReport importApartments(InputStream input, Format format, User owner) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport(maxErrors);
+        List<PendingRow> chunk = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        
+        ApartmentRecords.RowSource rows = ApartmentRecords.open(reader, format, objectMapper);
+        Map<String, String> fields;
+        while ((fields = rows.next()) != null) {
+            report.rowRead();
+            long line = rows.line();
+            Apartment apartment;
+            try {
+                apartment = ApartmentRecords.toApartment(fields);
+            } catch (IllegalArgumentException e) {
+                report.rowFailed(line, e.getMessage());
+                continue;
+            }
+            Set<ConstraintViolation<Apartment>> violations = validator.validate(apartment);
+            if (!violations.isEmpty()) {
+                report.rowFailed(line, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            apartment.setOwner(owner);
+            chunk.add(new PendingRow(line, apartment));
+            if (chunk.size() >= batchSize) {
+                flush(chunk, report);
+            }
+        }
+        flush(chunk, report);
+        
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        System.out.println("Apartment import: " + report.getSummary());
+        return report;
+    }
+    
+    private void flush(List<PendingRow> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            persist(chunk);
+            report.rowsImported(chunk.size());
+        } catch (RuntimeException e) {
+            // Find the offending rows; the rest still go in
+            for (PendingRow row : chunk) {
+                row.apartment.setId(null);
+                try {
+                    persist(List.of(row));
+                    report.rowsImported(1);
+                } catch (RuntimeException rowError) {
+                    row.apartment.setId(null);
+                    report.rowFailed(row.line, ApartmentRecords.rootMessage(rowError));
+                }
+            }
+        }
+        chunk.clear();
+    }
+    
+    private void persist(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PendingRow row : rows) {
+                entityManager.persist(row.apartment);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        List<ApartmentChangedEvent> changes = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            changes.add(ApartmentChangedEvent.saved(row.apartment));
+        }
+        eventPublisher.publishEvent(new ApartmentBatchChangedEvent(changes));
+    }
+    
+    private static final class PendingRow {
+        
+        private final long line;
+        private final Apartment apartment;
+        
+        PendingRow(long line, Apartment apartment) {
+            this.line = line;
+            this.apartment = apartment;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming parsing of apartment records (CSV with a header row, or NDJSON) shared by
+ * ApartmentImportService and FeedSyncService. Rows come back as field maps keyed by
+ * normalized name and are turned into detached {@link Apartment}s on demand.
+ */
+class ApartmentRecords {
+    
+    // Never produced by normalizeKey, which strips underscores
+    private static final String PARSE_ERROR = "__error";
+    
+    /**
+     * Parsed rows as field maps keyed by normalized name.
+     */
+    interface RowSource {
+        
+        /**
+         * Next row, or null at end of input.
+         */
+        Map<String, String> next() throws IOException;
+        
+        /**
+         * Line on which the row last returned by {@link #next()} started.
+         */
+        long line();
+    }
+    
+    private ApartmentRecords() {
+    }
+    
+    static RowSource open(BufferedReader reader, ApartmentImportService.Format format, ObjectMapper objectMapper) throws IOException {
+        return format == ApartmentImportService.Format.NDJSON ? ndjsonRows(reader, objectMapper) : csvRows(reader);
+    }
+    
+    /**
+     * Build an unsaved apartment from a row. Throws IllegalArgumentException naming
+     * the field when a value cannot be parsed; bean validation is left to the caller.
+     */
+    static Apartment toApartment(Map<String, String> fields) {
+        if (fields.containsKey(PARSE_ERROR)) {
+            throw new IllegalArgumentException(fields.get(PARSE_ERROR));
+        }
+        Apartment apartment = new Apartment();
+        apartment.setTitle(fields.get("title"));
+        apartment.setDescription(fields.get("description"));
+        apartment.setAddress(fields.get("address"));
+        apartment.setCity(fields.get("city"));
+        apartment.setState(fields.get("state"));
+        apartment.setZipCode(fields.get("zipcode"));
+        apartment.setPrice(decimal(fields, "price"));
+        apartment.setBedrooms(integer(fields, "bedrooms"));
+        apartment.setBathrooms(integer(fields, "bathrooms"));
+        apartment.setSquareFeet(integer(fields, "squarefeet"));
+        String status = fields.get("status");
+        if (status != null && !status.isBlank()) {
+            try {
+                apartment.setStatus(ApartmentStatus.valueOf(status.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("status: unknown value '" + status + "'");
+            }
+        }
+        String imageUrl = fields.get("imageurl");
+        if (imageUrl != null && !imageUrl.isBlank()) {
+            // Uploaded files are reference counted; records may only link external images
+            if (!imageUrl.startsWith("http://") && !imageUrl.startsWith("https://")) {
+                throw new IllegalArgumentException("imageUrl: must be an http(s) URL");
+            }
+            apartment.setImageUrl(imageUrl.trim());
+        }
+        return apartment;
+    }
+    
+    /**
+     * Copy every field a record can carry onto an existing apartment. A record
+     * without an image keeps the apartment's current one, which may be an upload the
+     * record cannot refer to; the caller releases any image the record replaces.
+     */
+    static void copyListingFields(Apartment from, Apartment to) {
+        to.setTitle(from.getTitle());
+        to.setDescription(from.getDescription());
+        to.setAddress(from.getAddress());
+        to.setCity(from.getCity());
+        to.setState(from.getState());
+        to.setZipCode(from.getZipCode());
+        to.setPrice(from.getPrice());
+        to.setBedrooms(from.getBedrooms());
+        to.setBathrooms(from.getBathrooms());
+        to.setSquareFeet(from.getSquareFeet());
+        to.setStatus(from.getStatus());
+        if (from.getImageUrl() != null) {
+            to.setImageUrl(from.getImageUrl());
+        }
+    }
+    
+    static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+    
+    /**
+     * Header and JSON keys are matched ignoring case, spaces, dashes and underscores,
+     * so "zip_code", "Zip Code" and "zipCode" all name the same field.
+     */
+    static String normalizeKey(String key) {
+        return key.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    private static BigDecimal decimal(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + ": not a number '" + value + "'");
+        }
+    }
+    
+    private static Integer integer(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + ": not a whole number '" + value + "'");
+        }
+    }
+    
+    private static RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return new RowSource() {
+                @Override
+                public Map<String, String> next() {
+                    return null;
+                }
+                
+                @Override
+                public long line() {
+                    return 0;
+                }
+            };
+        }
+        List<String> keys = header.stream().map(name -> normalizeKey(name.replace("\uFEFF", ""))).toList();
+        return new RowSource() {
+            @Override
+            public Map<String, String> next() throws IOException {
+                List<String> values = csv.next();
+                if (values == null) {
+                    return null;
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < Math.min(keys.size(), values.size()); i++) {
+                    fields.put(keys.get(i), values.get(i));
+                }
+                return fields;
+            }
+            
+            @Override
+            public long line() {
+                return csv.getRecordLine();
+            }
+        };
+    }
+    
+    private static RowSource ndjsonRows(BufferedReader reader, ObjectMapper objectMapper) {
+        return new RowSource() {
+            private long line;
+            
+            @Override
+            public Map<String, String> next() throws IOException {
+                String text;
+                do {
+                    text = reader.readLine();
+                    line++;
+                } while (text != null && text.isBlank());
+                if (text == null) {
+                    return null;
+                }
+                Map<String, String> fields = new HashMap<>();
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (JsonProcessingException e) {
+                    fields.put(PARSE_ERROR, "invalid JSON: " + e.getOriginalMessage());
+                    return fields;
+                }
+                if (node != null && node.isObject()) {
+                    for (Map.Entry<String, JsonNode> entry : node.properties()) {
+                        if (!entry.getValue().isNull()) {
+                            fields.put(normalizeKey(entry.getKey()), entry.getValue().asText());
+                        }
+                    }
+                } else {
+                    fields.put(PARSE_ERROR, "expected a JSON object");
+                }
+                return fields;
+            }
+            
+            @Override
+            public long line() {
+                return line;
+            }
+        };
+    }
+}
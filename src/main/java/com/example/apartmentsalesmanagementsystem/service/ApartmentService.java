@@ -1,35 +1,85 @@
 package com.example.apartmentsalesmanagementsystem.service;
 
+import com.example.apartmentsalesmanagementsystem.cache.RecentListingsCache;
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentCursor;
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentSlice;
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentSummary;
 import com.example.apartmentsalesmanagementsystem.entity.Apartment;
 import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
 import com.example.apartmentsalesmanagementsystem.entity.User;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentColumnStore;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentFacetIndex;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentPriceIndex;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentSearchIndex;
+import com.example.apartmentsalesmanagementsystem.index.ColumnQueryResult;
+import com.example.apartmentsalesmanagementsystem.index.FacetCounts;
 import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import java.util.Optional;
 
 @Service
 public class ApartmentService {
     
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    // Deepest result reachable by paging; the in-memory indexes keep offset + size rows per query
+    public static final int MAX_RESULT_WINDOW = 10_000;
+    
     @Autowired
     private ApartmentRepository apartmentRepository;
     
     @Autowired
     private ImageStorageService imageStorageService;
     
+    @Autowired
+    private ApartmentSearchIndex searchIndex;
+    
+    @Autowired
+    private RecentListingsCache recentListingsCache;
+    
+    @Autowired
+    private ApartmentColumnStore columnStore;
+    
+    @Autowired
+    private ApartmentFacetIndex facetIndex;
+    
+    @Autowired
+    private ApartmentPriceIndex priceIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public Apartment saveApartment(Apartment apartment) {
-        return apartmentRepository.save(apartment);
+        return saveTrackingImage(apartment, false);
     }
     
     public Apartment updateApartment(Apartment apartment) {
-        return apartmentRepository.save(apartment);
+        return saveTrackingImage(apartment, false);
     }
     
     public Optional<Apartment> findById(Long id) {
@@ -48,6 +98,39 @@ public class ApartmentService {
         return apartmentRepository.findAvailableApartments(pageable);
     }
     
+    /**
+     * Keyset-paginated listing of available apartments, newest first.
+     * Pass the nextCursor of the previous slice to continue; null starts from the top.
+     */
+    public ApartmentSlice findAvailableApartments(String cursor, int size) {
+        return findApartmentsByStatus(ApartmentStatus.AVAILABLE, cursor, size);
+    }
+    
+    public ApartmentSlice findApartmentsByStatus(ApartmentStatus status, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        ApartmentCursor position = ApartmentCursor.decode(cursor);
+        List<Apartment> rows = position == null
+                ? apartmentRepository.findByStatusNewestFirst(status, limit)
+                : apartmentRepository.findByStatusAfterCursor(status, position.getCreatedAt(), position.getId(), limit);
+        
+        if (rows.size() <= pageSize) {
+            return new ApartmentSlice(rows, null);
+        }
+        List<Apartment> content = rows.subList(0, pageSize);
+        Apartment last = content.get(pageSize - 1);
+        return new ApartmentSlice(content, new ApartmentCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+    
+    /**
+     * Newest available listings (at most RecentListingsCache.CAPACITY), served from cache
+     */
+    public List<ApartmentSummary> findRecentAvailableApartments(int limit) {
+        return recentListingsCache.getRecent(limit);
+    }
+    
     public List<Apartment> findApartmentsByOwner(User owner) {
         return apartmentRepository.findByOwner(owner);
     }
@@ -56,8 +139,40 @@ public class ApartmentService {
         return apartmentRepository.findByOwnerAndStatus(owner, status);
     }
     
-    public List<Apartment> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return apartmentRepository.findByPriceRange(minPrice, maxPrice);
+    /**
+     * One page of apartments priced within [minPrice, maxPrice] (either bound may be
+     * null), ordered by price. Served from the in-memory price index; the database is
+     * only asked for the page's rows.
+     */
+    public Page<Apartment> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, boolean descending, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable pageable = boundedPage(page, pageSize, resolveSort(descending ? "price_desc" : "price_asc"));
+        
+        ColumnQueryResult result = priceIndex.range(minPrice, maxPrice, descending, (int) pageable.getOffset(), pageSize);
+        if (result != null) {
+            List<Long> pageIds = new ArrayList<>(result.getIds().length);
+            for (long id : result.getIds()) {
+                pageIds.add(id);
+            }
+            return new PageImpl<>(findAllByIdInOrder(pageIds), pageable, result.getTotal());
+        }
+        ApartmentFilter filter = new ApartmentFilter();
+        filter.setStatus(null);
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+        return apartmentRepository.findAll(ApartmentSpecifications.matching(filter), pageable);
+    }
+    
+    /**
+     * Nearest-rank percentile of the asking price of available listings, optionally
+     * within one city; null when there are none or the price index is still building.
+     */
+    public BigDecimal getAskingPricePercentile(String city, double percentile) {
+        return priceIndex.percentile(city, percentile);
+    }
+    
+    public Map<String, Object> getAskingPriceDistribution(String city) {
+        return priceIndex.distribution(city);
     }
     
     public List<Apartment> findByCity(String city) {
@@ -68,12 +183,96 @@ public class ApartmentService {
         return apartmentRepository.findByMinBedrooms(minBedrooms);
     }
     
-    public List<Apartment> searchApartments(String searchTerm) {
-        return apartmentRepository.searchApartments(searchTerm);
+    /**
+     * Combined filter, sort and paging. Answered from the off-heap column store when it
+     * is built, so only the page itself is read from the database; otherwise pushed
+     * down into one SQL statement.
+     * Sort keys: "newest" (default), "price_asc", "price_desc", "bedrooms".
+     */
+    public Page<Apartment> filterApartments(ApartmentFilter filter, String sort, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable pageable = boundedPage(page, pageSize, resolveSort(sort));
+        
+        ColumnQueryResult result = columnStore.query(filter, ApartmentColumnStore.sortMode(sort), (int) pageable.getOffset(), pageSize);
+        if (result != null) {
+            List<Long> pageIds = new ArrayList<>(result.getIds().length);
+            for (long id : result.getIds()) {
+                pageIds.add(id);
+            }
+            return new PageImpl<>(findAllByIdInOrder(pageIds), pageable, result.getTotal());
+        }
+        return apartmentRepository.findAll(ApartmentSpecifications.matching(filter), pageable);
+    }
+    
+    /**
+     * Facet counts (city, bedrooms, bathrooms, status, price bucket) for the filter,
+     * or null while the facet index is still building.
+     */
+    public FacetCounts getFacetCounts(ApartmentFilter filter) {
+        return facetIndex.counts(filter);
+    }
+    
+    /**
+     * Page request for the offset-paged queries, rejecting pages past MAX_RESULT_WINDOW
+     * so a request cannot size the top-k buffers or overflow the int offset.
+     */
+    private static Pageable boundedPage(int page, int pageSize, Sort sort) {
+        int pageNumber = Math.max(page, 0);
+        if ((long) pageNumber * pageSize + pageSize > MAX_RESULT_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Only the first " + MAX_RESULT_WINDOW + " results can be paged through; narrow the search");
+        }
+        return PageRequest.of(pageNumber, pageSize, sort);
+    }
+    
+    private Sort resolveSort(String sort) {
+        if (sort == null) {
+            return Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        }
+        switch (sort) {
+            case "price_asc":
+                return Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+            case "price_desc":
+                return Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"));
+            case "bedrooms":
+                return Sort.by(Sort.Order.desc("bedrooms"), Sort.Order.asc("price"), Sort.Order.asc("id"));
+            default:
+                return Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        }
+    }
+    
+    /**
+     * Ranked full-text search served from the in-memory index; only the
+     * requested page of ids is loaded from the database.
+     */
+    public Page<Apartment> searchApartments(String searchTerm, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable pageable = boundedPage(page, pageSize, Sort.unsorted());
+        
+        List<Long> rankedIds = searchIndex.search(searchTerm);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageSize, rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, to);
+        return new PageImpl<>(findAllByIdInOrder(pageIds), pageable, rankedIds.size());
+    }
+    
+    /**
+     * Load apartments by id, returned in the order of the given ids.
+     * findAllById does not preserve order, so the ranking is restored afterwards.
+     */
+    private List<Apartment> findAllByIdInOrder(List<Long> ids) {
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return apartmentRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(apartment -> rank.get(apartment.getId())))
+                .collect(Collectors.toList());
     }
     
     public void deleteApartment(Long id) {
-        apartmentRepository.deleteById(id);
+        // Same as deleteApartmentWithImage: an image reference must not outlive its apartment
+        deleteApartmentWithImage(id);
     }
     
     public void updateApartmentStatus(Long id, ApartmentStatus status) {
@@ -81,7 +280,7 @@ public class ApartmentService {
         if (apartmentOpt.isPresent()) {
             Apartment apartment = apartmentOpt.get();
             apartment.setStatus(status);
-            apartmentRepository.save(apartment);
+            publishSaved(apartmentRepository.save(apartment));
         }
     }
     
@@ -117,32 +316,56 @@ public class ApartmentService {
      * Save apartment with image upload support
      */
     public Apartment saveApartmentWithImage(Apartment apartment, MultipartFile imageFile) throws IOException {
-        // Handle image upload if provided
-        if (imageFile != null && !imageFile.isEmpty()) {
-            String imageUrl = imageStorageService.storeImage(imageFile);
-            apartment.setImageUrl(imageUrl);
+        if (imageFile == null || imageFile.isEmpty()) {
+            return saveTrackingImage(apartment, false);
         }
-        
-        return apartmentRepository.save(apartment);
+        // The stored image comes back with a reference already held for this apartment
+        apartment.setImageUrl(imageStorageService.storeImage(imageFile));
+        return saveTrackingImage(apartment, true);
     }
     
     /**
      * Update apartment with image upload support
      */
     public Apartment updateApartmentWithImage(Apartment apartment, MultipartFile imageFile) throws IOException {
-        // Handle image upload if provided
-        if (imageFile != null && !imageFile.isEmpty()) {
-            // Delete old image if it exists and is an uploaded file
-            if (apartment.getImageUrl() != null && apartment.getImageUrl().startsWith("/uploads/")) {
-                imageStorageService.deleteImage(apartment.getImageUrl());
-            }
-            
-            // Store new image
-            String imageUrl = imageStorageService.storeImage(imageFile);
-            apartment.setImageUrl(imageUrl);
+        if (imageFile == null || imageFile.isEmpty()) {
+            return saveTrackingImage(apartment, false);
+        }
+        apartment.setImageUrl(imageStorageService.storeImage(imageFile));
+        return saveTrackingImage(apartment, true);
+    }
+    
+    /**
+     * Save the apartment and move its image reference when the URL changes. The old
+     * URL is read from the database, never from the submitted form, so a cleared or
+     * edited field can neither leak the old image nor release someone else's. The new
+     * URL is retained before the save (unless a fresh upload already holds it) and the
+     * old one released after it.
+     */
+    private Apartment saveTrackingImage(Apartment apartment, boolean newUrlRetained) {
+        String previousUrl = apartment.getId() != null ? apartmentRepository.findImageUrlById(apartment.getId()) : null;
+        String newUrl = apartment.getImageUrl();
+        boolean changed = !Objects.equals(previousUrl, newUrl);
+        if (changed && !newUrlRetained) {
+            imageStorageService.retain(newUrl);
         }
         
-        return apartmentRepository.save(apartment);
+        Apartment saved;
+        try {
+            saved = apartmentRepository.save(apartment);
+        } catch (RuntimeException e) {
+            if (changed || newUrlRetained) {
+                imageStorageService.release(newUrl);
+            }
+            throw e;
+        }
+        if (changed) {
+            imageStorageService.release(previousUrl);
+        } else if (newUrlRetained) {
+            // Same content re-uploaded: the apartment still holds its original reference
+            imageStorageService.release(newUrl);
+        }
+        return publishSaved(saved);
     }
     
     /**
@@ -153,12 +376,16 @@ public class ApartmentService {
         if (apartmentOpt.isPresent()) {
             Apartment apartment = apartmentOpt.get();
             
-            // Delete associated image if it's an uploaded file
-            if (apartment.getImageUrl() != null && apartment.getImageUrl().startsWith("/uploads/")) {
-                imageStorageService.deleteImage(apartment.getImageUrl());
-            }
-            
             apartmentRepository.deleteById(id);
+            eventPublisher.publishEvent(ApartmentChangedEvent.deleted(apartment));
+            
+            // Release this apartment's reference; the file goes only when no other apartment shares it
+            imageStorageService.release(apartment.getImageUrl());
         }
     }
+    
+    private Apartment publishSaved(Apartment saved) {
+        eventPublisher.publishEvent(ApartmentChangedEvent.saved(saved));
+        return saved;
+    }
 }
@@ -0,0 +1,240 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.dto.StatusTransitionCount;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatusChange;
+import com.example.apartmentsalesmanagementsystem.entity.DailyActivityRollup;
+import com.example.apartmentsalesmanagementsystem.entity.DailyAgentSalesRollup;
+import com.example.apartmentsalesmanagementsystem.entity.DailyCityPriceRollup;
+import com.example.apartmentsalesmanagementsystem.entity.DailyStatusTransitionRollup;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentStatusChangeRepository;
+import com.example.apartmentsalesmanagementsystem.repository.DailyActivityRollupRepository;
+import com.example.apartmentsalesmanagementsystem.repository.DailyAgentSalesRollupRepository;
+import com.example.apartmentsalesmanagementsystem.repository.DailyCityPriceRollupRepository;
+import com.example.apartmentsalesmanagementsystem.repository.DailyStatusTransitionRollupRepository;
+import com.example.apartmentsalesmanagementsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes one set of rollup rows per closed day (listings created, users registered,
+ * status transitions, asking price per city, sales per agent) so reports read a few
+ * rows per day instead of scanning the apartments and users tables.
+ *
+ * The job is incremental: the latest rolled-up day is the watermark, and each run
+ * processes only the days after it up to yesterday, one transaction per day. A day
+ * is deleted and rewritten as a unit, so a run interrupted halfway simply redoes that
+ * day. Status changes are not visible in the apartments table afterwards, so they
+ * are logged as they happen from the apartment change events.
+ */
+@Service
+public class DailyRollupService {
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ApartmentStatusChangeRepository statusChangeRepository;
+    
+    @Autowired
+    private DailyActivityRollupRepository activityRollupRepository;
+    
+    @Autowired
+    private DailyCityPriceRollupRepository cityPriceRollupRepository;
+    
+    @Autowired
+    private DailyStatusTransitionRollupRepository statusTransitionRollupRepository;
+    
+    @Autowired
+    private DailyAgentSalesRollupRepository agentSalesRollupRepository;
+    
+    @Autowired
+    private ReportAnalyticsService reportAnalyticsService;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.rollups.backfill-days:400}")
+    private int backfillDays;
+    
+    private volatile LocalDate lastRolledUpDay;
+    private volatile long lastRunMillis = -1;
+    
+    public DailyRollupService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @EventListener
+    public void onApartmentChanged(ApartmentChangedEvent event) {
+        if (event.isDeleted()) {
+            return;
+        }
+        Apartment apartment = event.getApartment();
+        if (apartment.getLoadedStatus() == null || apartment.getStatus() == null
+                || apartment.getLoadedStatus() == apartment.getStatus()) {
+            return;
+        }
+        try {
+            // Reading the owner's id does not initialize the lazy proxy
+            Long ownerId = apartment.getOwner() == null ? null : apartment.getOwner().getId();
+            statusChangeRepository.save(new ApartmentStatusChange(apartment.getId(), apartment.getLoadedStatus(),
+                    apartment.getStatus(), ownerId, apartment.getPrice(), LocalDateTime.now()));
+            apartment.markStatusRecorded();
+        } catch (Exception e) {
+            // The change itself is committed; only the report history misses it
+            System.err.println("Error recording status change of apartment " + apartment.getId() + ": " + e.getMessage());
+        }
+    }
+    
+    @EventListener
+    public void onApartmentsChanged(ApartmentBatchChangedEvent event) {
+        event.getChanges().forEach(this::onApartmentChanged);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        rollUp();
+    }
+    
+    /**
+     * Roll up every closed day after the watermark.
+     */
+    @Scheduled(cron = "${app.rollups.cron:0 15 1 * * *}")
+    public synchronized void rollUp() {
+        long start = System.currentTimeMillis();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        int days = 0;
+        try {
+            for (LocalDate day = firstPendingDay(yesterday); !day.isAfter(yesterday); day = day.plusDays(1)) {
+                rollUpDay(day);
+                lastRolledUpDay = day;
+                days++;
+            }
+        } catch (Exception e) {
+            // Days before the failure are committed; the next run resumes from there
+            System.err.println("Error rolling up daily statistics: " + e.getMessage());
+        }
+        lastRunMillis = System.currentTimeMillis() - start;
+        if (days > 0) {
+            reportAnalyticsService.invalidate();
+            System.out.println("Rolled up " + days + " day(s) through " + lastRolledUpDay + " in " + lastRunMillis + " ms");
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("watermark", activityRollupRepository.findTopByOrderByDayDesc().map(DailyActivityRollup::getDay).orElse(null));
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("backfillDays", backfillDays);
+        return stats;
+    }
+    
+    /**
+     * The day after the watermark or, before the first run, the day of the oldest
+     * recorded activity (at most backfill-days back).
+     */
+    private LocalDate firstPendingDay(LocalDate yesterday) {
+        return activityRollupRepository.findTopByOrderByDayDesc()
+                .map(rollup -> rollup.getDay().plusDays(1))
+                .orElseGet(() -> {
+                    LocalDate first = yesterday;
+                    for (LocalDateTime earliest : new LocalDateTime[] {apartmentRepository.findEarliestCreatedAt(),
+                            userRepository.findEarliestCreatedAt(), statusChangeRepository.findEarliestChange()}) {
+                        if (earliest != null && earliest.toLocalDate().isBefore(first)) {
+                            first = earliest.toLocalDate();
+                        }
+                    }
+                    LocalDate limit = yesterday.minusDays(backfillDays - 1);
+                    return first.isBefore(limit) ? limit : first;
+                });
+    }
+    
+    private void rollUpDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        transactionTemplate.executeWithoutResult(status -> {
+            activityRollupRepository.deleteByDay(day);
+            cityPriceRollupRepository.deleteByDay(day);
+            statusTransitionRollupRepository.deleteByDay(day);
+            agentSalesRollupRepository.deleteByDay(day);
+            
+            List<DailyCityPriceRollup> cities = new ArrayList<>();
+            long listings = 0;
+            // Rows arrive grouped by city and sorted by price, so only one city is buffered at a time
+            try (Stream<Object[]> rows = apartmentRepository.streamCityPricesCreatedBetween(from, to)) {
+                String city = null;
+                List<BigDecimal> prices = new ArrayList<>();
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    String rowCity = (String) row[0];
+                    if (city != null && !city.equals(rowCity)) {
+                        cities.add(cityRollup(day, city, prices));
+                        prices.clear();
+                    }
+                    city = rowCity;
+                    prices.add((BigDecimal) row[1]);
+                    listings++;
+                }
+                if (city != null) {
+                    cities.add(cityRollup(day, city, prices));
+                }
+            }
+            cityPriceRollupRepository.saveAll(cities);
+            
+            long statusChanges = 0;
+            List<DailyStatusTransitionRollup> transitions = new ArrayList<>();
+            for (StatusTransitionCount count : statusChangeRepository.countTransitionsBetween(from, to)) {
+                transitions.add(new DailyStatusTransitionRollup(day, count.getFromStatus(), count.getToStatus(), count.getCount()));
+                statusChanges += count.getCount();
+            }
+            statusTransitionRollupRepository.saveAll(transitions);
+            
+            List<DailyAgentSalesRollup> sales = new ArrayList<>();
+            for (Object[] row : statusChangeRepository.sumByOwnerBetween(ApartmentStatus.SOLD, from, to)) {
+                BigDecimal volume = row[2] == null ? BigDecimal.ZERO : (BigDecimal) row[2];
+                sales.add(new DailyAgentSalesRollup(day, (Long) row[0], (Long) row[1], volume));
+            }
+            agentSalesRollupRepository.saveAll(sales);
+            
+            activityRollupRepository.save(new DailyActivityRollup(day, listings,
+                    userRepository.countCreatedBetween(from, to), statusChanges));
+        });
+    }
+    
+    private static DailyCityPriceRollup cityRollup(LocalDate day, String city, List<BigDecimal> sortedPrices) {
+        int count = sortedPrices.size();
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal price : sortedPrices) {
+            sum = sum.add(price);
+        }
+        BigDecimal median = count % 2 == 1
+                ? sortedPrices.get(count / 2)
+                : sortedPrices.get(count / 2 - 1).add(sortedPrices.get(count / 2)).divide(BigDecimal.valueOf(2));
+        return new DailyCityPriceRollup(day, city, count, sum,
+                sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP), median.setScale(2, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.dto.UserStatistics;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.entity.Appointment;
+import com.example.apartmentsalesmanagementsystem.entity.AppointmentRequest;
+import com.example.apartmentsalesmanagementsystem.entity.AppointmentStatus;
+import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+import com.example.apartmentsalesmanagementsystem.entity.Parking;
+import com.example.apartmentsalesmanagementsystem.entity.Review;
+import com.example.apartmentsalesmanagementsystem.entity.UserRole;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the admin dashboard counters in memory so a page view reads one snapshot
+ * instead of fanning out ~30 COUNT/SUM queries.
+ *
+ * Counters are grouped by domain. Apartment and user writes publish events carrying
+ * the status or roles before and after the change, and the counters are adjusted by
+ * that delta; the snapshot is republished shortly afterwards in the background. An
+ * event without that information marks its domain dirty for a recompute instead.
+ * Appointments, requests, reviews and parking publish no events; a Hibernate
+ * post-commit listener marks their domain dirty whenever one of their entities is
+ * written, so they are recounted on the next refresh. Any drift in the deltas is
+ * corrected by the periodic reconciliation pass.
+ */
+@Service
+public class DashboardStatisticsService {
+    
+    enum Domain {
+        USERS,
+        APARTMENTS,
+        APPOINTMENTS,
+        APPOINTMENT_REQUESTS,
+        REVIEWS,
+        PARKING
+    }
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ApartmentService apartmentService;
+    
+    @Autowired
+    private AppointmentService appointmentService;
+    
+    @Autowired
+    private AppointmentRequestService appointmentRequestService;
+    
+    @Autowired
+    private ReviewService reviewService;
+    
+    @Autowired
+    private ParkingService parkingService;
+    
+    private static final Map<ApartmentStatus, String> STATUS_COUNTERS = new EnumMap<>(Map.of(
+            ApartmentStatus.AVAILABLE, "availableApartments",
+            ApartmentStatus.UNDER_CONTRACT, "underContractApartments",
+            ApartmentStatus.SOLD, "soldApartments",
+            ApartmentStatus.RENTED, "rentedApartments"));
+    
+    private static final Map<Class<?>, Domain> ENTITY_DOMAINS = Map.of(
+            Appointment.class, Domain.APPOINTMENTS,
+            AppointmentRequest.class, Domain.APPOINTMENT_REQUESTS,
+            Review.class, Domain.REVIEWS,
+            Parking.class, Domain.PARKING);
+    
+    private final Map<Domain, Map<String, Object>> counters = new ConcurrentHashMap<>();
+    private final Set<Domain> dirty = ConcurrentHashMap.newKeySet();
+    private volatile Map<String, Object> snapshot;
+    private volatile boolean snapshotStale = false;
+    
+    // Deltas applied per domain (guarded by counters), so a recompute can tell it raced one
+    private final long[] deltasApplied = new long[Domain.values().length];
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+    
+    /**
+     * Immutable view of every dashboard counter, keyed by the model attribute name.
+     */
+    public Map<String, Object> getSnapshot() {
+        Map<String, Object> current = snapshot;
+        if (current == null) {
+            reconcile();
+            current = snapshot;
+        }
+        return current;
+    }
+    
+    @EventListener
+    public void onApartmentChanged(ApartmentChangedEvent event) {
+        ApartmentStatus from = event.getPreviousStatus();
+        ApartmentStatus to;
+        long totalDelta;
+        if (event.isDeleted()) {
+            if (from == null) {
+                dirty.add(Domain.APARTMENTS);
+                return;
+            }
+            to = null;
+            totalDelta = -1;
+        } else {
+            to = event.getApartment().getStatus();
+            totalDelta = from == null ? 1 : 0;
+        }
+        if (totalDelta == 0 && from == to) {
+            return;
+        }
+        synchronized (counters) {
+            Map<String, Object> values = editable(Domain.APARTMENTS);
+            if (values == null) {
+                return;
+            }
+            add(values, "totalApartments", totalDelta);
+            if (from != null) {
+                add(values, STATUS_COUNTERS.get(from), -1);
+            }
+            if (to != null) {
+                add(values, STATUS_COUNTERS.get(to), 1);
+            }
+            counters.put(Domain.APARTMENTS, values);
+        }
+    }
+    
+    @EventListener
+    public void onApartmentsChanged(ApartmentBatchChangedEvent event) {
+        event.getChanges().forEach(this::onApartmentChanged);
+    }
+    
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        UserChangedEvent.State previous = event.getPrevious();
+        UserChangedEvent.State current = event.getCurrent();
+        if (previous == null && current == null) {
+            dirty.add(Domain.USERS);
+            return;
+        }
+        synchronized (counters) {
+            Map<String, Object> values = editable(Domain.USERS);
+            if (values == null) {
+                return;
+            }
+            UserStatistics userStats = (UserStatistics) values.get("userStatistics");
+            if (previous != null) {
+                userStats = userStats.adjust(previous.getRole(), previous.isActive(), previous.getManagementRoles(), -1);
+            }
+            if (current != null) {
+                userStats = userStats.adjust(current.getRole(), current.isActive(), current.getManagementRoles(), 1);
+            }
+            counters.put(Domain.USERS, userValues(userStats));
+        }
+    }
+    
+    /**
+     * Called after a transaction commits a write to an entity; entities with delta
+     * events of their own, or no dashboard counters, are ignored.
+     */
+    public void onEntityCommitted(Class<?> entityClass) {
+        Domain domain = ENTITY_DOMAINS.get(entityClass);
+        if (domain != null) {
+            dirty.add(domain);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.stats.refresh-delay-ms:5000}")
+    public void refreshDirty() {
+        if (dirty.isEmpty()) {
+            if (snapshotStale) {
+                publishSnapshot();
+            }
+            return;
+        }
+        Set<Domain> toRefresh = EnumSet.noneOf(Domain.class);
+        for (Domain domain : Domain.values()) {
+            if (dirty.remove(domain)) {
+                toRefresh.add(domain);
+            }
+        }
+        for (Domain domain : toRefresh) {
+            refresh(domain);
+        }
+        publishSnapshot();
+    }
+    
+    /**
+     * Recompute every domain from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-delay-ms:600000}", initialDelayString = "${app.stats.reconcile-delay-ms:600000}")
+    public synchronized void reconcile() {
+        for (Domain domain : Domain.values()) {
+            dirty.remove(domain);
+            refresh(domain);
+        }
+        publishSnapshot();
+    }
+    
+    private void refresh(Domain domain) {
+        try {
+            long deltasBefore;
+            synchronized (counters) {
+                deltasBefore = deltasApplied[domain.ordinal()];
+            }
+            Map<String, Object> values = compute(domain);
+            synchronized (counters) {
+                counters.put(domain, values);
+                if (deltasApplied[domain.ordinal()] != deltasBefore) {
+                    // A change landed while counting; it may or may not be in these values
+                    dirty.add(domain);
+                }
+            }
+        } catch (Exception e) {
+            // Keep the previous values; the next pass will try again
+            System.err.println("Error refreshing " + domain + " dashboard statistics: " + e.getMessage());
+            dirty.add(domain);
+        }
+    }
+    
+    /**
+     * Copy of a domain's counters to apply a delta to, or null when the domain has not
+     * been computed yet or is due for a recompute anyway. Must hold the counters lock.
+     */
+    private Map<String, Object> editable(Domain domain) {
+        Map<String, Object> current = counters.get(domain);
+        if (current == null || dirty.contains(domain)) {
+            dirty.add(domain);
+            return null;
+        }
+        deltasApplied[domain.ordinal()]++;
+        snapshotStale = true;
+        return new LinkedHashMap<>(current);
+    }
+    
+    private static void add(Map<String, Object> values, String key, long delta) {
+        values.put(key, ((Number) values.getOrDefault(key, 0L)).longValue() + delta);
+    }
+    
+    private synchronized void publishSnapshot() {
+        snapshotStale = false;
+        Map<String, Object> merged = new LinkedHashMap<>();
+        Map<Domain, Map<String, Object>> ordered = new EnumMap<>(counters);
+        for (Map<String, Object> values : ordered.values()) {
+            merged.putAll(values);
+        }
+        snapshot = Collections.unmodifiableMap(merged);
+    }
+    
+    private Map<String, Object> compute(Domain domain) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        switch (domain) {
+            case USERS:
+                values.putAll(userValues(userService.getUserStatistics()));
+                break;
+            case APARTMENTS:
+                values.put("totalApartments", apartmentService.getTotalApartments());
+                values.put("availableApartments", apartmentService.getAvailableApartmentsCount());
+                values.put("soldApartments", apartmentService.getSoldApartmentsCount());
+                values.put("underContractApartments", apartmentService.getUnderContractApartmentsCount());
+                values.put("rentedApartments", apartmentService.countApartmentsByStatus(ApartmentStatus.RENTED));
+                break;
+            case APPOINTMENTS:
+                values.put("totalAppointments", appointmentService.getTotalAppointments());
+                values.put("scheduledAppointments", appointmentService.countAppointmentsByStatus(AppointmentStatus.SCHEDULED));
+                values.put("confirmedAppointments", appointmentService.countAppointmentsByStatus(AppointmentStatus.CONFIRMED));
+                values.put("completedAppointments", appointmentService.countAppointmentsByStatus(AppointmentStatus.COMPLETED));
+                values.put("cancelledAppointments", appointmentService.countAppointmentsByStatus(AppointmentStatus.CANCELLED));
+                break;
+            case APPOINTMENT_REQUESTS:
+                values.put("totalAppointmentRequests", appointmentRequestService.getTotalRequests());
+                values.put("pendingAppointmentRequests", appointmentRequestService.getPendingRequestsCount());
+                values.put("approvedAppointmentRequests", appointmentRequestService.getApprovedRequestsCount());
+                values.put("rejectedAppointmentRequests", appointmentRequestService.getRejectedRequestsCount());
+                values.put("completedAppointmentRequests", appointmentRequestService.getCompletedRequestsCount());
+                break;
+            case REVIEWS:
+                values.put("totalReviews", reviewService.getTotalReviews());
+                values.put("approvedReviews", reviewService.getApprovedReviewsCount());
+                values.put("pendingReviews", reviewService.getPendingReviewsCount());
+                values.put("featuredReviews", reviewService.getFeaturedReviewsCount());
+                values.put("verifiedReviews", reviewService.getVerifiedReviewsCount());
+                values.put("highRatedReviews", reviewService.getHighRatedReviewsCount());
+                values.put("lowRatedReviews", reviewService.getLowRatedReviewsCount());
+                break;
+            case PARKING:
+                values.put("totalParkingSpaces", parkingService.getTotalParkingSpaces());
+                values.put("availableParkingSpaces", parkingService.getAvailableParkingSpacesCount());
+                values.put("occupiedParkingSpaces", parkingService.getOccupiedParkingSpacesCount());
+                values.put("reservedParkingSpaces", parkingService.getReservedParkingSpacesCount());
+                values.put("maintenanceParkingSpaces", parkingService.getMaintenanceParkingSpacesCount());
+                values.put("parkingRevenue", parkingService.getTotalMonthlyRevenue());
+                values.put("parkingOccupancyRate", parkingService.getOccupancyRate());
+                break;
+        }
+        return values;
+    }
+    
+    private static Map<String, Object> userValues(UserStatistics userStats) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("totalUsers", userStats.getTotalUsers());
+        values.put("activeUsers", userStats.getActiveUsers());
+        values.put("totalClients", userStats.countByRole(UserRole.CLIENT));
+        values.put("totalAdmins", userStats.countByRole(UserRole.ADMIN));
+        values.put("totalAgents", userStats.countByManagementRole(ManagementRole.AGENT));
+        values.put("userStatistics", userStats);
+        return values;
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ManagementRole;
+import com.example.apartmentsalesmanagementsystem.entity.User;
+import com.example.apartmentsalesmanagementsystem.entity.UserRole;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentSpecifications;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams apartments and users to CSV or NDJSON for analysts.
+ *
+ * Rows are read through a forward-only result stream inside a read-only
+ * transaction, with a JDBC fetch size hint so the driver pulls them from the
+ * database cursor in pages, and written to the output as they arrive. Apartment
+ * entities are detached by clearing the persistence context every
+ * {@code app.export.clear-interval} rows; users are read as plain tuples (their
+ * management roles joined in) so nothing is managed at all. Heap use stays constant
+ * whatever the size of the export. Apartment columns match the bulk import header,
+ * so an export can be edited and imported elsewhere; uploaded images are left out
+ * of the imageUrl column, because imports only accept external http(s) links.
+ */
+@Service
+public class ExportService {
+    
+    private static final String[] APARTMENT_COLUMNS = {
+            "id", "title", "description", "address", "city", "state", "zipCode", "price",
+            "bedrooms", "bathrooms", "squareFeet", "status", "imageUrl", "ownerId", "createdAt", "updatedAt"
+    };
+    
+    private static final String[] USER_COLUMNS = {
+            "id", "username", "email", "firstName", "lastName", "phoneNumber", "role", "active",
+            "managementRoles", "createdAt"
+    };
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final TransactionTemplate readOnlyTransaction;
+    
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+    
+    @Value("${app.export.clear-interval:1000}")
+    private int clearInterval;
+    
+    public ExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Write every apartment matching the filter (a null status means all), in id
+     * order. Returns the number of rows written.
+     */
+    public long exportApartments(ApartmentFilter filter, ApartmentImportService.Format format, OutputStream out) throws IOException {
+        RowWriter writer = rowWriter(format, out, APARTMENT_COLUMNS);
+        Long rows = execute(() -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Apartment> query = cb.createQuery(Apartment.class);
+            Root<Apartment> root = query.from(Apartment.class);
+            query.where(ApartmentSpecifications.matching(filter).toPredicate(root, query, cb));
+            query.orderBy(cb.asc(root.get("id")));
+            
+            long count = 0;
+            try (Stream<Apartment> apartments = entityManager.createQuery(query)
+                    .setHint("org.hibernate.fetchSize", fetchSize)
+                    .setHint("org.hibernate.readOnly", true)
+                    .getResultStream()) {
+                Iterator<Apartment> iterator = apartments.iterator();
+                while (iterator.hasNext()) {
+                    Apartment apartment = iterator.next();
+                    writer.row(apartment.getId(), apartment.getTitle(), apartment.getDescription(),
+                            apartment.getAddress(), apartment.getCity(), apartment.getState(), apartment.getZipCode(),
+                            apartment.getPrice(), apartment.getBedrooms(), apartment.getBathrooms(),
+                            apartment.getSquareFeet(), apartment.getStatus(), externalImageUrl(apartment.getImageUrl()),
+                            // Reading the id does not initialize the lazy owner
+                            apartment.getOwner() == null ? null : apartment.getOwner().getId(),
+                            apartment.getCreatedAt(), apartment.getUpdatedAt());
+                    if (++count % clearInterval == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return count;
+        });
+        writer.finish();
+        return rows;
+    }
+    
+    private static String externalImageUrl(String imageUrl) {
+        return imageUrl != null && (imageUrl.startsWith("http://") || imageUrl.startsWith("https://")) ? imageUrl : null;
+    }
+    
+    /**
+     * Write users, optionally restricted to one role and/or active state, in id
+     * order. Passwords are never exported. Returns the number of rows written.
+     */
+    public long exportUsers(UserRole role, Boolean active, ApartmentImportService.Format format, OutputStream out) throws IOException {
+        RowWriter writer = rowWriter(format, out, USER_COLUMNS);
+        Long rows = execute(() -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<User> root = query.from(User.class);
+            Join<User, ManagementRole> managementRole = root.join("managementRoles", JoinType.LEFT);
+            query.multiselect(root.get("id"), root.get("username"), root.get("email"), root.get("firstName"),
+                    root.get("lastName"), root.get("phoneNumber"), root.get("role"), root.get("isActive"),
+                    root.get("createdAt"), managementRole);
+            List<Predicate> predicates = new ArrayList<>();
+            if (role != null) {
+                predicates.add(cb.equal(root.get("role"), role));
+            }
+            if (active != null) {
+                predicates.add(cb.equal(root.get("isActive"), active));
+            }
+            query.where(predicates.toArray(new Predicate[0]));
+            query.orderBy(cb.asc(root.get("id")));
+            
+            long count = 0;
+            try (Stream<Tuple> tuples = entityManager.createQuery(query)
+                    .setHint("org.hibernate.fetchSize", fetchSize)
+                    .getResultStream()) {
+                // One row per (user, management role); fold consecutive rows of a user together
+                Tuple current = null;
+                StringBuilder roles = new StringBuilder();
+                Iterator<Tuple> iterator = tuples.iterator();
+                while (iterator.hasNext()) {
+                    Tuple tuple = iterator.next();
+                    if (current != null && !current.get(0).equals(tuple.get(0))) {
+                        writeUser(writer, current, roles);
+                        count++;
+                        roles.setLength(0);
+                    }
+                    current = tuple;
+                    if (tuple.get(9) != null) {
+                        roles.append(roles.length() == 0 ? "" : ";").append(tuple.get(9));
+                    }
+                }
+                if (current != null) {
+                    writeUser(writer, current, roles);
+                    count++;
+                }
+            }
+            return count;
+        });
+        writer.finish();
+        return rows;
+    }
+    
+    private static void writeUser(RowWriter writer, Tuple user, CharSequence roles) {
+        writer.row(user.get(0), user.get(1), user.get(2), user.get(3), user.get(4), user.get(5),
+                user.get(6), user.get(7), roles.toString(), user.get(8));
+    }
+    
+    private Long execute(Supplier<Long> export) throws IOException {
+        try {
+            return readOnlyTransaction.execute(status -> export.get());
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; nothing more to write
+            throw e.getCause();
+        }
+    }
+    
+    private RowWriter rowWriter(ApartmentImportService.Format format, OutputStream out, String[] columns) throws IOException {
+        RowWriter writer = format == ApartmentImportService.Format.NDJSON
+                ? new NdjsonWriter(objectMapper.getFactory().createGenerator(out), columns)
+                : new CsvWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), columns);
+        writer.start();
+        return writer;
+    }
+    
+    /**
+     * Output format. Row writes wrap IOExceptions as UncheckedIOException so they can
+     * be thrown from inside the transaction callback.
+     */
+    private interface RowWriter {
+        
+        void start() throws IOException;
+        
+        void row(Object... values);
+        
+        void finish() throws IOException;
+    }
+    
+    private static final class CsvWriter implements RowWriter {
+        
+        private final Writer writer;
+        private final String[] columns;
+        
+        CsvWriter(Writer writer, String[] columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+        
+        @Override
+        public void start() throws IOException {
+            writeLine(columns);
+            // Send the header right away so the download starts before the query finishes
+            writer.flush();
+        }
+        
+        @Override
+        public void row(Object... values) {
+            try {
+                writeLine(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+        
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+        
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+    
+    private static final class NdjsonWriter implements RowWriter {
+        
+        private final JsonGenerator generator;
+        private final String[] columns;
+        
+        NdjsonWriter(JsonGenerator generator, String[] columns) {
+            this.generator = generator;
+            this.columns = columns;
+        }
+        
+        @Override
+        public void start() throws IOException {
+            generator.flush();
+        }
+        
+        @Override
+        public void row(Object... values) {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    Object value = values[i];
+                    if (value == null) {
+                        generator.writeNullField(columns[i]);
+                    } else if (value instanceof Number || value instanceof Boolean) {
+                        generator.writeObjectField(columns[i], value);
+                    } else {
+                        generator.writeStringField(columns[i], value.toString());
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
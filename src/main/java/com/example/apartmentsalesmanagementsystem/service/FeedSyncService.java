@@ -0,0 +1,397 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.dto.FeedSyncReport;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.entity.FeedRecord;
+import com.example.apartmentsalesmanagementsystem.entity.User;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import com.example.apartmentsalesmanagementsystem.repository.FeedRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental sync of a partner's full inventory snapshot.
+ *
+ * Each record carries the partner's own {@code externalId}. Its listing fields are
+ * fingerprinted (SHA-256) and compared with the fingerprint stored in the unit's
+ * {@link FeedRecord}; only new or changed units are written, so a nightly feed that
+ * is mostly unchanged costs one indexed lookup per chunk instead of a rewrite per row.
+ * Records are processed in chunks of {@code app.feed-sync.batch-size}, one
+ * transaction each, with batched inserts and updates and the persistence context
+ * cleared in between. The only per-row state kept for the whole run is a compressed
+ * bitmap of the feed records seen, used afterwards to move units missing from the
+ * feed to the missing status (and to bring them back if they reappear). Rejected rows
+ * still count as seen, and a row whose externalId cannot be read at all skips the
+ * missing pass, since any unit could be the one it describes.
+ */
+@Service
+public class FeedSyncService {
+    
+    private static final Pattern SOURCE_NAME = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    @Autowired
+    private FeedRecordRepository feedRecordRepository;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.feed-sync.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.feed-sync.missing-status:SOLD}")
+    private ApartmentStatus defaultMissingStatus;
+    
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+    
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    
+    public FeedSyncService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    public ApartmentStatus getDefaultMissingStatus() {
+        return defaultMissingStatus;
+    }
+    
+    /**
+     * Sync a full snapshot of the source's inventory. New units are created with the
+     * given owner (may be null); units absent from the snapshot move to
+     * {@code missingStatus}, or the configured default when null. A parse error that
+     * stops the feed part way throws before any unit is marked missing.
+     */
+    public FeedSyncReport sync(String source, InputStream input, ApartmentImportService.Format format,
+                               User owner, ApartmentStatus missingStatus) throws IOException {
+        if (source == null || !SOURCE_NAME.matcher(source).matches()) {
+            throw new IllegalArgumentException("Feed source must be 1-64 letters, digits, '.', '_' or '-'");
+        }
+        if (!running.add(source)) {
+            throw new IllegalStateException("A sync for feed " + source + " is already running");
+        }
+        try {
+            return run(source, input, format, owner, missingStatus != null ? missingStatus : defaultMissingStatus);
+        } finally {
+            running.remove(source);
+        }
+    }
+    
+    private FeedSyncReport run(String source, InputStream input, ApartmentImportService.Format format,
+                               User owner, ApartmentStatus missingStatus) throws IOException {
+        long start = System.nanoTime();
+        FeedSyncReport report = new FeedSyncReport(source, maxErrors);
+        Roaring64Bitmap seen = new Roaring64Bitmap();
+        Map<String, PendingRow> chunk = new LinkedHashMap<>();
+        List<String> rejected = new ArrayList<>();
+        boolean unidentified = false;
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ApartmentRecords.RowSource rows = ApartmentRecords.open(reader, format, objectMapper);
+        Map<String, String> fields;
+        while ((fields = rows.next()) != null) {
+            report.rowRead();
+            long line = rows.line();
+            String externalId = fields.get("externalid");
+            if (externalId == null || externalId.isBlank()) {
+                report.rowFailed(line, "externalId: required for feed sync");
+                unidentified = true;
+                continue;
+            }
+            externalId = externalId.trim();
+            Apartment apartment;
+            try {
+                apartment = ApartmentRecords.toApartment(fields);
+            } catch (IllegalArgumentException e) {
+                report.rowFailed(line, e.getMessage());
+                reject(source, externalId, rejected, seen);
+                continue;
+            }
+            Set<ConstraintViolation<Apartment>> violations = validator.validate(apartment);
+            if (!violations.isEmpty()) {
+                report.rowFailed(line, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                reject(source, externalId, rejected, seen);
+                continue;
+            }
+            PendingRow replaced = chunk.put(externalId, new PendingRow(line, externalId, apartment, fingerprint(apartment)));
+            if (replaced != null) {
+                report.rowFailed(replaced.line, "externalId '" + externalId + "' repeated on line " + line + "; the later row was used");
+            }
+            if (chunk.size() >= batchSize) {
+                applyChunk(source, chunk, owner, seen, report);
+            }
+        }
+        applyChunk(source, chunk, owner, seen, report);
+        markSeen(source, rejected, seen);
+        
+        // An empty snapshot is far more likely a broken export than a sold-out partner
+        if (report.getTotalRows() == 0 || unidentified) {
+            report.setMissingSkipped(true);
+        } else {
+            markMissing(source, seen, missingStatus, report);
+        }
+        
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        System.out.println(report.getSummary());
+        return report;
+    }
+    
+    private void applyChunk(String source, Map<String, PendingRow> chunk, User owner, Roaring64Bitmap seen, FeedSyncReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<PendingRow> rows = new ArrayList<>(chunk.values());
+        chunk.clear();
+        try {
+            apply(source, rows, owner, seen, report);
+        } catch (RuntimeException e) {
+            // Retry one by one so only the offending rows are reported
+            for (PendingRow row : rows) {
+                row.apartment.setId(null);
+                try {
+                    apply(source, List.of(row), owner, seen, report);
+                } catch (RuntimeException rowError) {
+                    row.apartment.setId(null);
+                    report.rowFailed(row.line, ApartmentRecords.rootMessage(rowError));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Queue a rejected row's externalId so its unit, if it has one, is not marked
+     * missing: the partner did send it, just not in a form that could be applied.
+     */
+    private void reject(String source, String externalId, List<String> rejected, Roaring64Bitmap seen) {
+        rejected.add(externalId);
+        if (rejected.size() >= batchSize) {
+            markSeen(source, rejected, seen);
+        }
+    }
+    
+    private void markSeen(String source, List<String> externalIds, Roaring64Bitmap seen) {
+        if (externalIds.isEmpty()) {
+            return;
+        }
+        for (FeedRecord record : feedRecordRepository.findBySourceAndExternalIdIn(source, externalIds)) {
+            seen.addLong(record.getId());
+        }
+        externalIds.clear();
+    }
+    
+    /**
+     * Compare a chunk with its stored fingerprints and write only what changed, in
+     * one transaction. Events are published once it has committed.
+     */
+    private void apply(String source, List<PendingRow> rows, User owner, Roaring64Bitmap seen, FeedSyncReport report) {
+        List<Apartment> written = new ArrayList<>();
+        List<String> replacedImages = new ArrayList<>();
+        int[] counts = new int[3];
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, FeedRecord> records = feedRecordRepository
+                    .findBySourceAndExternalIdIn(source, rows.stream().map(row -> row.externalId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(FeedRecord::getExternalId, Function.identity()));
+            
+            List<PendingRow> changed = new ArrayList<>();
+            for (PendingRow row : rows) {
+                FeedRecord record = records.get(row.externalId);
+                if (record != null) {
+                    // In the feed, even if its update fails below, so never "missing"
+                    seen.addLong(record.getId());
+                    if (!record.isMissing() && record.getFingerprint().equals(row.fingerprint)) {
+                        counts[2]++;
+                        continue;
+                    }
+                }
+                changed.add(row);
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+            
+            Map<Long, Apartment> existing = apartmentRepository.findAllById(changed.stream()
+                            .map(row -> records.get(row.externalId))
+                            .filter(record -> record != null)
+                            .map(FeedRecord::getApartmentId)
+                            .toList())
+                    .stream()
+                    .collect(Collectors.toMap(Apartment::getId, Function.identity()));
+            
+            for (PendingRow row : changed) {
+                FeedRecord record = records.get(row.externalId);
+                Apartment target = record == null ? null : existing.get(record.getApartmentId());
+                if (target != null) {
+                    String previousImage = target.getImageUrl();
+                    ApartmentRecords.copyListingFields(row.apartment, target);
+                    if (previousImage != null && !previousImage.equals(target.getImageUrl())) {
+                        replacedImages.add(previousImage);
+                    }
+                    counts[1]++;
+                } else {
+                    // New unit, or one whose apartment was deleted since the last sync
+                    target = row.apartment;
+                    target.setOwner(owner);
+                    entityManager.persist(target);
+                    counts[0]++;
+                }
+                if (record == null) {
+                    record = new FeedRecord(source, row.externalId, target.getId(), row.fingerprint);
+                    entityManager.persist(record);
+                    seen.addLong(record.getId());
+                } else {
+                    record.setApartmentId(target.getId());
+                    record.setFingerprint(row.fingerprint);
+                    record.setMissing(false);
+                }
+                written.add(target);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        report.recordsApplied(counts[0], counts[1], counts[2]);
+        // Only now that the rows no longer point at them; external URLs are ignored
+        for (String imageUrl : replacedImages) {
+            imageStorageService.release(imageUrl);
+        }
+        for (Apartment apartment : written) {
+            eventPublisher.publishEvent(ApartmentChangedEvent.saved(apartment));
+        }
+    }
+    
+    /**
+     * Walk the source's feed records in id order and move every unit that was not
+     * in this snapshot to the missing status.
+     */
+    private void markMissing(String source, Roaring64Bitmap seen, ApartmentStatus missingStatus, FeedSyncReport report) {
+        long after = 0;
+        List<FeedRecord> page;
+        do {
+            page = feedRecordRepository.findBySourceAfter(source, after, PageRequest.of(0, batchSize));
+            List<Long> absent = page.stream()
+                    .filter(record -> !record.isMissing() && !seen.contains(record.getId()))
+                    .map(FeedRecord::getId)
+                    .toList();
+            if (!absent.isEmpty()) {
+                List<Apartment> written = new ArrayList<>();
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<FeedRecord> records = feedRecordRepository.findAllById(absent);
+                    Map<Long, Apartment> apartments = apartmentRepository.findAllById(records.stream()
+                                    .map(FeedRecord::getApartmentId)
+                                    .toList())
+                            .stream()
+                            .collect(Collectors.toMap(Apartment::getId, Function.identity()));
+                    for (FeedRecord record : records) {
+                        record.setMissing(true);
+                        Apartment apartment = apartments.get(record.getApartmentId());
+                        if (apartment != null && apartment.getStatus() != missingStatus) {
+                            apartment.setStatus(missingStatus);
+                            written.add(apartment);
+                        }
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                report.unitsMarkedMissing(written.size());
+                for (Apartment apartment : written) {
+                    eventPublisher.publishEvent(ApartmentChangedEvent.saved(apartment));
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == batchSize);
+    }
+    
+    /**
+     * SHA-256 over the listing fields a feed can set, in a fixed order. Prices are
+     * compared by value so "250000" and "250000.00" do not count as a change.
+     */
+    private static String fingerprint(Apartment apartment) {
+        BigDecimal price = apartment.getPrice();
+        String canonical = String.join("\u001F",
+                String.valueOf(apartment.getTitle()),
+                String.valueOf(apartment.getDescription()),
+                String.valueOf(apartment.getAddress()),
+                String.valueOf(apartment.getCity()),
+                String.valueOf(apartment.getState()),
+                String.valueOf(apartment.getZipCode()),
+                price == null ? "null" : price.stripTrailingZeros().toPlainString(),
+                String.valueOf(apartment.getBedrooms()),
+                String.valueOf(apartment.getBathrooms()),
+                String.valueOf(apartment.getSquareFeet()),
+                String.valueOf(apartment.getStatus()),
+                String.valueOf(apartment.getImageUrl()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static final class PendingRow {
+        
+        private final long line;
+        private final String externalId;
+        private final Apartment apartment;
+        private final String fingerprint;
+        
+        PendingRow(long line, String externalId, Apartment apartment, String fingerprint) {
+            this.line = line;
+            this.externalId = externalId;
+            this.apartment = apartment;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
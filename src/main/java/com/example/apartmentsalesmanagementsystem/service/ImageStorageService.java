@@ -0,0 +1,363 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.cache.HotImageCache;
+import com.example.apartmentsalesmanagementsystem.dto.StoredImage;
+import com.example.apartmentsalesmanagementsystem.entity.ImageBlob;
+import com.example.apartmentsalesmanagementsystem.event.ImageStoredEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import com.example.apartmentsalesmanagementsystem.repository.ImageBlobRepository;
+import com.example.apartmentsalesmanagementsystem.security.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores uploaded apartment images under {@code app.upload.dir} and serves them as /uploads/**.
+ *
+ * Uploads are streamed from the multipart part straight into a temporary file with
+ * {@link FileChannel#transferFrom}, hashing (SHA-256) on the way through, so memory per
+ * upload is a fixed transfer buffer whatever the file size. The finished file is then
+ * atomically renamed into place, so readers never see a partially written image.
+ *
+ * Storage is content-addressed: a file lives at {@code ab/cd/<sha256>.<ext>}, two
+ * levels of 256 directories, so even tens of millions of images leave at most a few
+ * thousand files per directory. Identical uploads share one file, tracked by an
+ * {@link ImageBlob} whose reference count follows Apartment.imageUrl via
+ * {@link #retain} and {@link #release}. Changes to one blob are serialized on a lock
+ * stripe so a release cannot delete a file that a concurrent upload just reused.
+ * Newly written content is announced with an {@link ImageStoredEvent} so
+ * ThumbnailService can build resized variants in the background.
+ */
+@Service
+public class ImageStorageService {
+    
+    private static final String URL_PREFIX = "/uploads/";
+    private static final String TEMP_PREFIX = ".upload-";
+    private static final Set<String> ALLOWED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp");
+    
+    // Bytes requested per transferFrom call; the JDK copies through a small fixed buffer
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+    
+    private static final int LOCK_STRIPES = 64;
+    
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    @Autowired
+    private ImageVariants imageVariants;
+    
+    @Autowired
+    private HotImageCache hotImageCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+    
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+    
+    private final LatencyHistogram uploadLatency = new LatencyHistogram();
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong transferNanos = new AtomicLong();
+    private final AtomicLong largestUpload = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong filesDeleted = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    
+    public String storeImage(MultipartFile file) throws IOException {
+        return store(file).getUrl();
+    }
+    
+    /**
+     * Stream an uploaded image to disk and return its URL, size and content hash.
+     * If an identical image is already stored, its existing URL is returned and the
+     * upload is discarded. The returned URL already holds one reference for the
+     * apartment it is stored for; {@link #release} it if that save fails.
+     */
+    public StoredImage store(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IOException("No image file provided");
+        }
+        String extension = extensionOf(file.getOriginalFilename());
+        if (!ALLOWED_EXTENSIONS.contains(extension)
+                || (file.getContentType() != null && !file.getContentType().startsWith("image/"))) {
+            throw new IOException("Unsupported image type: " + file.getOriginalFilename());
+        }
+        
+        Path directory = uploadRoot();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(TEMP_PREFIX + UUID.randomUUID() + "." + extension);
+        
+        int concurrent = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(concurrent, Math::max);
+        long start = System.nanoTime();
+        boolean stored = false;
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                size = 0;
+                long transferred;
+                while ((transferred = out.transferFrom(source, size, TRANSFER_CHUNK)) > 0) {
+                    size += transferred;
+                }
+                out.force(false);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String url = placeContent(temp, sha256, extension, size);
+            stored = true;
+            
+            long elapsed = System.nanoTime() - start;
+            uploads.incrementAndGet();
+            bytesWritten.addAndGet(size);
+            transferNanos.addAndGet(elapsed);
+            largestUpload.accumulateAndGet(size, Math::max);
+            uploadLatency.record(elapsed);
+            return new StoredImage(url, size, sha256);
+        } finally {
+            inFlight.decrementAndGet();
+            if (!stored) {
+                failures.incrementAndGet();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+    
+    /**
+     * Record one more apartment referencing the image.
+     */
+    public void retain(String imageUrl) {
+        if (!isUpload(imageUrl)) {
+            return;
+        }
+        synchronized (lockFor(keyOf(imageUrl))) {
+            imageBlobRepository.incrementReferences(imageUrl);
+        }
+    }
+    
+    /**
+     * Drop one apartment's reference to the image, deleting the file once nothing
+     * references it. Call after the apartment row no longer points at the URL.
+     * Files stored before content addressing have no blob and are deleted only when
+     * no apartment still uses the URL.
+     */
+    public void release(String imageUrl) {
+        if (!isUpload(imageUrl)) {
+            return;
+        }
+        synchronized (lockFor(keyOf(imageUrl))) {
+            if (imageBlobRepository.findByUrl(imageUrl).isPresent()) {
+                imageBlobRepository.decrementReferences(imageUrl);
+                if (imageBlobRepository.deleteUnreferenced(imageUrl) > 0) {
+                    deleteImage(imageUrl);
+                }
+            } else if (apartmentRepository.countByImageUrl(imageUrl) == 0) {
+                deleteImage(imageUrl);
+            }
+        }
+    }
+    
+    /**
+     * Delete an image (and any zero-count blob row) if no apartment or blob
+     * reference holds it, checked under the same lock as {@link #release}. Used by
+     * UploadGarbageCollector for files it found on disk without a reference.
+     */
+    public boolean deleteIfUnreferenced(String imageUrl) {
+        if (!isUpload(imageUrl)) {
+            return false;
+        }
+        synchronized (lockFor(keyOf(imageUrl))) {
+            Optional<ImageBlob> blob = imageBlobRepository.findByUrl(imageUrl);
+            if (blob.isPresent() && blob.get().getReferenceCount() > 0) {
+                return false;
+            }
+            if (apartmentRepository.countByImageUrl(imageUrl) > 0) {
+                return false;
+            }
+            if (blob.isPresent()) {
+                imageBlobRepository.deleteUnreferenced(imageUrl);
+            }
+            return deleteImage(imageUrl);
+        }
+    }
+    
+    /**
+     * Delete an image file outright, bypassing reference counting. URLs outside
+     * /uploads/ and paths escaping the upload directory are ignored.
+     */
+    public boolean deleteImage(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+            return false;
+        }
+        Path root = uploadRoot();
+        Path file = root.resolve(imageUrl.substring(URL_PREFIX.length())).normalize();
+        if (!file.startsWith(root)) {
+            return false;
+        }
+        try {
+            imageVariants.forget(imageUrl);
+            hotImageCache.invalidateUrl(imageUrl);
+            for (Path variant : imageVariants.variantPaths(imageUrl)) {
+                Files.deleteIfExists(variant);
+            }
+            for (int width : ImageVariants.WIDTHS) {
+                hotImageCache.invalidateUrl(ImageVariants.variantUrl(imageUrl, width));
+            }
+            hotImageCache.invalidateUrl(ImageVariants.variantUrl(imageUrl, ImageVariants.PLACEHOLDER_WIDTH));
+            boolean deleted = Files.deleteIfExists(file);
+            if (deleted) {
+                filesDeleted.incrementAndGet();
+            }
+            return deleted;
+        } catch (IOException e) {
+            System.err.println("Could not delete image " + imageUrl + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        long totalBytes = bytesWritten.get();
+        long nanos = transferNanos.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("uploads", uploads.get());
+        stats.put("failures", failures.get());
+        stats.put("bytesWritten", totalBytes);
+        stats.put("largestUploadBytes", largestUpload.get());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("filesDeleted", filesDeleted.get());
+        stats.put("storedBlobs", imageBlobRepository.count());
+        stats.put("storedBytes", imageBlobRepository.sumSize());
+        stats.put("blobReferences", imageBlobRepository.sumReferences());
+        stats.put("meanThroughputMBps", nanos == 0 ? 0.0 : (totalBytes / 1_048_576.0) / (nanos / 1_000_000_000.0));
+        stats.put("inFlight", inFlight.get());
+        stats.put("peakInFlight", peakInFlight.get());
+        stats.put("latency", uploadLatency.snapshot());
+        return stats;
+    }
+    
+    /**
+     * Move a fully written temp file to its content address, or discard it if the
+     * same content is already stored, and take one reference on the result.
+     * Returns the URL of the stored content.
+     */
+    private String placeContent(Path temp, String sha256, String extension, long size) throws IOException {
+        synchronized (lockFor(sha256)) {
+            Optional<ImageBlob> existing = imageBlobRepository.findById(sha256);
+            if (existing.isPresent() && Files.exists(fileFor(existing.get().getUrl()))) {
+                Files.deleteIfExists(temp);
+                imageBlobRepository.incrementReferences(existing.get().getUrl());
+                deduplicated.incrementAndGet();
+                if (!imageVariants.isReady(existing.get().getUrl())) {
+                    // Variant generation was skipped or failed earlier; give it another go
+                    eventPublisher.publishEvent(new ImageStoredEvent(existing.get().getUrl()));
+                }
+                return existing.get().getUrl();
+            }
+            
+            String relative = sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + "." + extension;
+            Path target = uploadRoot().resolve(relative);
+            Files.createDirectories(target.getParent());
+            moveIntoPlace(temp, target);
+            
+            // A blob whose file went missing is re-pointed at the fresh copy
+            ImageBlob blob = existing.orElseGet(() -> new ImageBlob(sha256, URL_PREFIX + relative, size));
+            blob.setUrl(URL_PREFIX + relative);
+            blob.setReferenceCount(blob.getReferenceCount() + 1);
+            imageBlobRepository.save(blob);
+            eventPublisher.publishEvent(new ImageStoredEvent(blob.getUrl()));
+            return blob.getUrl();
+        }
+    }
+    
+    private Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+    
+    /**
+     * Lock key for a URL: the content hash for content-addressed files, which is
+     * the same key {@link #placeContent} locks on.
+     */
+    private static String keyOf(String imageUrl) {
+        String name = imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+    
+    private static boolean isUpload(String imageUrl) {
+        return imageUrl != null && imageUrl.startsWith(URL_PREFIX);
+    }
+    
+    private Path fileFor(String imageUrl) {
+        return uploadRoot().resolve(imageUrl.substring(URL_PREFIX.length())).normalize();
+    }
+    
+    private Path uploadRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+    
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Same filesystem, so this only happens on unusual setups
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
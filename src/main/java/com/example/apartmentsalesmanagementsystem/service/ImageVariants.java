@@ -0,0 +1,185 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Naming of resized image variants and the helpers templates use to pick one.
+ *
+ * For an upload at {@code /uploads/ab/cd/<hash>.png} the variants are
+ * {@code /uploads/ab/cd/<hash>-w160.jpg} and so on, plus a 16px wide placeholder
+ * that is inlined as a data URI. Until ThumbnailService has produced a variant the
+ * helpers fall back to the original image. From Thymeleaf:
+ *
+ * <pre>
+ * th:src="${@imageVariants.src(apartment.imageUrl, 480)}"
+ * th:attr="srcset=${@imageVariants.srcset(apartment.imageUrl)}"
+ * </pre>
+ */
+@Component("imageVariants")
+public class ImageVariants {
+    
+    /** Widths generated for every upload, smallest first */
+    public static final int[] WIDTHS = {160, 480, 960};
+    
+    public static final int PLACEHOLDER_WIDTH = 16;
+    
+    private static final String URL_PREFIX = "/uploads/";
+    private static final Pattern VARIANT_NAME = Pattern.compile(".*-w\\d+\\.jpg$");
+    private static final int PLACEHOLDER_CACHE_SIZE = 5000;
+    
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+    
+    // Originals whose full variant set is known to exist on disk
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+    
+    private final Map<String, String> placeholders = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > PLACEHOLDER_CACHE_SIZE;
+                }
+            });
+    
+    /**
+     * URL of the variant closest to (and at least) the requested width, or the
+     * original when variants are not available.
+     */
+    public String src(String imageUrl, int width) {
+        if (!isReady(imageUrl)) {
+            return imageUrl;
+        }
+        for (int candidate : WIDTHS) {
+            if (candidate >= width) {
+                return variantUrl(imageUrl, candidate);
+            }
+        }
+        return imageUrl;
+    }
+    
+    /**
+     * srcset listing every variant, or null (attribute omitted) when not available.
+     */
+    public String srcset(String imageUrl) {
+        if (!isReady(imageUrl)) {
+            return null;
+        }
+        StringBuilder srcset = new StringBuilder();
+        for (int width : WIDTHS) {
+            if (srcset.length() > 0) {
+                srcset.append(", ");
+            }
+            srcset.append(variantUrl(imageUrl, width)).append(' ').append(width).append('w');
+        }
+        return srcset.toString();
+    }
+    
+    /**
+     * Tiny blurred preview as a data URI, or null when it has not been generated.
+     */
+    public String placeholder(String imageUrl) {
+        if (!isReady(imageUrl)) {
+            return null;
+        }
+        String cached = placeholders.get(imageUrl);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(variantPath(imageUrl, PLACEHOLDER_WIDTH));
+            String dataUri = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes);
+            placeholders.put(imageUrl, dataUri);
+            return dataUri;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Whether variants for this upload exist; remembers positive answers so list
+     * pages do not stat files on every render.
+     */
+    public boolean isReady(String imageUrl) {
+        if (!isUpload(imageUrl)) {
+            return false;
+        }
+        if (ready.contains(imageUrl)) {
+            return true;
+        }
+        // The placeholder is written last, so its presence means the whole set is there
+        if (Files.exists(variantPath(imageUrl, PLACEHOLDER_WIDTH))) {
+            ready.add(imageUrl);
+            return true;
+        }
+        return false;
+    }
+    
+    void markReady(String imageUrl) {
+        ready.add(imageUrl);
+        placeholders.remove(imageUrl);
+    }
+    
+    void forget(String imageUrl) {
+        ready.remove(imageUrl);
+        placeholders.remove(imageUrl);
+    }
+    
+    /**
+     * Every generated file for an original, placeholder included.
+     */
+    Path[] variantPaths(String imageUrl) {
+        Path[] paths = new Path[WIDTHS.length + 1];
+        for (int i = 0; i < WIDTHS.length; i++) {
+            paths[i] = variantPath(imageUrl, WIDTHS[i]);
+        }
+        paths[WIDTHS.length] = variantPath(imageUrl, PLACEHOLDER_WIDTH);
+        return paths;
+    }
+    
+    Path variantPath(String imageUrl, int width) {
+        return uploadRoot().resolve(variantUrl(imageUrl, width).substring(URL_PREFIX.length())).normalize();
+    }
+    
+    Path originalPath(String imageUrl) {
+        return uploadRoot().resolve(imageUrl.substring(URL_PREFIX.length())).normalize();
+    }
+    
+    /**
+     * Upload URL for a file under the upload directory.
+     */
+    String urlFor(Path file) {
+        return URL_PREFIX + uploadRoot().relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+    
+    Path uploadRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+    
+    static boolean isVariant(String fileName) {
+        return VARIANT_NAME.matcher(fileName).matches();
+    }
+    
+    static String variantUrl(String imageUrl, int width) {
+        int slash = imageUrl.lastIndexOf('/');
+        int dot = imageUrl.lastIndexOf('.');
+        String base = dot > slash ? imageUrl.substring(0, dot) : imageUrl;
+        return base + "-w" + width + ".jpg";
+    }
+    
+    private static boolean isUpload(String imageUrl) {
+        return imageUrl != null && imageUrl.startsWith(URL_PREFIX) && !imageUrl.contains("..");
+    }
+}
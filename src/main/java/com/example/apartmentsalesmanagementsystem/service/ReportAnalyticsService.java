@@ -0,0 +1,394 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentReport;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.entity.DailyActivityRollup;
+import com.example.apartmentsalesmanagementsystem.entity.DailyStatusTransitionRollup;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.index.AnalyticsColumns;
+import com.example.apartmentsalesmanagementsystem.index.ApartmentColumnStore;
+import com.example.apartmentsalesmanagementsystem.index.FacetCounts;
+import com.example.apartmentsalesmanagementsystem.repository.DailyActivityRollupRepository;
+import com.example.apartmentsalesmanagementsystem.repository.DailyAgentSalesRollupRepository;
+import com.example.apartmentsalesmanagementsystem.repository.DailyCityPriceRollupRepository;
+import com.example.apartmentsalesmanagementsystem.repository.DailyStatusTransitionRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the admin reports in the background so the reports page only reads a
+ * cached {@link ApartmentReport}.
+ *
+ * Price distributions (histogram, percentiles, median per city, price per square
+ * foot by bedroom count) come from a heap copy of the in-memory column store: rows
+ * are bucketed by group with a counting pass and each group is sorted in parallel,
+ * which gives exact medians without any database work. Time-based figures (monthly
+ * activity, new listings per city, agent sales volume) are summed from the daily
+ * rollup tables written by {@link DailyRollupService}, one report per configured
+ * window, so no report query scans the apartments or users tables. Apartment changes
+ * and new rollups mark the reports dirty; they are rebuilt on the next refresh tick,
+ * and at least every {@code app.reports.max-age-ms}.
+ */
+@Service
+public class ReportAnalyticsService {
+    
+    private static final int[] PERCENTILES = {10, 25, 50, 75, 90};
+    private static final int MAX_BEDROOM_GROUP = 5;
+    // Price per square foot is kept as hundredths of a cent so it sorts as a long
+    private static final int PER_SQUARE_FOOT_SCALE = 4;
+    
+    @Autowired
+    private ApartmentColumnStore apartmentColumnStore;
+    
+    @Autowired
+    private DailyActivityRollupRepository activityRollupRepository;
+    
+    @Autowired
+    private DailyStatusTransitionRollupRepository statusTransitionRollupRepository;
+    
+    @Autowired
+    private DailyCityPriceRollupRepository cityPriceRollupRepository;
+    
+    @Autowired
+    private DailyAgentSalesRollupRepository agentSalesRollupRepository;
+    
+    @Value("${app.facets.price-buckets:50000,100000,250000,500000,1000000}")
+    private BigDecimal[] priceEdges;
+    
+    @Value("${app.reports.windows-months:3,12,36}")
+    private int[] windows;
+    
+    @Value("${app.reports.default-window-months:12}")
+    private int defaultWindow;
+    
+    @Value("${app.reports.top-cities:50}")
+    private int topCities;
+    
+    @Value("${app.reports.top-agents:20}")
+    private int topAgents;
+    
+    @Value("${app.reports.max-age-ms:900000}")
+    private long maxAgeMillis;
+    
+    private final Map<Integer, ApartmentReport> reports = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile long lastRefreshMillis;
+    
+    /**
+     * Cached report for the given window in months; an unknown window falls back to
+     * the default. Only the very first call waits for a computation.
+     */
+    public ApartmentReport getReport(int months) {
+        int window = windowFor(months);
+        ApartmentReport report = reports.get(window);
+        if (report == null) {
+            synchronized (this) {
+                report = reports.get(window);
+                if (report == null) {
+                    refresh();
+                    report = reports.get(window);
+                }
+            }
+        }
+        return report;
+    }
+    
+    public int[] getWindows() {
+        return windows.clone();
+    }
+    
+    public int windowFor(int months) {
+        for (int window : windows) {
+            if (window == months) {
+                return window;
+            }
+        }
+        return defaultWindow;
+    }
+    
+    @EventListener
+    public void onApartmentChanged(ApartmentChangedEvent event) {
+        dirty.set(true);
+    }
+    
+    @EventListener
+    public void onApartmentsChanged(ApartmentBatchChangedEvent event) {
+        dirty.set(true);
+    }
+    
+    /**
+     * Rebuild on the next tick, e.g. after new rollups were written.
+     */
+    public void invalidate() {
+        dirty.set(true);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.reports.refresh-delay-ms:60000}")
+    public void refreshIfStale() {
+        if (dirty.get() || System.currentTimeMillis() - lastRefreshMillis >= maxAgeMillis) {
+            refresh();
+        }
+    }
+    
+    /**
+     * Recompute every window. Changes that arrive while this runs mark the reports
+     * dirty again, so they are picked up by the next tick.
+     */
+    public synchronized void refresh() {
+        dirty.set(false);
+        long start = System.currentTimeMillis();
+        try {
+            Distributions distributions = computeDistributions();
+            if (distributions == null) {
+                // Column store still loading; try again on the next tick
+                dirty.set(true);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (int window : windows) {
+                reports.put(window, buildReport(window, distributions, now, start));
+            }
+            if (!reports.containsKey(defaultWindow)) {
+                reports.put(defaultWindow, buildReport(defaultWindow, distributions, now, start));
+            }
+            lastRefreshMillis = System.currentTimeMillis();
+        } catch (Exception e) {
+            // Keep serving the previous reports; the next tick will try again
+            System.err.println("Error refreshing report analytics: " + e.getMessage());
+            dirty.set(true);
+        }
+    }
+    
+    private ApartmentReport buildReport(int months, Distributions distributions, LocalDateTime now, long start) {
+        ApartmentReport report = new ApartmentReport(months);
+        if (distributions != null) {
+            report.setDistributionsAvailable(true);
+            report.setListings(distributions.listings);
+            report.setPriceBuckets(distributions.priceBuckets);
+            report.setPricePercentiles(distributions.pricePercentiles);
+            report.setCityPrices(distributions.cityPrices);
+            report.setPricePerSquareFoot(distributions.pricePerSquareFoot);
+        }
+        
+        // Rollups cover closed days only, so the window ends yesterday
+        YearMonth firstMonth = YearMonth.from(now).minusMonths(months - 1);
+        LocalDate from = firstMonth.atDay(1);
+        LocalDate to = now.toLocalDate().minusDays(1);
+        report.setRolledUpThrough(activityRollupRepository.findTopByOrderByDayDesc().map(DailyActivityRollup::getDay).orElse(null));
+        report.setMonthlyActivity(monthlyActivity(firstMonth, YearMonth.from(now), from, to));
+        report.setNewListingsByCity(Collections.unmodifiableList(
+                cityPriceRollupRepository.sumByCityBetween(from, to, PageRequest.of(0, topCities))));
+        report.setAgentSales(Collections.unmodifiableList(
+                agentSalesRollupRepository.sumByOwnerBetween(from, to, PageRequest.of(0, topAgents))));
+        report.setGeneratedAt(now);
+        report.setComputeMillis(System.currentTimeMillis() - start);
+        return report;
+    }
+    
+    private List<ApartmentReport.MonthlyActivity> monthlyActivity(YearMonth first, YearMonth last, LocalDate from, LocalDate to) {
+        Map<YearMonth, long[]> totals = new TreeMap<>();
+        for (DailyActivityRollup day : activityRollupRepository.findByDayBetweenOrderByDay(from, to)) {
+            long[] month = totals.computeIfAbsent(YearMonth.from(day.getDay()), key -> new long[3]);
+            month[0] += day.getListingsCreated();
+            month[1] += day.getUsersCreated();
+            month[2] += day.getStatusChanges();
+        }
+        Map<YearMonth, Map<ApartmentStatus, Long>> entered = new TreeMap<>();
+        for (DailyStatusTransitionRollup transition : statusTransitionRollupRepository.findByDayBetweenOrderByDay(from, to)) {
+            entered.computeIfAbsent(YearMonth.from(transition.getDay()), key -> new EnumMap<>(ApartmentStatus.class))
+                    .merge(transition.getToStatus(), transition.getChanges(), Long::sum);
+        }
+        
+        List<ApartmentReport.MonthlyActivity> activity = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            long[] monthTotals = totals.getOrDefault(month, new long[3]);
+            Map<ApartmentStatus, Long> byStatus = new EnumMap<>(ApartmentStatus.class);
+            for (ApartmentStatus status : ApartmentStatus.values()) {
+                byStatus.put(status, entered.getOrDefault(month, Collections.emptyMap()).getOrDefault(status, 0L));
+            }
+            activity.add(new ApartmentReport.MonthlyActivity(month, monthTotals[0], monthTotals[1], monthTotals[2],
+                    Collections.unmodifiableMap(byStatus)));
+        }
+        return Collections.unmodifiableList(activity);
+    }
+    
+    /**
+     * Window-independent price figures from the column store, or null while it is loading.
+     */
+    private Distributions computeDistributions() {
+        AnalyticsColumns columns = apartmentColumnStore.analyticsColumns();
+        if (columns == null) {
+            return null;
+        }
+        int rows = columns.getRows();
+        long[] priceCents = columns.getPriceCents();
+        
+        Distributions distributions = new Distributions();
+        distributions.listings = rows;
+        
+        long[] sorted = Arrays.copyOf(priceCents, rows);
+        Arrays.parallelSort(sorted);
+        distributions.priceBuckets = priceBuckets(sorted);
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (int percentile : PERCENTILES) {
+            if (rows > 0) {
+                // Nearest-rank percentile
+                int rank = (int) Math.ceil(percentile / 100.0 * rows);
+                percentiles.put("p" + percentile, BigDecimal.valueOf(sorted[Math.max(0, rank - 1)], 2));
+            }
+        }
+        distributions.pricePercentiles = Collections.unmodifiableMap(percentiles);
+        
+        List<String> cityNames = columns.getCityNames();
+        int[] cityOffsets = new int[cityNames.size() + 1];
+        long[] byCity = groupAndSort(columns.getCities(), priceCents, rows, cityOffsets);
+        List<ApartmentReport.CityPrice> cityPrices = new ArrayList<>();
+        for (int city = 0; city < cityNames.size(); city++) {
+            int from = cityOffsets[city];
+            int to = cityOffsets[city + 1];
+            if (from < to) {
+                cityPrices.add(new ApartmentReport.CityPrice(cityNames.get(city), to - from,
+                        average(byCity, from, to, 2), median(byCity, from, to, 2)));
+            }
+        }
+        cityPrices.sort(Comparator.comparingLong(ApartmentReport.CityPrice::getListings).reversed()
+                .thenComparing(ApartmentReport.CityPrice::getCity));
+        distributions.cityPrices = Collections.unmodifiableList(cityPrices.subList(0, Math.min(topCities, cityPrices.size())));
+        
+        int[] bedroomGroups = new int[rows];
+        long[] perSquareFoot = new long[rows];
+        int[] bedrooms = columns.getBedrooms();
+        int[] squareFeet = columns.getSquareFeet();
+        for (int row = 0; row < rows; row++) {
+            if (squareFeet[row] > 0) {
+                bedroomGroups[row] = Math.max(0, Math.min(bedrooms[row], MAX_BEDROOM_GROUP));
+                perSquareFoot[row] = priceCents[row] * 100 / squareFeet[row];
+            } else {
+                bedroomGroups[row] = -1;
+            }
+        }
+        int[] bedroomOffsets = new int[MAX_BEDROOM_GROUP + 2];
+        long[] byBedrooms = groupAndSort(bedroomGroups, perSquareFoot, rows, bedroomOffsets);
+        List<ApartmentReport.BedroomPrice> bedroomPrices = new ArrayList<>();
+        for (int group = 0; group <= MAX_BEDROOM_GROUP; group++) {
+            int from = bedroomOffsets[group];
+            int to = bedroomOffsets[group + 1];
+            if (from < to) {
+                String label = group == 0 ? "Studio" : group == MAX_BEDROOM_GROUP ? group + "+" : String.valueOf(group);
+                bedroomPrices.add(new ApartmentReport.BedroomPrice(label, to - from,
+                        average(byBedrooms, from, to, PER_SQUARE_FOOT_SCALE), median(byBedrooms, from, to, PER_SQUARE_FOOT_SCALE)));
+            }
+        }
+        distributions.pricePerSquareFoot = Collections.unmodifiableList(bedroomPrices);
+        return distributions;
+    }
+    
+    /**
+     * Counts per configured price range, [edge(i-1), edge(i)), from sorted cents.
+     */
+    private List<FacetCounts.PriceBucket> priceBuckets(long[] sorted) {
+        List<FacetCounts.PriceBucket> buckets = new ArrayList<>();
+        int previousIndex = 0;
+        BigDecimal previousEdge = null;
+        for (BigDecimal edge : priceEdges) {
+            int index = lowerBound(sorted, edge.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+            buckets.add(new FacetCounts.PriceBucket(previousEdge, edge, index - previousIndex));
+            previousIndex = index;
+            previousEdge = edge;
+        }
+        buckets.add(new FacetCounts.PriceBucket(previousEdge, null, sorted.length - previousIndex));
+        return Collections.unmodifiableList(buckets);
+    }
+    
+    /**
+     * Counting sort of values by group (negative groups are dropped), then each group
+     * sorted in parallel. Fills offsets so group g occupies [offsets[g], offsets[g + 1]).
+     */
+    private static long[] groupAndSort(int[] groups, long[] values, int rows, int[] offsets) {
+        for (int row = 0; row < rows; row++) {
+            if (groups[row] >= 0) {
+                offsets[groups[row] + 1]++;
+            }
+        }
+        for (int group = 1; group < offsets.length; group++) {
+            offsets[group] += offsets[group - 1];
+        }
+        long[] grouped = new long[offsets[offsets.length - 1]];
+        int[] cursor = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int row = 0; row < rows; row++) {
+            if (groups[row] >= 0) {
+                grouped[cursor[groups[row]]++] = values[row];
+            }
+        }
+        IntStream.range(0, offsets.length - 1).parallel()
+                .forEach(group -> Arrays.sort(grouped, offsets[group], offsets[group + 1]));
+        return grouped;
+    }
+    
+    private static int lowerBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private static BigDecimal median(long[] sorted, int from, int to, int scale) {
+        int middle = from + (to - from) / 2;
+        BigDecimal median = (to - from) % 2 == 1
+                ? BigDecimal.valueOf(sorted[middle])
+                : BigDecimal.valueOf(sorted[middle - 1]).add(BigDecimal.valueOf(sorted[middle])).divide(BigDecimal.valueOf(2));
+        return median.movePointLeft(scale).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    private static BigDecimal average(long[] values, int from, int to, int scale) {
+        BigDecimal sum = BigDecimal.ZERO;
+        long partial = 0;
+        for (int i = from; i < to; i++) {
+            // Accumulate in a long and spill to BigDecimal before it could overflow
+            if (Math.abs(partial) > Long.MAX_VALUE / 2) {
+                sum = sum.add(BigDecimal.valueOf(partial));
+                partial = 0;
+            }
+            partial += values[i];
+        }
+        sum = sum.add(BigDecimal.valueOf(partial));
+        return sum.movePointLeft(scale).divide(BigDecimal.valueOf(to - from), 2, RoundingMode.HALF_UP);
+    }
+    
+    private static class Distributions {
+        private long listings;
+        private List<FacetCounts.PriceBucket> priceBuckets;
+        private Map<String, BigDecimal> pricePercentiles;
+        private List<ApartmentReport.CityPrice> cityPrices;
+        private List<ApartmentReport.BedroomPrice> pricePerSquareFoot;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.cache.HotImageCache;
+import com.example.apartmentsalesmanagementsystem.event.ImageStoredEvent;
+import com.example.apartmentsalesmanagementsystem.security.LatencyHistogram;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Background generation of resized JPEG variants (see {@link ImageVariants}) for
+ * uploaded images, using only ImageIO and Java2D.
+ *
+ * Work is admitted through a semaphore sized to the worker count plus the queue
+ * capacity, so at most that many images are pending at once. Uploads that find the
+ * pipeline full are counted as rejected and keep serving the original until the
+ * next regeneration. {@link #regenerateAll()} instead blocks for capacity and never
+ * holds more than one slot per worker, leaving the queue free for new uploads.
+ */
+@Service
+public class ThumbnailService {
+    
+    private static final float JPEG_QUALITY = 0.8f;
+    
+    @Autowired
+    private ImageVariants imageVariants;
+    
+    @Autowired
+    private HotImageCache hotImageCache;
+    
+    @Value("${app.thumbnails.max-pixels:100000000}")
+    private long maxPixels;
+    
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final Semaphore backfillSlots;
+    private final int queueCapacity;
+    
+    private final LatencyHistogram generationLatency = new LatencyHistogram();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicBoolean regenerating = new AtomicBoolean();
+    private final AtomicLong regenerationQueued = new AtomicLong();
+    
+    public ThumbnailService(@Value("${app.thumbnails.threads:2}") int threads,
+                            @Value("${app.thumbnails.queue-capacity:256}") int queueCapacity) {
+        int workers = Math.max(1, threads);
+        this.queueCapacity = queueCapacity;
+        this.capacity = new Semaphore(workers + Math.max(0, queueCapacity));
+        this.backfillSlots = new Semaphore(workers);
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Interactive request threads come first
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+    
+    @EventListener
+    public void onImageStored(ImageStoredEvent event) {
+        if (!capacity.tryAcquire()) {
+            rejected.incrementAndGet();
+            return;
+        }
+        submit(event.getImageUrl(), false);
+    }
+    
+    /**
+     * Queue variant generation for every original under the upload directory, on a
+     * background thread. Returns false if a regeneration is already running.
+     */
+    public boolean regenerateAll() {
+        if (!regenerating.compareAndSet(false, true)) {
+            return false;
+        }
+        regenerationQueued.set(0);
+        Thread feeder = new Thread(() -> {
+            Path root = imageVariants.uploadRoot();
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(Files::isRegularFile)
+                        .filter(file -> {
+                            String name = file.getFileName().toString();
+                            return !name.startsWith(".") && !ImageVariants.isVariant(name);
+                        })
+                        .forEach(file -> {
+                            try {
+                                backfillSlots.acquire();
+                                capacity.acquire();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IllegalStateException("Regeneration interrupted", e);
+                            }
+                            submit(imageVariants.urlFor(file), true);
+                            regenerationQueued.incrementAndGet();
+                        });
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Thumbnail regeneration stopped: " + e.getMessage());
+            } finally {
+                regenerating.set(false);
+            }
+            System.out.println("Thumbnail regeneration queued " + regenerationQueued.get() + " images");
+        }, "thumbnail-regeneration");
+        feeder.setDaemon(true);
+        feeder.start();
+        return true;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", executor.getMaximumPoolSize());
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("availableSlots", capacity.availablePermits());
+        stats.put("submitted", submitted.get());
+        stats.put("completed", completed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("failed", failed.get());
+        stats.put("regenerating", regenerating.get());
+        stats.put("regenerationQueued", regenerationQueued.get());
+        stats.put("generation", generationLatency.snapshot());
+        stats.put("queueWait", queueWait.snapshot());
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void submit(String imageUrl, boolean backfill) {
+        submitted.incrementAndGet();
+        long submittedAt = System.nanoTime();
+        executor.execute(() -> {
+            long startedAt = System.nanoTime();
+            queueWait.record(startedAt - submittedAt);
+            try {
+                generate(imageUrl);
+                imageVariants.markReady(imageUrl);
+                completed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                System.err.println("Could not generate variants for " + imageUrl + ": " + e.getMessage());
+            } finally {
+                generationLatency.record(System.nanoTime() - startedAt);
+                capacity.release();
+                if (backfill) {
+                    backfillSlots.release();
+                }
+            }
+        });
+    }
+    
+    private void generate(String imageUrl) throws IOException {
+        BufferedImage original = readOriginal(imageVariants.originalPath(imageUrl));
+        BufferedImage source = toRgb(original);
+        // Largest first so each smaller size is scaled from the previous one
+        for (int i = ImageVariants.WIDTHS.length - 1; i >= 0; i--) {
+            source = resize(source, ImageVariants.WIDTHS[i]);
+            writeJpeg(source, imageVariants.variantPath(imageUrl, ImageVariants.WIDTHS[i]));
+            hotImageCache.invalidateUrl(ImageVariants.variantUrl(imageUrl, ImageVariants.WIDTHS[i]));
+        }
+        writeJpeg(resize(source, ImageVariants.PLACEHOLDER_WIDTH), imageVariants.variantPath(imageUrl, ImageVariants.PLACEHOLDER_WIDTH));
+        hotImageCache.invalidateUrl(ImageVariants.variantUrl(imageUrl, ImageVariants.PLACEHOLDER_WIDTH));
+    }
+    
+    /**
+     * Decode an original, checking its dimensions from the header first so a small
+     * file that declares a huge image is rejected before any pixels are allocated.
+     * Originals much wider than the largest variant are subsampled while decoding.
+     */
+    private BufferedImage readOriginal(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("unreadable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || (long) width * height > maxPixels) {
+                    throw new IOException("image is " + width + "x" + height + ", over the " + maxPixels + " pixel limit");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least twice the largest variant so the halving resize still has detail to work with
+                int step = Math.max(1, width / (2 * ImageVariants.WIDTHS[ImageVariants.WIDTHS.length - 1]));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    /**
+     * Scale to the target width, halving step by step first so large downscales
+     * stay smooth with bilinear filtering. Never upscales.
+     */
+    private static BufferedImage resize(BufferedImage image, int targetWidth) {
+        BufferedImage current = image;
+        while (current.getWidth() > targetWidth) {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(1, (int) Math.round((double) current.getHeight() * width / current.getWidth()));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = scaled;
+        }
+        return current;
+    }
+    
+    /**
+     * JPEG has no alpha channel; flatten transparency onto white.
+     */
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+    
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = target.resolveSibling("." + target.getFileName() + ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import com.example.apartmentsalesmanagementsystem.cache.HotImageCache;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import com.example.apartmentsalesmanagementsystem.repository.ImageBlobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Scheduled sweeper that removes upload files no apartment or image blob refers to:
+ * originals left behind by failed saves or replaced images, variants and .gz/.br
+ * copies whose original is gone, and abandoned temp files.
+ *
+ * The upload tree is walked in sorted order, one directory at a time with a
+ * {@link DirectoryStream}, and each run visits at most {@code app.upload-gc.batch-size}
+ * files before saving its position to a checkpoint file under the upload directory.
+ * The next run (or the next start of the application) resumes after that position,
+ * so a very large tree is swept in slices on the scheduler thread. The set of
+ * referenced URLs is read in keyset-paged batches once per full pass; it only
+ * filters candidates, and every deletion is re-checked against the database through
+ * {@link ImageStorageService#deleteIfUnreferenced}. Nothing younger than the grace
+ * period is touched, which covers uploads whose apartment is still being saved.
+ */
+@Service
+public class UploadGarbageCollector {
+    
+    private static final String URL_PREFIX = "/uploads/";
+    private static final String CHECKPOINT_FILE = ".gc-checkpoint";
+    private static final int REFERENCE_BATCH = 5000;
+    // Precompressed copies served in place of their original by the resource chain
+    private static final String[] ENCODED_SUFFIXES = {".gz", ".br"};
+    
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+    
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+    
+    @Autowired
+    private ImageStorageService imageStorageService;
+    
+    @Autowired
+    private ImageVariants imageVariants;
+    
+    @Autowired
+    private HotImageCache hotImageCache;
+    
+    @Value("${app.upload-gc.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.upload-gc.batch-size:10000}")
+    private int batchSize;
+    
+    @Value("${app.upload-gc.grace-hours:24}")
+    private long graceHours;
+    
+    // Relative paths of referenced uploads for the current pass; null until loaded
+    private Set<String> referenced;
+    
+    private final AtomicLong passesCompleted = new AtomicLong();
+    private final AtomicLong filesScanned = new AtomicLong();
+    private final AtomicLong orphansDeleted = new AtomicLong();
+    private final AtomicLong variantsDeleted = new AtomicLong();
+    private final AtomicLong encodedDeleted = new AtomicLong();
+    private final AtomicLong tempFilesDeleted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private final AtomicLong skippedRecent = new AtomicLong();
+    private volatile String lastCheckpoint;
+    private volatile long lastRunMillis;
+    
+    @Scheduled(fixedDelayString = "${app.upload-gc.interval-ms:600000}", initialDelayString = "${app.upload-gc.initial-delay-ms:600000}")
+    public synchronized void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Path root = imageVariants.uploadRoot();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try {
+            String checkpoint = readCheckpoint(root);
+            if (checkpoint == null || referenced == null) {
+                referenced = loadReferenced();
+            }
+            Slice slice = new Slice(checkpoint, Math.max(1, batchSize), start - Duration.ofHours(graceHours).toMillis());
+            boolean finished = walk(root, root, slice);
+            if (finished) {
+                passesCompleted.incrementAndGet();
+                referenced = null;
+                writeCheckpoint(root, null);
+                lastCheckpoint = null;
+            } else {
+                writeCheckpoint(root, slice.lastVisited);
+                lastCheckpoint = slice.lastVisited;
+            }
+        } catch (IOException | RuntimeException e) {
+            // The checkpoint is unchanged, so the next run retries this slice
+            System.err.println("Upload garbage collection stopped: " + e.getMessage());
+        } finally {
+            lastRunMillis = System.currentTimeMillis() - start;
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("batchSize", batchSize);
+        stats.put("graceHours", graceHours);
+        stats.put("passesCompleted", passesCompleted.get());
+        stats.put("filesScanned", filesScanned.get());
+        stats.put("orphansDeleted", orphansDeleted.get());
+        stats.put("variantsDeleted", variantsDeleted.get());
+        stats.put("encodedDeleted", encodedDeleted.get());
+        stats.put("tempFilesDeleted", tempFilesDeleted.get());
+        stats.put("bytesReclaimed", bytesReclaimed.get());
+        stats.put("skippedRecent", skippedRecent.get());
+        stats.put("checkpoint", lastCheckpoint);
+        stats.put("lastRunMillis", lastRunMillis);
+        return stats;
+    }
+    
+    /**
+     * Visit the directory's entries in name order, skipping everything at or before
+     * the checkpoint. Returns false once the slice's file budget is used up.
+     */
+    private boolean walk(Path root, Path directory, Slice slice) throws IOException {
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path child : stream) {
+                children.add(child);
+            }
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+        children.sort(Comparator.comparing(child -> child.getFileName().toString()));
+        NavigableSet<String> names = new TreeSet<>();
+        for (Path child : children) {
+            names.add(child.getFileName().toString());
+        }
+        
+        for (Path child : children) {
+            String relative = root.relativize(child).toString().replace('\\', '/');
+            // Already swept this pass, unless it is a directory on the way to the checkpoint
+            if (slice.checkpoint != null && comparePaths(relative, slice.checkpoint) <= 0
+                    && !slice.checkpoint.startsWith(relative + "/")) {
+                continue;
+            }
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(child, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            if (attributes.isDirectory()) {
+                if (!walk(root, child, slice)) {
+                    return false;
+                }
+                continue;
+            }
+            if (!attributes.isRegularFile()) {
+                continue;
+            }
+            
+            examine(child, relative, attributes, names, slice);
+            filesScanned.incrementAndGet();
+            slice.lastVisited = relative;
+            if (--slice.remaining == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void examine(Path file, String relative, BasicFileAttributes attributes, NavigableSet<String> siblings, Slice slice) {
+        String name = file.getFileName().toString();
+        if (name.startsWith(CHECKPOINT_FILE) || referenced.contains(relative)) {
+            return;
+        }
+        if (attributes.lastModifiedTime().toMillis() > slice.cutoffMillis) {
+            skippedRecent.incrementAndGet();
+            return;
+        }
+        long size = attributes.size();
+        String url = URL_PREFIX + relative;
+        String encodedFrom = encodedOriginal(name);
+        try {
+            if (name.startsWith(".")) {
+                // Upload or thumbnail temp file that was never moved into place
+                if (Files.deleteIfExists(file)) {
+                    tempFilesDeleted.incrementAndGet();
+                    bytesReclaimed.addAndGet(size);
+                }
+            } else if (encodedFrom != null) {
+                // Lives as long as the file it is a compressed copy of
+                if (!siblings.contains(encodedFrom) && Files.deleteIfExists(file)) {
+                    encodedDeleted.incrementAndGet();
+                    bytesReclaimed.addAndGet(size);
+                }
+            } else if (ImageVariants.isVariant(name)) {
+                if (!hasOriginal(name, siblings) && Files.deleteIfExists(file)) {
+                    hotImageCache.invalidateUrl(url);
+                    variantsDeleted.incrementAndGet();
+                    bytesReclaimed.addAndGet(size);
+                }
+            } else if (imageStorageService.deleteIfUnreferenced(url)) {
+                orphansDeleted.incrementAndGet();
+                bytesReclaimed.addAndGet(size);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not delete orphaned upload " + relative + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Name of the file a {@code .gz} or {@code .br} copy was compressed from, or null.
+     */
+    private static String encodedOriginal(String name) {
+        for (String suffix : ENCODED_SUFFIXES) {
+            if (name.endsWith(suffix) && name.length() > suffix.length()) {
+                return name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Whether a variant's original ({@code <base>.<ext>}) is in the same directory.
+     */
+    private static boolean hasOriginal(String variantName, NavigableSet<String> siblings) {
+        String prefix = variantName.substring(0, variantName.lastIndexOf("-w")) + ".";
+        for (String sibling : siblings.tailSet(prefix, true)) {
+            if (!sibling.startsWith(prefix)) {
+                return false;
+            }
+            if (!ImageVariants.isVariant(sibling)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Relative paths of every upload still referenced by an apartment or a blob
+     * with live references, read in keyset-ordered batches.
+     */
+    private Set<String> loadReferenced() {
+        Set<String> urls = new HashSet<>();
+        addAll(urls, apartmentRepository::findImageUrlsAfter);
+        addAll(urls, imageBlobRepository::findReferencedUrlsAfter);
+        return urls;
+    }
+    
+    private static void addAll(Set<String> target, BiFunction<String, PageRequest, List<String>> batchQuery) {
+        String after = "";
+        List<String> batch;
+        do {
+            batch = batchQuery.apply(after, PageRequest.of(0, REFERENCE_BATCH));
+            for (String url : batch) {
+                if (url.startsWith(URL_PREFIX)) {
+                    target.add(url.substring(URL_PREFIX.length()));
+                }
+            }
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == REFERENCE_BATCH);
+    }
+    
+    /**
+     * Order relative paths component by component, matching the sorted walk.
+     */
+    private static int comparePaths(String a, String b) {
+        String[] left = a.split("/");
+        String[] right = b.split("/");
+        for (int i = 0; i < Math.min(left.length, right.length); i++) {
+            int cmp = left[i].compareTo(right[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+    
+    private static String readCheckpoint(Path root) throws IOException {
+        Path file = root.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String value = Files.readString(file, StandardCharsets.UTF_8).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static void writeCheckpoint(Path root, String checkpoint) throws IOException {
+        Path file = root.resolve(CHECKPOINT_FILE);
+        if (checkpoint == null) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Path temp = root.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, checkpoint, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Position and budget of one run.
+     */
+    private static final class Slice {
+        
+        private final String checkpoint;
+        private final long cutoffMillis;
+        private int remaining;
+        private String lastVisited;
+        
+        Slice(String checkpoint, int budget, long cutoffMillis) {
+            this.checkpoint = checkpoint;
+            this.remaining = budget;
+            this.cutoffMillis = cutoffMillis;
+            this.lastVisited = checkpoint;
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.apartmentsalesmanagementsystem.service;
 
+import com.example.apartmentsalesmanagementsystem.cache.AgentDirectoryCache;
+import com.example.apartmentsalesmanagementsystem.cache.AuthenticationCache;
+import com.example.apartmentsalesmanagementsystem.dto.AgentSummary;
+import com.example.apartmentsalesmanagementsystem.dto.UserStatistics;
 import com.example.apartmentsalesmanagementsystem.entity.User;
 import com.example.apartmentsalesmanagementsystem.entity.UserRole;
 import com.example.apartmentsalesmanagementsystem.entity.Parking;
+import com.example.apartmentsalesmanagementsystem.event.UserChangedEvent;
 import com.example.apartmentsalesmanagementsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -34,11 +42,21 @@ public class UserService implements UserDetailsService {
     @Autowired
     private ParkingService parkingService;
     
+    @Autowired
+    private AgentDirectoryCache agentDirectoryCache;
+    
+    @Autowired
+    private AuthenticationCache authenticationCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<User> user = userRepository.findByUsername(username);
-        if (user.isPresent()) {
-            return user.get();
+        // Served from the authentication cache; the returned User is a detached copy
+        User user = authenticationCache.get(username, name -> userRepository.findByUsername(name).orElse(null));
+        if (user != null) {
+            return user;
         } else {
             throw new UsernameNotFoundException("User not found with username: " + username);
         }
@@ -59,6 +77,7 @@ public class UserService implements UserDetailsService {
         
         // Save the user first
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(savedUser));
         
         // Automatically assign parking slot to new customers
         if (savedUser.getRole() == UserRole.CLIENT) {
@@ -74,7 +93,7 @@ public class UserService implements UserDetailsService {
         if (user.getPassword() != null && !user.getPassword().startsWith("$2a$")) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        return publishChanged(userRepository.save(user));
     }
     
     public Optional<User> findById(Long id) {
@@ -118,15 +137,21 @@ public class UserService implements UserDetailsService {
     }
     
     public void deleteUser(Long id) {
+        // Capture what the user was counted under so listeners can subtract it
+        UserChangedEvent.State previous = userRepository.findById(id).map(UserChangedEvent.State::of).orElse(null);
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(previous != null
+                ? UserChangedEvent.deleted(id, previous)
+                : new UserChangedEvent(id, null));
     }
     
     public void deactivateUser(Long id) {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
+            UserChangedEvent.State previous = UserChangedEvent.State.of(user);
             user.setActive(false);
-            userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.updated(userRepository.save(user), previous));
         }
     }
     
@@ -134,8 +159,9 @@ public class UserService implements UserDetailsService {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
+            UserChangedEvent.State previous = UserChangedEvent.State.of(user);
             user.setActive(true);
-            userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.updated(userRepository.save(user), previous));
         }
     }
     
@@ -148,19 +174,46 @@ public class UserService implements UserDetailsService {
     }
     
     public long getActiveUsersCount() {
-        return userRepository.findByIsActive(true).size();
+        return userRepository.countByIsActive(true);
+    }
+    
+    /**
+     * All user counts (total, active, per role, per management role) from two grouped queries
+     */
+    public UserStatistics getUserStatistics() {
+        return new UserStatistics(userRepository.countGroupedByRoleAndActive(),
+                                  userRepository.countGroupedByManagementRole());
     }
     
     public List<User> findUsersByManagementRole(ManagementRole managementRole) {
         return userRepository.findByManagementRolesContaining(managementRole);
     }
     
+    /**
+     * All agents, served from the cached directory
+     */
+    public List<AgentSummary> findAgents() {
+        return agentDirectoryCache.getAgents();
+    }
+    
+    /**
+     * One page of agents straight from the database
+     */
+    public Page<AgentSummary> findAgents(Pageable pageable) {
+        return userRepository.findSummariesByManagementRole(ManagementRole.AGENT, pageable);
+    }
+    
+    public long countUsersByManagementRole(ManagementRole managementRole) {
+        return userRepository.countByManagementRolesContaining(managementRole);
+    }
+    
     /**
      * Clear all users from the database (for development/testing purposes)
      * WARNING: This will delete all user data!
      */
     public void clearAllUsers() {
         userRepository.deleteAll();
+        eventPublisher.publishEvent(UserChangedEvent.allUsers());
     }
     
     /**
@@ -201,11 +254,16 @@ public class UserService implements UserDetailsService {
             System.out.println("Successfully assigned parking space " + firstAvailable.getSpaceNumber() + 
                              " to new customer: " + user.getUsername());
             return true;
-            
+        
         } catch (Exception e) {
             // Log the error but don't fail the user creation process
             System.err.println("Error assigning parking slot to new customer " + user.getUsername() + ": " + e.getMessage());
             return false;
         }
     }
+    
+    private User publishChanged(User saved) {
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), saved.getUsername()));
+        return saved;
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.apartmentsalesmanagementsystem.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApartmentCursorTest {
+    
+    @Test
+    void roundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 9, 14, 5, 7, 123_456_789);
+        ApartmentCursor decoded = ApartmentCursor.decode(new ApartmentCursor(createdAt, 42L).encode());
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+    }
+    
+    @Test
+    void roundTripWholeSecondsAndLargeIds() {
+        // LocalDateTime.toString drops zero seconds; parsing must still accept it
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        ApartmentCursor decoded = ApartmentCursor.decode(new ApartmentCursor(createdAt, Long.MAX_VALUE).encode());
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(Long.MAX_VALUE, decoded.getId());
+    }
+    
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new ApartmentCursor(LocalDateTime.of(2023, 12, 31, 23, 59, 59, 999_000_000), 1234567L).encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+    
+    @Test
+    void blankAndMalformedTokensDecodeToNull() {
+        assertNull(ApartmentCursor.decode(null));
+        assertNull(ApartmentCursor.decode(""));
+        assertNull(ApartmentCursor.decode("   "));
+        assertNull(ApartmentCursor.decode("not base64!"));
+        assertNull(ApartmentCursor.decode(encodeRaw("2024-01-01T00:00")));
+        assertNull(ApartmentCursor.decode(encodeRaw("|42")));
+        assertNull(ApartmentCursor.decode(encodeRaw("yesterday|42")));
+        assertNull(ApartmentCursor.decode(encodeRaw("2024-01-01T00:00|forty-two")));
+    }
+    
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
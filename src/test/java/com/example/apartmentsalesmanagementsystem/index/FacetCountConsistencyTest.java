@@ -0,0 +1,223 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import com.example.apartmentsalesmanagementsystem.dto.ApartmentFilter;
+import com.example.apartmentsalesmanagementsystem.entity.Apartment;
+import com.example.apartmentsalesmanagementsystem.entity.ApartmentStatus;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentBatchChangedEvent;
+import com.example.apartmentsalesmanagementsystem.event.ApartmentChangedEvent;
+import com.example.apartmentsalesmanagementsystem.repository.ApartmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Clicking a facet must return exactly as many listings as the facet showed, so every
+ * count is checked against the column store answering the same filter.
+ */
+class FacetCountConsistencyTest {
+    
+    // Spellings of one city plus listings without a city
+    private static final String[] CITIES = {"Colombo", "colombo ", " COLOMBO", "Kandy", "kandy", "Galle", null, "  "};
+    
+    private static final BigDecimal[] PRICE_EDGES = {new BigDecimal("50000"), new BigDecimal("100000"), new BigDecimal("250000")};
+    
+    private static final int APARTMENTS = 3000;
+    
+    private final ApartmentFacetIndex facetIndex = new ApartmentFacetIndex();
+    private final ApartmentColumnStore columnStore = new ApartmentColumnStore();
+    private final List<Apartment> apartments = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= APARTMENTS; id++) {
+            apartments.add(randomApartment(id, random));
+        }
+        ApartmentRepository repository = mock(ApartmentRepository.class);
+        when(repository.findBatchAfterId(eq(0L), any(Pageable.class))).thenReturn(apartments);
+        
+        ReflectionTestUtils.setField(facetIndex, "apartmentRepository", repository);
+        ReflectionTestUtils.setField(facetIndex, "priceEdges", PRICE_EDGES);
+        ReflectionTestUtils.setField(columnStore, "apartmentRepository", repository);
+        facetIndex.rebuild();
+        columnStore.rebuild();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        columnStore.close();
+    }
+    
+    @Test
+    void cityFacetsMatchFilteredResults() {
+        for (ApartmentFilter base : baseFilters()) {
+            FacetCounts counts = facetIndex.counts(base);
+            assertNotNull(counts);
+            for (FacetCounts.FacetValue city : counts.getCities()) {
+                ApartmentFilter filter = copy(base);
+                filter.setCity(city.getValue());
+                assertEquals(city.getCount(), total(filter), "city " + city.getValue());
+                assertEquals(city.getCount(), facetIndex.counts(filter).getTotal(), "total for city " + city.getValue());
+            }
+        }
+    }
+    
+    @Test
+    void citySpellingsShareOneFacet() {
+        ApartmentFilter filter = new ApartmentFilter();
+        filter.setStatus(null);
+        long colombo = apartments.stream()
+                .filter(apartment -> "colombo".equals(ApartmentFilter.cityKey(apartment.getCity())))
+                .count();
+        
+        List<FacetCounts.FacetValue> cities = facetIndex.counts(filter).getCities();
+        assertEquals(3, cities.size());
+        for (String spelling : new String[] {"Colombo", "COLOMBO", " colombo "}) {
+            filter.setCity(spelling);
+            assertEquals(colombo, facetIndex.counts(filter).getTotal(), spelling);
+            assertEquals(colombo, total(filter), spelling);
+        }
+    }
+    
+    @Test
+    void priceBucketsMatchFilteredResults() {
+        for (ApartmentFilter base : baseFilters()) {
+            for (FacetCounts.PriceBucket bucket : facetIndex.counts(base).getPriceBuckets()) {
+                ApartmentFilter filter = copy(base);
+                filter.setMinPrice(bucket.getMin());
+                filter.setMaxPrice(bucket.getMaxInclusive());
+                assertEquals(bucket.getCount(), total(filter), bucket.getLabel());
+            }
+        }
+    }
+    
+    @Test
+    void countsStillMatchAfterDeletes() {
+        // Enough deletes for the column store to compact its tombstones
+        for (int i = 0; i < APARTMENTS; i += 2) {
+            ApartmentChangedEvent event = ApartmentChangedEvent.deleted(apartments.get(i));
+            facetIndex.onApartmentChanged(event);
+            columnStore.onApartmentChanged(event);
+        }
+        for (ApartmentFilter base : baseFilters()) {
+            assertEquals(facetIndex.counts(base).getTotal(), total(base));
+            for (FacetCounts.FacetValue city : facetIndex.counts(base).getCities()) {
+                ApartmentFilter filter = copy(base);
+                filter.setCity(city.getValue());
+                assertEquals(city.getCount(), total(filter), "city " + city.getValue());
+            }
+        }
+    }
+    
+    @Test
+    void countsStillMatchAfterBatch() {
+        // Imported rows, edits and deletes in one batch, some touching the same id twice
+        SplittableRandom random = new SplittableRandom(7);
+        List<ApartmentChangedEvent> changes = new ArrayList<>();
+        for (long id = APARTMENTS + 1; id <= APARTMENTS + 500; id++) {
+            changes.add(ApartmentChangedEvent.saved(randomApartment(id, random)));
+        }
+        for (int i = 0; i < 300; i++) {
+            Apartment apartment = apartments.get(random.nextInt(APARTMENTS));
+            changes.add(random.nextBoolean()
+                    ? ApartmentChangedEvent.deleted(apartment)
+                    : ApartmentChangedEvent.saved(randomApartment(apartment.getId(), random)));
+        }
+        changes.add(ApartmentChangedEvent.deleted(randomApartment(APARTMENTS + 10, random)));
+        ApartmentBatchChangedEvent event = new ApartmentBatchChangedEvent(changes);
+        facetIndex.onApartmentsChanged(event);
+        columnStore.onApartmentsChanged(event);
+        
+        for (ApartmentFilter base : baseFilters()) {
+            assertEquals(facetIndex.counts(base).getTotal(), total(base));
+            for (FacetCounts.FacetValue city : facetIndex.counts(base).getCities()) {
+                ApartmentFilter filter = copy(base);
+                filter.setCity(city.getValue());
+                assertEquals(city.getCount(), total(filter), "city " + city.getValue());
+            }
+        }
+    }
+    
+    private long total(ApartmentFilter filter) {
+        ColumnQueryResult result = columnStore.query(filter, ApartmentColumnStore.SORT_NEWEST, 0, 1);
+        assertNotNull(result);
+        return result.getTotal();
+    }
+    
+    private static List<ApartmentFilter> baseFilters() {
+        List<ApartmentFilter> filters = new ArrayList<>();
+        filters.add(new ApartmentFilter());
+        
+        ApartmentFilter anyStatus = new ApartmentFilter();
+        anyStatus.setStatus(null);
+        filters.add(anyStatus);
+        
+        ApartmentFilter roomy = new ApartmentFilter();
+        roomy.setMinBedrooms(2);
+        roomy.setMinBathrooms(2);
+        roomy.setMinSquareFeet(800);
+        roomy.setMaxSquareFeet(2500);
+        filters.add(roomy);
+        
+        // Bounds that cut through a bucket, one of them on an edge
+        ApartmentFilter priced = new ApartmentFilter();
+        priced.setStatus(null);
+        priced.setMinPrice(new BigDecimal("75000.50"));
+        priced.setMaxPrice(new BigDecimal("250000"));
+        filters.add(priced);
+        return filters;
+    }
+    
+    private static ApartmentFilter copy(ApartmentFilter filter) {
+        ApartmentFilter copy = new ApartmentFilter();
+        copy.setCity(filter.getCity());
+        copy.setMinBedrooms(filter.getMinBedrooms());
+        copy.setMinBathrooms(filter.getMinBathrooms());
+        copy.setMinPrice(filter.getMinPrice());
+        copy.setMaxPrice(filter.getMaxPrice());
+        copy.setMinSquareFeet(filter.getMinSquareFeet());
+        copy.setMaxSquareFeet(filter.getMaxSquareFeet());
+        copy.setStatus(filter.getStatus());
+        return copy;
+    }
+    
+    private static Apartment randomApartment(long id, SplittableRandom random) {
+        Apartment apartment = new Apartment();
+        apartment.setId(id);
+        apartment.setCity(CITIES[random.nextInt(CITIES.length)]);
+        apartment.setBedrooms(random.nextInt(0, 5));
+        apartment.setBathrooms(random.nextInt(1, 4));
+        apartment.setSquareFeet(random.nextInt(300, 3000));
+        apartment.setStatus(ApartmentStatus.values()[random.nextInt(ApartmentStatus.values().length)]);
+        apartment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        // Prices on, one cent below and between the bucket edges
+        BigDecimal price;
+        switch (random.nextInt(4)) {
+            case 0:
+                price = PRICE_EDGES[random.nextInt(PRICE_EDGES.length)];
+                break;
+            case 1:
+                price = PRICE_EDGES[random.nextInt(PRICE_EDGES.length)].subtract(new BigDecimal("0.01"));
+                break;
+            default:
+                price = BigDecimal.valueOf(random.nextLong(1_000_000, 40_000_000), 2);
+        }
+        apartment.setPrice(price);
+        return apartment;
+    }
+}
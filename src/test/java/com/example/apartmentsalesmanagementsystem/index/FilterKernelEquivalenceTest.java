@@ -0,0 +1,173 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The vector kernel must produce exactly the scalar kernel's bitmap, including the
+ * tail rows that do not fill a whole vector and the unused bits of the last word.
+ */
+class FilterKernelEquivalenceTest {
+    
+    // Around lane and word boundaries for every vector width, plus a few larger tables
+    private static final int[] ROW_COUNTS = {0, 1, 2, 3, 7, 8, 9, 15, 16, 17, 31, 33, 63, 64, 65, 127, 129, 1000, 4099};
+    
+    private static final int PREDICATES_PER_TABLE = 200;
+    
+    private final FilterKernel scalar = new ScalarFilterKernel();
+    private final FilterKernel vector = new VectorFilterKernel();
+    
+    @Test
+    void vectorMatchesScalarOnRandomColumns() {
+        SplittableRandom random = new SplittableRandom(20240611);
+        for (int rows : ROW_COUNTS) {
+            try (Arena arena = Arena.ofConfined()) {
+                FilterKernel.Columns columns = randomColumns(arena, rows, random);
+                for (int i = 0; i < PREDICATES_PER_TABLE; i++) {
+                    assertSameBitmap(columns, rows, randomPredicate(random));
+                }
+            }
+        }
+    }
+    
+    @Test
+    void wildcardsAndExtremeBoundsAgree() {
+        SplittableRandom random = new SplittableRandom(7);
+        ScanPredicate[] predicates = {
+            // Everything live
+            new ScanPredicate(ScanPredicate.ANY_STATUS, ScanPredicate.ANY_CITY, Long.MIN_VALUE, Long.MAX_VALUE,
+                              Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE),
+            // Bounds at the very ends of each type
+            new ScanPredicate(ScanPredicate.ANY_STATUS, ScanPredicate.ANY_CITY, Long.MAX_VALUE, Long.MAX_VALUE,
+                              Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE),
+            new ScanPredicate(ScanPredicate.ANY_STATUS, ScanPredicate.ANY_CITY, Long.MIN_VALUE, Long.MIN_VALUE,
+                              Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE),
+            new ScanPredicate((byte) 0, ScanPredicate.ANY_CITY, Long.MIN_VALUE + 1, Long.MAX_VALUE - 1,
+                              Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE),
+            new ScanPredicate(ScanPredicate.ANY_STATUS, 0, Long.MIN_VALUE, Long.MAX_VALUE,
+                              Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE),
+            new ScanPredicate(ScanPredicate.ANY_STATUS, ScanPredicate.ANY_CITY, Long.MIN_VALUE, Long.MAX_VALUE,
+                              Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE),
+            // Empty range
+            new ScanPredicate(ScanPredicate.ANY_STATUS, ScanPredicate.ANY_CITY, 10L, 5L,
+                              Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE)
+        };
+        for (int rows : ROW_COUNTS) {
+            try (Arena arena = Arena.ofConfined()) {
+                FilterKernel.Columns columns = randomColumns(arena, rows, random);
+                for (ScanPredicate predicate : predicates) {
+                    assertSameBitmap(columns, rows, predicate);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void deletedRowsNeverMatch() {
+        int rows = 131;
+        try (Arena arena = Arena.ofConfined()) {
+            FilterKernel.Columns columns = randomColumns(arena, rows, new SplittableRandom(3));
+            for (int row = 0; row < rows; row += 3) {
+                columns.statuses.set(ValueLayout.JAVA_BYTE, row, FilterKernel.DELETED);
+            }
+            ScanPredicate everything = new ScanPredicate(ScanPredicate.ANY_STATUS, ScanPredicate.ANY_CITY,
+                    Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            long[] bitmap = assertSameBitmap(columns, rows, everything);
+            for (int row = 0; row < rows; row++) {
+                boolean set = (bitmap[row >>> 6] & (1L << row)) != 0;
+                assertEquals(row % 3 != 0, set, "row " + row);
+            }
+        }
+    }
+    
+    private long[] assertSameBitmap(FilterKernel.Columns columns, int rows, ScanPredicate predicate) {
+        int words = (rows + 63) >>> 6;
+        // Stale contents must be overwritten, not merged
+        long[] expected = new long[words];
+        long[] actual = new long[words];
+        Arrays.fill(expected, -1L);
+        Arrays.fill(actual, -1L);
+        scalar.scan(columns, rows, predicate, expected);
+        vector.scan(columns, rows, predicate, actual);
+        assertArrayEquals(expected, actual, () -> "rows=" + rows + " " + describe(predicate));
+        if (rows % 64 != 0) {
+            assertEquals(0L, expected[words - 1] >>> (rows % 64), "bits past the last row");
+        }
+        return actual;
+    }
+    
+    private static FilterKernel.Columns randomColumns(Arena arena, int rows, SplittableRandom random) {
+        // Allocate at least one element so empty tables still have valid segments
+        int capacity = Math.max(1, rows);
+        MemorySegment prices = arena.allocate(ValueLayout.JAVA_LONG, capacity);
+        MemorySegment bedrooms = arena.allocate(ValueLayout.JAVA_INT, capacity);
+        MemorySegment bathrooms = arena.allocate(ValueLayout.JAVA_INT, capacity);
+        MemorySegment squareFeet = arena.allocate(ValueLayout.JAVA_INT, capacity);
+        MemorySegment cities = arena.allocate(ValueLayout.JAVA_INT, capacity);
+        MemorySegment statuses = arena.allocate(ValueLayout.JAVA_BYTE, capacity);
+        
+        for (int row = 0; row < rows; row++) {
+            prices.setAtIndex(ValueLayout.JAVA_LONG, row, randomPrice(random));
+            bedrooms.setAtIndex(ValueLayout.JAVA_INT, row, randomSmallInt(random));
+            bathrooms.setAtIndex(ValueLayout.JAVA_INT, row, randomSmallInt(random));
+            squareFeet.setAtIndex(ValueLayout.JAVA_INT, row, random.nextInt(10) == 0
+                    ? (random.nextBoolean() ? Integer.MIN_VALUE : Integer.MAX_VALUE)
+                    : random.nextInt(0, 5000));
+            cities.setAtIndex(ValueLayout.JAVA_INT, row, random.nextInt(10) == 0 ? ScanPredicate.ANY_CITY : random.nextInt(0, 5));
+            statuses.set(ValueLayout.JAVA_BYTE, row, random.nextInt(8) == 0 ? FilterKernel.DELETED : (byte) random.nextInt(0, 4));
+        }
+        return new FilterKernel.Columns(prices, bedrooms, bathrooms, squareFeet, cities, statuses);
+    }
+    
+    private static ScanPredicate randomPredicate(SplittableRandom random) {
+        byte status = random.nextInt(3) == 0 ? ScanPredicate.ANY_STATUS : (byte) random.nextInt(0, 4);
+        int city = random.nextInt(3) == 0 ? ScanPredicate.ANY_CITY : random.nextInt(0, 5);
+        long minPrice = random.nextBoolean() ? Long.MIN_VALUE : randomPrice(random);
+        long maxPrice = random.nextBoolean() ? Long.MAX_VALUE : randomPrice(random);
+        int minBedrooms = random.nextBoolean() ? Integer.MIN_VALUE : randomSmallInt(random);
+        int minBathrooms = random.nextBoolean() ? Integer.MIN_VALUE : randomSmallInt(random);
+        int minSquareFeet = random.nextBoolean() ? Integer.MIN_VALUE : random.nextInt(0, 5000);
+        int maxSquareFeet = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(0, 5000);
+        return new ScanPredicate(status, city, minPrice, maxPrice, minBedrooms, minBathrooms, minSquareFeet, maxSquareFeet);
+    }
+    
+    private static long randomPrice(SplittableRandom random) {
+        switch (random.nextInt(12)) {
+            case 0:
+                return Long.MIN_VALUE;
+            case 1:
+                return Long.MAX_VALUE;
+            case 2:
+                return 0L;
+            default:
+                // Few distinct values so equality at the bounds comes up often
+                return random.nextLong(0, 50) * 1_000_000L;
+        }
+    }
+    
+    private static int randomSmallInt(SplittableRandom random) {
+        switch (random.nextInt(12)) {
+            case 0:
+                return Integer.MIN_VALUE;
+            case 1:
+                return Integer.MAX_VALUE;
+            default:
+                return random.nextInt(0, 6);
+        }
+    }
+    
+    private static String describe(ScanPredicate predicate) {
+        return "status=" + predicate.status + " city=" + predicate.city
+                + " price=[" + predicate.minPriceCents + ", " + predicate.maxPriceCents + "]"
+                + " bedrooms>=" + predicate.minBedrooms + " bathrooms>=" + predicate.minBathrooms
+                + " squareFeet=[" + predicate.minSquareFeet + ", " + predicate.maxSquareFeet + "]";
+    }
+}
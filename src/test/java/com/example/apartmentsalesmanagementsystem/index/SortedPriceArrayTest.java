@@ -0,0 +1,148 @@
+package com.example.apartmentsalesmanagementsystem.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SortedPriceArrayTest {
+    
+    private static final Comparator<long[]> BY_PRICE_THEN_ID =
+            Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]);
+    
+    @Test
+    void randomInsertsAndRemovesStaySorted() {
+        SplittableRandom random = new SplittableRandom(11);
+        SortedPriceArray array = new SortedPriceArray();
+        TreeSet<long[]> reference = new TreeSet<>(BY_PRICE_THEN_ID);
+        
+        // Enough operations to grow past the initial capacity several times
+        for (int i = 0; i < 5000; i++) {
+            long price = random.nextLong(0, 40) * 100;
+            long id = random.nextLong(1, 300);
+            if (random.nextInt(3) == 0) {
+                array.remove(price, id);
+                reference.remove(new long[] {price, id});
+            } else {
+                array.insert(price, id);
+                reference.add(new long[] {price, id});
+            }
+        }
+        assertSameContents(reference, array);
+    }
+    
+    @Test
+    void duplicateInsertAndMissingRemoveAreIgnored() {
+        SortedPriceArray array = new SortedPriceArray();
+        array.insert(500, 1);
+        array.insert(500, 1);
+        array.remove(500, 2);
+        array.remove(400, 1);
+        assertEquals(1, array.size());
+        assertEquals(500, array.priceAt(0));
+        assertEquals(1, array.idAt(0));
+    }
+    
+    @Test
+    void equalPricesAreOrderedById() {
+        SortedPriceArray array = new SortedPriceArray();
+        array.insert(100, 9);
+        array.insert(100, 3);
+        array.insert(50, 7);
+        array.insert(100, 5);
+        assertEquals(7, array.idAt(0));
+        assertEquals(3, array.idAt(1));
+        assertEquals(5, array.idAt(2));
+        assertEquals(9, array.idAt(3));
+    }
+    
+    @Test
+    void boundsMatchLinearScan() {
+        SplittableRandom random = new SplittableRandom(5);
+        SortedPriceArray array = new SortedPriceArray();
+        for (int id = 0; id < 200; id++) {
+            array.insert(random.nextLong(0, 20) * 10, id);
+        }
+        long[] probes = {Long.MIN_VALUE, -1, 0, 5, 10, 95, 100, 190, 200, Long.MAX_VALUE};
+        for (long price : probes) {
+            int lower = 0;
+            while (lower < array.size() && array.priceAt(lower) < price) {
+                lower++;
+            }
+            int upper = 0;
+            while (upper < array.size() && array.priceAt(upper) <= price) {
+                upper++;
+            }
+            assertEquals(lower, array.lowerBound(price), "lowerBound(" + price + ")");
+            assertEquals(upper, array.upperBound(price), "upperBound(" + price + ")");
+        }
+    }
+    
+    @Test
+    void loadThenInsertGrowsFromLoadedSize() {
+        SortedPriceArray array = new SortedPriceArray();
+        int count = 100;
+        long[] prices = new long[count];
+        long[] ids = new long[count];
+        TreeSet<long[]> reference = new TreeSet<>(BY_PRICE_THEN_ID);
+        for (int i = 0; i < count; i++) {
+            prices[i] = i * 10L;
+            ids[i] = i;
+            reference.add(new long[] {prices[i], ids[i]});
+        }
+        array.load(prices, ids, count);
+        
+        // The loaded arrays are exactly full, so this insert must grow them
+        array.insert(55, 1000);
+        reference.add(new long[] {55, 1000});
+        array.remove(0, 0);
+        reference.remove(new long[] {0, 0});
+        assertSameContents(reference, array);
+    }
+    
+    @Test
+    void batchInsertMatchesSingleInserts() {
+        SplittableRandom random = new SplittableRandom(23);
+        SortedPriceArray array = new SortedPriceArray();
+        TreeSet<long[]> reference = new TreeSet<>(BY_PRICE_THEN_ID);
+        for (int round = 0; round < 50; round++) {
+            int count = random.nextInt(0, 200);
+            long[] prices = new long[count];
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                // Repeats within a batch and against earlier batches
+                prices[i] = random.nextLong(0, 30) * 100;
+                ids[i] = random.nextLong(1, 500);
+                reference.add(new long[] {prices[i], ids[i]});
+            }
+            array.insertAll(prices, ids, count);
+            assertSameContents(reference, array);
+        }
+    }
+    
+    @Test
+    void emptyArray() {
+        SortedPriceArray array = new SortedPriceArray();
+        assertEquals(0, array.size());
+        assertEquals(0, array.lowerBound(100));
+        assertEquals(0, array.upperBound(100));
+        array.load(new long[0], new long[0], 0);
+        assertEquals(0, array.size());
+        array.insert(1, 1);
+        assertEquals(1, array.size());
+    }
+    
+    private static void assertSameContents(TreeSet<long[]> reference, SortedPriceArray array) {
+        List<long[]> expected = new ArrayList<>(reference);
+        assertEquals(expected.size(), array.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)[0], array.priceAt(i), "price at " + i);
+            assertEquals(expected.get(i)[1], array.idAt(i), "id at " + i);
+        }
+    }
+}
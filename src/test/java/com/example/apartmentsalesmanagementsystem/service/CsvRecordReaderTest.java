@@ -0,0 +1,86 @@
+package com.example.apartmentsalesmanagementsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTest {
+    
+    @Test
+    void plainFieldsAndLineEndings() throws IOException {
+        List<List<String>> records = readAll("a,b,c\r\nd,e,f\ng,h,i");
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("d", "e", "f"), List.of("g", "h", "i")), records);
+    }
+    
+    @Test
+    void emptyFieldsAreKept() throws IOException {
+        assertEquals(List.of(List.of("", "b", ""), List.of("", "", "")), readAll(",b,\n,,\n"));
+    }
+    
+    @Test
+    void quotedFieldsMayHoldCommasQuotesAndLineBreaks() throws IOException {
+        List<List<String>> records = readAll("\"Main St, 5\",\"say \"\"hi\"\"\",\"two\r\nlines\"\nnext,row,here\n");
+        assertEquals(List.of(
+                List.of("Main St, 5", "say \"hi\"", "two\r\nlines"),
+                List.of("next", "row", "here")), records);
+    }
+    
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of(List.of("5\" pipe", "x")), readAll("5\" pipe,x\n"));
+    }
+    
+    @Test
+    void blankLinesBetweenRecordsAreSkipped() throws IOException {
+        assertEquals(List.of(List.of("a"), List.of("b")), readAll("\n\r\na\n\n\r\nb\n\n"));
+    }
+    
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertNull(new CsvRecordReader(new StringReader("")).next());
+    }
+    
+    @Test
+    void recordLineCountsLinesInsideQuotedFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("h1,h2\n\"multi\nline\",x\n\nlast,y\n"));
+        reader.next();
+        assertEquals(1, reader.getRecordLine());
+        reader.next();
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("last", "y"), reader.next());
+        assertEquals(5, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+    
+    @Test
+    void loneCarriageReturnEndsARecord() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll("a,b\rc,d"));
+    }
+    
+    @Test
+    void unterminatedQuoteIsReported() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("ok,row\n\"never closed,x\n"));
+        IOException error = assertThrows(IOException.class, () -> {
+            reader.next();
+            reader.next();
+        });
+        assertEquals("Unterminated quoted field starting on line 2", error.getMessage());
+    }
+    
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}